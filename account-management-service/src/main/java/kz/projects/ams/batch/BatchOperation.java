@@ -0,0 +1,20 @@
+package kz.projects.ams.batch;
+
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.ams.security.CurrentUser;
+
+/**
+ * Операция со счетом, ожидающая записи в составе пакета {@link TransactionBatchWriter}.
+ * Для переводов {@code counterpartyId} содержит счет получателя, для остальных операций равен {@code null}.
+ * Сумма {@code amount} указывается в минимальных единицах валюты. Если задан {@code recipient}, уведомление
+ * о выполненной операции добавляется в outbox в транзакции пакета; {@code null} — операция без уведомления.
+ */
+public record BatchOperation(
+        TransactionType type,
+        Long accountId,
+        Long counterpartyId,
+        long amount,
+        Long userId,
+        CurrentUser recipient
+) {
+}
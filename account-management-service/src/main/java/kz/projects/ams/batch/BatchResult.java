@@ -0,0 +1,12 @@
+package kz.projects.ams.batch;
+
+import kz.projects.ams.models.Transaction;
+
+/**
+ * Результат операции из пакета: записанная транзакция или ошибка, по которой операция отклонена.
+ */
+public record BatchResult(
+        Transaction transaction,
+        RuntimeException failure
+) {
+}
@@ -0,0 +1,130 @@
+package kz.projects.ams.batch;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Массовая загрузка операций со счетами.
+ * Операции читаются порциями по {@code ams.bulk.chunk-size} и записываются через
+ * {@link TransactionBatchWriter#writeAll(List)}: счета порции блокируются одним запросом,
+ * проверки выполняются в памяти, а изменения записываются пакетами. Пока одна порция записывается
+ * в пуле потоков записи, вызывающий поток читает и проверяет следующую.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkTransactionImporter {
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final TransactionBatchWriter transactionBatchWriter;
+
+  @Value("${ams.bulk.chunk-size:1000}")
+  private int chunkSize;
+
+  @Value("${ams.bulk.max-rows:100000}")
+  private int maxRows;
+
+  @Value("${ams.bulk.writer-threads:4}")
+  private int writerThreads;
+
+  private ExecutorService writers;
+
+  @PostConstruct
+  public void start() {
+    AtomicInteger threadNumber = new AtomicInteger();
+    writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+      Thread thread = new Thread(runnable, "bulk-transaction-writer-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    writers.shutdown();
+    writers.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  public int getMaxRows() {
+    return maxRows;
+  }
+
+  /**
+   * Записывает операции порциями, не более {@code ams.bulk.max-rows} за вызов.
+   * Если {@link Iterator#next()} бросает исключение, строка считается отклоненной, а чтение продолжается.
+   * Если запись порции завершилась ошибкой базы данных, все операции этой порции отклоняются с этой ошибкой.
+   *
+   * @param operations операции в порядке строк загрузки
+   * @return результаты в порядке строк загрузки
+   */
+  public List<BatchResult> importAll(Iterator<BatchOperation> operations) {
+    List<BatchResult> results = new ArrayList<>();
+    List<BatchOperation> chunk = new ArrayList<>(chunkSize);
+    List<Integer> positions = new ArrayList<>(chunkSize);
+    PendingChunk pending = null;
+
+    while (results.size() < maxRows && operations.hasNext()) {
+      try {
+        BatchOperation operation = operations.next();
+        positions.add(results.size());
+        results.add(null);
+        chunk.add(operation);
+      } catch (RuntimeException e) {
+        results.add(new BatchResult(null, e));
+      }
+
+      if (chunk.size() == chunkSize) {
+        complete(pending, results);
+        pending = submit(chunk, positions);
+        chunk = new ArrayList<>(chunkSize);
+        positions = new ArrayList<>(chunkSize);
+      }
+    }
+
+    complete(pending, results);
+    if (!chunk.isEmpty()) {
+      complete(submit(chunk, positions), results);
+    }
+    return results;
+  }
+
+  private PendingChunk submit(List<BatchOperation> chunk, List<Integer> positions) {
+    return new PendingChunk(positions, chunk,
+            CompletableFuture.supplyAsync(() -> transactionBatchWriter.writeAll(chunk), writers));
+  }
+
+  private void complete(PendingChunk pending, List<BatchResult> results) {
+    if (pending == null) {
+      return;
+    }
+    List<BatchResult> written;
+    try {
+      written = pending.results().join();
+    } catch (CompletionException e) {
+      RuntimeException cause = e.getCause() instanceof RuntimeException runtime ? runtime : e;
+      log.log(Level.SEVERE, "Failed to write bulk chunk of " + pending.operations().size() + " operations", cause);
+      written = pending.operations().stream().map(operation -> new BatchResult(null, cause)).toList();
+    }
+    for (int i = 0; i < written.size(); i++) {
+      results.set(pending.positions().get(i), written.get(i));
+    }
+  }
+
+  private record PendingChunk(List<Integer> positions, List<BatchOperation> operations,
+                              CompletableFuture<List<BatchResult>> results) {
+  }
+}
@@ -0,0 +1,152 @@
+package kz.projects.ams.batch;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.ams.dto.requests.BulkTransactionRow;
+import kz.projects.ams.exceptions.InvalidBulkImportException;
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.commonlib.money.Money;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Потоковое чтение строк массовой загрузки из JSON-массива или CSV.
+ * Строки разбираются по одной по мере чтения тела запроса. Ошибка в отдельной строке
+ * бросается из {@link Iterator#next()}, после чего чтение продолжается со следующей строки;
+ * синтаксическая ошибка JSON бросается так же, но завершает чтение.
+ */
+public final class BulkTransactionReader {
+  private static final String CSV_HEADER = "type";
+
+  private BulkTransactionReader() {
+  }
+
+  /**
+   * Читает JSON-массив объектов {@code {"type", "accountId", "toAccount", "amount"}}.
+   *
+   * @throws InvalidBulkImportException если тело запроса не является JSON-массивом
+   */
+  public static Iterator<BulkTransactionRow> json(InputStream in, ObjectMapper objectMapper) {
+    JsonParser parser;
+    try {
+      parser = objectMapper.getFactory().createParser(in);
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new InvalidBulkImportException("Expected a JSON array of transactions", null);
+      }
+    } catch (IOException e) {
+      throw new InvalidBulkImportException("Malformed JSON", e);
+    }
+
+    return new RowIterator<JsonNode>() {
+      @Override
+      protected JsonNode read() throws IOException {
+        return parser.nextToken() == JsonToken.END_ARRAY ? null : objectMapper.readTree(parser);
+      }
+
+      @Override
+      protected BulkTransactionRow parse(JsonNode node) {
+        try {
+          return objectMapper.treeToValue(node, BulkTransactionRow.class);
+        } catch (JsonProcessingException e) {
+          throw new IllegalArgumentException("Invalid row: " + e.getOriginalMessage(), e);
+        }
+      }
+    };
+  }
+
+  /**
+   * Читает CSV со столбцами {@code type,accountId,toAccount,amount}. Строка заголовка и пустые строки пропускаются,
+   * {@code toAccount} заполняется только для переводов.
+   */
+  public static Iterator<BulkTransactionRow> csv(InputStream in) {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+    return new RowIterator<String>() {
+      private boolean first = true;
+
+      @Override
+      protected String read() throws IOException {
+        String line;
+        do {
+          line = reader.readLine();
+        } while (line != null && (line.isBlank() || isHeader(line)));
+        first = false;
+        return line;
+      }
+
+      private boolean isHeader(String line) {
+        return first && line.trim().toLowerCase(Locale.ROOT).startsWith(CSV_HEADER);
+      }
+
+      @Override
+      protected BulkTransactionRow parse(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 4) {
+          throw new IllegalArgumentException("Expected 4 columns but got " + columns.length);
+        }
+        try {
+          return new BulkTransactionRow(
+                  TransactionType.valueOf(columns[0].trim().toUpperCase(Locale.ROOT)),
+                  Long.valueOf(columns[1].trim()),
+                  columns[2].isBlank() ? null : Long.valueOf(columns[2].trim()),
+                  Money.of(columns[3].trim())
+          );
+        } catch (IllegalArgumentException | ArithmeticException e) {
+          throw new IllegalArgumentException("Invalid row: " + e.getMessage(), e);
+        }
+      }
+    };
+  }
+
+  private abstract static class RowIterator<T> implements Iterator<BulkTransactionRow> {
+    private T next;
+    private RuntimeException failure;
+    private boolean done;
+
+    protected abstract T read() throws IOException;
+
+    protected abstract BulkTransactionRow parse(T raw);
+
+    @Override
+    public boolean hasNext() {
+      if (next != null || failure != null) {
+        return true;
+      }
+      if (done) {
+        return false;
+      }
+      try {
+        next = read();
+      } catch (IOException e) {
+        failure = new IllegalArgumentException("Malformed input: " + e.getMessage(), e);
+      }
+      done = next == null;
+      return next != null || failure != null;
+    }
+
+    @Override
+    public BulkTransactionRow next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (failure != null) {
+        RuntimeException e = failure;
+        failure = null;
+        throw e;
+      }
+      T raw = next;
+      next = null;
+      return parse(raw);
+    }
+  }
+}
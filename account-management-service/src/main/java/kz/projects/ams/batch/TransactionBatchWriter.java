@@ -0,0 +1,295 @@
+package kz.projects.ams.batch;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kz.projects.ams.exceptions.InsufficientFundsException;
+import kz.projects.ams.exceptions.UnauthorizedException;
+import kz.projects.ams.exceptions.UserAccountNotFoundException;
+import kz.projects.ams.models.Account;
+import kz.projects.ams.models.Transaction;
+import kz.projects.ams.outbox.TransactionEventPublisher;
+import kz.projects.ams.repositories.AccountBalanceSnapshotJdbcRepository;
+import kz.projects.ams.repositories.AccountJdbcRepository;
+import kz.projects.ams.repositories.TransactionIdAllocator;
+import kz.projects.ams.repositories.TransactionJdbcRepository;
+import kz.projects.ams.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Групповая фиксация операций со счетами.
+ * Операции, поступившие от параллельных запросов в течение короткого окна, записываются одним потоком
+ * в одной транзакции базы данных: строки счетов блокируются одним запросом, балансы обновляются
+ * одним пакетом, а транзакции вставляются многострочным {@code INSERT} с заранее выделенными
+ * идентификаторами. Уведомления о выполненных операциях добавляются в outbox в той же транзакции.
+ * Каждый вызывающий поток получает результат после фиксации пакета.
+ * Включается свойством {@code ams.group-commit.enabled}.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionBatchWriter {
+  private static final long IDLE_POLL_MS = 100;
+
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final AccountJdbcRepository accountJdbcRepository;
+  private final TransactionJdbcRepository transactionJdbcRepository;
+  private final AccountBalanceSnapshotJdbcRepository snapshotJdbcRepository;
+  private final TransactionIdAllocator transactionIdAllocator;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionEventPublisher transactionEventPublisher;
+
+  @Value("${ams.group-commit.enabled:false}")
+  private boolean enabled;
+
+  @Value("${ams.group-commit.window-ms:2}")
+  private long windowMs;
+
+  @Value("${ams.group-commit.max-batch-size:256}")
+  private int maxBatchSize;
+
+  @Value("${ams.group-commit.queue-capacity:10000}")
+  private int queueCapacity;
+
+  private BlockingQueue<PendingOperation> queue;
+  private Thread writerThread;
+  private volatile boolean running;
+
+  @PostConstruct
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    queue = new ArrayBlockingQueue<>(queueCapacity);
+    running = true;
+    writerThread = new Thread(this::run, "transaction-batch-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Останавливает поток записи. Операции, уже поставленные в очередь, будут записаны.
+   */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    if (writerThread == null) {
+      return;
+    }
+    running = false;
+    writerThread.join(TimeUnit.SECONDS.toMillis(10));
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Ставит операцию в очередь и ожидает фиксации пакета, в который она попала.
+   *
+   * @param operation операция со счетом
+   * @return записанная транзакция
+   * @throws UserAccountNotFoundException если счет не найден
+   * @throws UnauthorizedException        если счет не принадлежит пользователю операции
+   * @throws InsufficientFundsException   если на счете недостаточно средств
+   */
+  public Transaction submit(BatchOperation operation) {
+    if (!running) {
+      throw new IllegalStateException("Transaction batch writer is not running");
+    }
+    PendingOperation pending = new PendingOperation(operation, new CompletableFuture<>());
+    try {
+      queue.put(pending);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while submitting transaction", e);
+    }
+
+    try {
+      return pending.result().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private void run() {
+    List<PendingOperation> batch = new ArrayList<>(maxBatchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        collect(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        running = false;
+      }
+      if (!batch.isEmpty()) {
+        write(batch);
+        batch.clear();
+      }
+    }
+  }
+
+  private void collect(List<PendingOperation> batch) throws InterruptedException {
+    PendingOperation first = queue.poll(running ? IDLE_POLL_MS : 0, TimeUnit.MILLISECONDS);
+    if (first == null) {
+      return;
+    }
+    batch.add(first);
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+    while (batch.size() < maxBatchSize) {
+      PendingOperation next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+  }
+
+  /**
+   * Записывает готовый пакет операций в одной транзакции базы данных в потоке вызывающего кода, минуя очередь.
+   * Ошибка отдельной операции не отменяет остальные операции пакета.
+   * Работает независимо от свойства {@code ams.group-commit.enabled}.
+   *
+   * @param operations операции со счетами
+   * @return результаты операций в порядке пакета
+   */
+  public List<BatchResult> writeAll(List<BatchOperation> operations) {
+    return transactionTemplate.execute(status -> apply(operations));
+  }
+
+  private void write(List<PendingOperation> batch) {
+    List<BatchResult> results;
+    try {
+      results = writeAll(batch.stream().map(PendingOperation::operation).toList());
+    } catch (RuntimeException e) {
+      log.log(Level.SEVERE, "Failed to write transaction batch of " + batch.size() + " operations", e);
+      batch.forEach(pending -> pending.result().completeExceptionally(e));
+      return;
+    }
+
+    for (int i = 0; i < batch.size(); i++) {
+      BatchResult result = results.get(i);
+      if (result.failure() != null) {
+        batch.get(i).result().completeExceptionally(result.failure());
+      } else {
+        batch.get(i).result().complete(result.transaction());
+      }
+    }
+  }
+
+  private List<BatchResult> apply(List<BatchOperation> operations) {
+    Set<Long> accountIds = new TreeSet<>();
+    for (BatchOperation operation : operations) {
+      accountIds.add(operation.accountId());
+      if (operation.counterpartyId() != null) {
+        accountIds.add(operation.counterpartyId());
+      }
+    }
+    Map<Long, Account> accounts = accountJdbcRepository.lockAll(accountIds);
+
+    Map<Long, Long> deltas = new TreeMap<>();
+    Map<Long, Date> asOf = new TreeMap<>();
+    List<Transaction> transactions = new ArrayList<>(operations.size());
+    List<BatchResult> results = new ArrayList<>(operations.size());
+    for (BatchOperation operation : operations) {
+      try {
+        Transaction transaction = applyOperation(operation, accounts, deltas);
+        transactions.add(transaction);
+        asOf.put(transaction.getAccount().getId(), transaction.getDate());
+        if (transaction.getCounterpartyAccountId() != null) {
+          asOf.put(transaction.getCounterpartyAccountId(), transaction.getDate());
+        }
+        results.add(new BatchResult(transaction, null));
+      } catch (RuntimeException e) {
+        results.add(new BatchResult(null, e));
+      }
+    }
+
+    if (!transactions.isEmpty()) {
+      accountJdbcRepository.addToBalances(deltas);
+      snapshotJdbcRepository.recordAll(asOf);
+      transactionJdbcRepository.insertAll(transactions);
+    }
+    for (int i = 0; i < operations.size(); i++) {
+      CurrentUser recipient = operations.get(i).recipient();
+      Transaction transaction = results.get(i).transaction();
+      if (recipient != null && transaction != null) {
+        transactionEventPublisher.publish(recipient, transaction);
+      }
+    }
+    return results;
+  }
+
+  private Transaction applyOperation(BatchOperation operation, Map<Long, Account> accounts,
+                                     Map<Long, Long> deltas) {
+    Account account = getAccount(accounts, operation.accountId());
+    switch (operation.type()) {
+      case DEPOSIT -> {
+        validateUserAccess(account, operation.userId());
+        changeBalance(account, operation.amount(), deltas);
+      }
+      case WITHDRAWAL -> {
+        validateUserAccess(account, operation.userId());
+        validateFunds(account, operation.amount());
+        changeBalance(account, -operation.amount(), deltas);
+      }
+      case TRANSFER -> {
+        Account toAccount = getAccount(accounts, operation.counterpartyId());
+        validateUserAccess(account, operation.userId());
+        validateFunds(account, operation.amount());
+        changeBalance(account, -operation.amount(), deltas);
+        changeBalance(toAccount, operation.amount(), deltas);
+      }
+    }
+
+    return new Transaction(transactionIdAllocator.next(), account, operation.type(), operation.amount(),
+            operation.counterpartyId(), new Date());
+  }
+
+  private Account getAccount(Map<Long, Account> accounts, Long accountId) {
+    Account account = accounts.get(accountId);
+    if (account == null) {
+      throw new UserAccountNotFoundException("Account Not Found!");
+    }
+    return account;
+  }
+
+  private void validateUserAccess(Account account, Long userId) {
+    if (!account.getUser().getId().equals(userId)) {
+      throw new UnauthorizedException("You are not allowed to access this account");
+    }
+  }
+
+  private void validateFunds(Account account, long amount) {
+    if (account.getBalance() < amount) {
+      throw new InsufficientFundsException("Insufficient funds");
+    }
+  }
+
+  private void changeBalance(Account account, long delta, Map<Long, Long> deltas) {
+    account.setBalance(Math.addExact(account.getBalance(), delta));
+    deltas.merge(account.getId(), delta, Math::addExact);
+  }
+
+  private record PendingOperation(BatchOperation operation, CompletableFuture<Transaction> result) {
+  }
+}
@@ -0,0 +1,51 @@
+package kz.projects.ams.cache;
+
+import kz.projects.ams.repositories.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Кэш чтения счетов по идентификатору поверх {@link AccountRepository}.
+ * Возвращает неизменяемые {@link AccountSnapshot}, поэтому подходит только для проверок и отображения баланса;
+ * для изменения счета его нужно читать из базы данных. Решения, зависящие от баланса, принимаются
+ * по {@link #findCurrent(Long)}: кэш на каждом узле и может отставать до истечения срока хранения.
+ * Каждое изменение баланса должно вызывать {@link #evict(Long)}: внутри транзакции удаление из кэша
+ * откладывается до ее фиксации.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountCache {
+  public static final String ACCOUNTS = "accounts";
+
+  private final AccountRepository accountRepository;
+  private final CacheManager cacheManager;
+
+  @Cacheable(cacheNames = ACCOUNTS, unless = "#result == null")
+  public Optional<AccountSnapshot> find(Long accountId) {
+    return accountRepository.findById(accountId).map(AccountSnapshot::of);
+  }
+
+  /**
+   * Читает счет из базы данных в обход кэша.
+   */
+  public Optional<AccountSnapshot> findCurrent(Long accountId) {
+    return accountRepository.findById(accountId).map(AccountSnapshot::of);
+  }
+
+  public void evict(Long accountId) {
+    Cache cache = cacheManager.getCache(ACCOUNTS);
+    if (cache != null) {
+      cache.evict(accountId);
+    }
+  }
+
+  public void evictAll(Collection<Long> accountIds) {
+    accountIds.forEach(this::evict);
+  }
+}
@@ -0,0 +1,19 @@
+package kz.projects.ams.cache;
+
+import kz.projects.ams.models.Account;
+import kz.projects.ams.models.enums.AccountType;
+
+/**
+ * Неизменяемое состояние счета в {@link AccountCache}. Баланс указывается в минимальных единицах валюты.
+ */
+public record AccountSnapshot(
+        Long id,
+        Long userId,
+        AccountType accountType,
+        long balance
+) {
+  public static AccountSnapshot of(Account account) {
+    return new AccountSnapshot(account.getId(), account.getUser().getId(), account.getAccountType(),
+            account.getBalance());
+  }
+}
@@ -0,0 +1,42 @@
+package kz.projects.ams.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import kz.projects.ams.cache.AccountCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  @Value("${ams.cache.accounts.maximum-size:100000}")
+  private long accountsMaximumSize;
+
+  @Value("${ams.cache.accounts.ttl-seconds:60}")
+  private long accountsTtlSeconds;
+
+  /**
+   * Кэши Caffeine со статистикой попаданий, которая публикуется в метриках {@code cache.gets}.
+   * Удаление записей внутри транзакции выполняется после ее фиксации, чтобы параллельное чтение
+   * не загрузило в кэш баланс, который транзакция еще не изменила.
+   */
+  @Bean
+  public CacheManager cacheManager() {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    cacheManager.setCaffeine(Caffeine.newBuilder()
+            .maximumSize(accountsMaximumSize)
+            .expireAfterWrite(Duration.ofSeconds(accountsTtlSeconds))
+            .recordStats());
+    cacheManager.setCacheNames(List.of(AccountCache.ACCOUNTS));
+    cacheManager.setAllowNullValues(false);
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+}
@@ -1,6 +1,7 @@
 package kz.projects.ams.config;
 
 import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.kafka.NotificationEventSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,17 +22,60 @@ public class KafkaProducerConfig {
   @Value("${spring.kafka.bootstrap-servers}")
   private String bootstrapAddress;
 
+  @Value("${ams.kafka.producer.format:binary}")
+  private String format;
+
+  @Value("${ams.kafka.producer.linger-ms:10}")
+  private int lingerMs;
+
+  @Value("${ams.kafka.producer.batch-size:65536}")
+  private int batchSize;
+
+  @Value("${ams.kafka.producer.compression-type:lz4}")
+  private String compressionType;
+
+  @Value("${ams.kafka.producer.acks:all}")
+  private String acks;
+
+  @Value("${ams.kafka.producer.enable-idempotence:true}")
+  private boolean enableIdempotence;
+
+  @Value("${ams.kafka.producer.max-in-flight:5}")
+  private int maxInFlight;
+
   @Bean
   public ProducerFactory<String, NotificationEvent> producerFactory() {
-    Map<String, Object> configProps = new HashMap<>();
-    configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
-    configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-    configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-    return new DefaultKafkaProducerFactory<>(configProps);
+    return new DefaultKafkaProducerFactory<>(producerProperties());
   }
 
   @Bean
   public KafkaTemplate<String, NotificationEvent> kafkaTemplate() {
     return new KafkaTemplate<>(producerFactory());
   }
+
+  /**
+   * Настройки продюсера уведомлений.
+   * Записи накапливаются в пачки и сжимаются, а идемпотентность сохраняет порядок внутри партиции
+   * при повторных отправках. Тип события известен потребителю, поэтому заголовки типа не передаются.
+   * По умолчанию события пишутся в компактном двоичном формате; {@code ams.kafka.producer.format=json}
+   * возвращает JSON, который потребитель по-прежнему читает.
+   */
+  public Map<String, Object> producerProperties() {
+    Map<String, Object> configProps = new HashMap<>();
+    configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
+    configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    if ("json".equalsIgnoreCase(format)) {
+      configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+      configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+    } else {
+      configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, NotificationEventSerializer.class);
+    }
+    configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+    configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+    configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+    configProps.put(ProducerConfig.ACKS_CONFIG, acks);
+    configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+    configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlight);
+    return configProps;
+  }
 }
@@ -10,11 +10,32 @@ import org.springframework.kafka.core.KafkaAdmin;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Топики уведомлений. События пишутся с ключом пользователя, поэтому порядок событий одного пользователя
+ * сохраняется внутри партиции, а количество партиций ограничивает параллелизм потребителей.
+ * При увеличении числа партиций существующего топика {@link KafkaAdmin} добавляет недостающие партиции;
+ * события пользователя, отправленные до и после этого, могут оказаться в разных партициях.
+ */
 @Configuration
 public class KafkaTopicConfig {
   @Value("${spring.kafka.bootstrap-servers}")
   private String bootstrapAddress;
 
+  @Value("${ams.kafka.topics.account.partitions:6}")
+  private int accountPartitions;
+
+  @Value("${ams.kafka.topics.investment.partitions:6}")
+  private int investmentPartitions;
+
+  @Value("${ams.kafka.topics.transactions.partitions:12}")
+  private int transactionsPartitions;
+
+  @Value("${ams.kafka.topics.advisory.partitions:6}")
+  private int advisoryPartitions;
+
+  @Value("${ams.kafka.topics.replication-factor:1}")
+  private short replicationFactor;
+
   @Bean
   public KafkaAdmin kafkaAdmin() {
     Map<String, Object> configs = new HashMap<>();
@@ -24,21 +45,21 @@ public class KafkaTopicConfig {
 
   @Bean
   public NewTopic accountTopic() {
-    return new NewTopic("topic-account", 1, (short) 1);
+    return new NewTopic("topic-account", accountPartitions, replicationFactor);
   }
 
   @Bean
   public NewTopic investmentTopic() {
-    return new NewTopic("topic-investment", 1, (short) 1);
+    return new NewTopic("topic-investment", investmentPartitions, replicationFactor);
   }
 
   @Bean
   public NewTopic transactionsTopic() {
-    return new NewTopic("topic-transactions", 1, (short) 1);
+    return new NewTopic("topic-transactions", transactionsPartitions, replicationFactor);
   }
 
   @Bean
   public NewTopic advisoryTopic() {
-    return new NewTopic("topic-advisory", 1, (short) 1);
+    return new NewTopic("topic-advisory", advisoryPartitions, replicationFactor);
   }
 }
@@ -0,0 +1,29 @@
+package kz.projects.ams.config;
+
+import kz.projects.commonlib.money.MoneyColumnMigration;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Configuration
+public class MoneyConfig {
+
+  @Bean(initMethod = "migrate")
+  public MoneyColumnMigration moneyColumnMigration(DataSource dataSource) {
+    return new MoneyColumnMigration(dataSource, List.of(
+            "t_accounts.balance",
+            "t_transactions.amount",
+            "t_account_balance_snapshots.balance"
+    ));
+  }
+
+  @Configuration
+  static class MoneyColumnMigrationDependency extends EntityManagerFactoryDependsOnPostProcessor {
+    MoneyColumnMigrationDependency() {
+      super("moneyColumnMigration");
+    }
+  }
+}
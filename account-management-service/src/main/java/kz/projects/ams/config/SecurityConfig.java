@@ -1,8 +1,15 @@
 package kz.projects.ams.config;
 
+import jakarta.servlet.DispatcherType;
+import kz.projects.ams.security.CachingAuthenticationProvider;
+import kz.projects.ams.security.PrincipalCache;
+import kz.projects.ams.security.TokenAuthenticationFilter;
+import kz.projects.ams.security.TokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -15,43 +22,68 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(securedEnabled = true, jsr250Enabled = true)
 public class SecurityConfig {
 
+  private static final String TOKEN_AUTH_MODE = "token";
+
   private final UserDetailsService userDetailsService;
 
+  /**
+   * Режим аутентификации: {@code session} — HTTP Basic с серверной сессией,
+   * {@code token} — токены {@link TokenService} без сессий, HTTP Basic остается доступен.
+   */
+  @Value("${ams.security.auth-mode:session}")
+  private String authMode;
+
   public SecurityConfig(UserDetailsService userDetailsService) {
     this.userDetailsService = userDetailsService;
   }
 
   @Bean
-  public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain filterChain(HttpSecurity http, PrincipalCache principalCache,
+                                         TokenService tokenService) throws Exception {
+
+    DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
+    daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+    daoAuthenticationProvider.setPasswordEncoder(bCryptPasswordEncoder());
 
     AuthenticationManagerBuilder builder =
             http.getSharedObject(AuthenticationManagerBuilder.class);
-    builder.userDetailsService(userDetailsService).passwordEncoder(bCryptPasswordEncoder());
+    builder.authenticationProvider(new CachingAuthenticationProvider(daoAuthenticationProvider, principalCache));
 
     http.csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(authorizationManagerRequestMatcherRegistry ->
-                    authorizationManagerRequestMatcherRegistry.requestMatchers(HttpMethod.DELETE).permitAll()
+                    authorizationManagerRequestMatcherRegistry.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                            .requestMatchers(HttpMethod.DELETE).permitAll()
                             .requestMatchers("/swagger-ui/**").permitAll()
+                            .requestMatchers("/actuator/health").permitAll()
                             .requestMatchers("/api/v1/ams/auth/**").permitAll()
                             .requestMatchers("/api/v1/ams/check-balance").permitAll()
                             .anyRequest().authenticated())
             .httpBasic(Customizer.withDefaults())
             .sessionManagement(httpSecuritySessionManagementConfigurer -> httpSecuritySessionManagementConfigurer
-                    .sessionCreationPolicy(SessionCreationPolicy.ALWAYS))
+                    .sessionCreationPolicy(isTokenMode() ? SessionCreationPolicy.STATELESS : SessionCreationPolicy.ALWAYS))
             .formLogin(AbstractAuthenticationFilterConfigurer::disable)
             .logout(httpSecurityLogoutConfigurer -> httpSecurityLogoutConfigurer
                     .logoutUrl("/api/v1/ams/auth/logout")
                     .permitAll());
 
+    if (isTokenMode()) {
+      http.addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class);
+    }
+
     return http.build();
   }
 
+  private boolean isTokenMode() {
+    return TOKEN_AUTH_MODE.equalsIgnoreCase(authMode);
+  }
+
   @Bean
   public PasswordEncoder bCryptPasswordEncoder() {
     return new BCryptPasswordEncoder();
@@ -6,12 +6,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import kz.projects.ams.dto.AccountDTO;
+import kz.projects.ams.dto.BalanceDTO;
+import kz.projects.ams.dto.BalancePointDTO;
 import kz.projects.ams.services.AccountService;
+import kz.projects.ams.services.BalanceHistoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.Date;
 import java.util.List;
 
 @RestController
@@ -20,6 +26,9 @@ import java.util.List;
 public class AccountController {
 
   private final AccountService accountService;
+  private final BalanceHistoryService balanceHistoryService;
+
+  private static final Duration DEFAULT_HISTORY_PERIOD = Duration.ofDays(30);
 
   @Operation(summary = "Create a new account")
   @ApiResponses(value = {
@@ -65,4 +74,35 @@ public class AccountController {
     accountService.deleteAccount(id);
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
+
+  @Operation(summary = "Get account balance at a point in time")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Balance calculated successfully",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = BalanceDTO.class))),
+          @ApiResponse(responseCode = "404", description = "Account or balance history not found", content = @Content)
+  })
+  @GetMapping("/{id}/balance")
+  public ResponseEntity<BalanceDTO> getBalanceAt(
+          @PathVariable(name = "id") Long id,
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date at) {
+    return new ResponseEntity<>(balanceHistoryService.getBalanceAt(id, at != null ? at : new Date()), HttpStatus.OK);
+  }
+
+  @Operation(summary = "Get running balance history of an account")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Balance history calculated successfully",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = BalancePointDTO.class))),
+          @ApiResponse(responseCode = "404", description = "Account or balance history not found", content = @Content)
+  })
+  @GetMapping("/{id}/balance-history")
+  public ResponseEntity<List<BalancePointDTO>> getBalanceHistory(
+          @PathVariable(name = "id") Long id,
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+          @RequestParam(defaultValue = "1000") int limit) {
+    Date periodEnd = to != null ? to : new Date();
+    Date periodStart = from != null ? from : Date.from(periodEnd.toInstant().minus(DEFAULT_HISTORY_PERIOD));
+    return new ResponseEntity<>(balanceHistoryService.getBalanceHistory(id, periodStart, periodEnd, limit),
+            HttpStatus.OK);
+  }
 }
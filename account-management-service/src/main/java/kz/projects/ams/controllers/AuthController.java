@@ -8,6 +8,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import kz.projects.ams.dto.AdviserDTO;
 import kz.projects.ams.dto.requests.LoginRequest;
 import kz.projects.ams.dto.UserDTO;
+import kz.projects.ams.dto.responses.TokenResponse;
 import kz.projects.ams.services.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -51,6 +52,21 @@ public class AuthController {
     }
   }
 
+  @Operation(summary = "Issue an access token")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Token issued",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = TokenResponse.class))),
+          @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content)
+  })
+  @PostMapping("/token")
+  public ResponseEntity<?> issueToken(@RequestBody LoginRequest request) {
+    try {
+      return ResponseEntity.ok(userService.issueToken(request));
+    } catch (Exception e) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+    }
+  }
+
   @Operation(summary = "Register a new advisor")
   @ApiResponses(value = {
           @ApiResponse(responseCode = "201", description = "Advisor registered successfully",
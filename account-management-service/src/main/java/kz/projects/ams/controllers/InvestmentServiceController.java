@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import kz.projects.ams.dto.requests.InvestmentRequest;
 import kz.projects.ams.dto.responses.InvestmentResponse;
+import kz.projects.ams.idempotency.IdempotencyService;
 import kz.projects.ams.services.UserInvestmentService;
 import kz.projects.commonlib.dto.BalanceCheckRequest;
 import kz.projects.commonlib.dto.BalanceCheckResponse;
@@ -18,8 +19,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -29,16 +32,22 @@ import java.util.List;
 public class InvestmentServiceController {
 
   private final UserInvestmentService investmentAdvisoryService;
+  private final IdempotencyService idempotencyService;
 
   @Operation(summary = "Create a new investment")
   @ApiResponses(value = {
           @ApiResponse(responseCode = "201", description = "Investment created successfully",
                   content = @Content(mediaType = "application/json", schema = @Schema(implementation = InvestmentResponse.class))),
-          @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+          @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+          @ApiResponse(responseCode = "409", description = "Idempotency key conflict", content = @Content)
   })
   @PostMapping("/to-invest")
-  public ResponseEntity<InvestmentResponse> toInvest(@RequestBody InvestmentRequest request) {
-    return new ResponseEntity<>(investmentAdvisoryService.toInvest(request), HttpStatus.CREATED);
+  public Mono<ResponseEntity<InvestmentResponse>> toInvest(
+          @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+          @RequestBody InvestmentRequest request) {
+    return idempotencyService.executeAsync(idempotencyKey, "to-invest", request,
+                    InvestmentResponse.class, () -> investmentAdvisoryService.toInvest(request))
+            .map(investment -> new ResponseEntity<>(investment, HttpStatus.CREATED));
   }
 
   @Operation(summary = "Get all user investments")
@@ -48,9 +57,9 @@ public class InvestmentServiceController {
           @ApiResponse(responseCode = "404", description = "Investments not found", content = @Content)
   })
   @GetMapping("/view-investments")
-  public ResponseEntity<List<InvestmentResponse>> getAllUsersInvestments() {
-    List<InvestmentResponse> investmentResponses = investmentAdvisoryService.getAllUsersInvestments();
-    return new ResponseEntity<>(investmentResponses, HttpStatus.OK);
+  public Mono<ResponseEntity<List<InvestmentResponse>>> getAllUsersInvestments() {
+    return investmentAdvisoryService.getAllUsersInvestments()
+            .map(investmentResponses -> new ResponseEntity<>(investmentResponses, HttpStatus.OK));
   }
 
   @Operation(summary = "Delete an investment")
@@ -59,9 +68,9 @@ public class InvestmentServiceController {
           @ApiResponse(responseCode = "404", description = "Investment not found", content = @Content)
   })
   @DeleteMapping("/delete-investment/{id}")
-  public ResponseEntity<Void> deleteInvestments(@PathVariable("id") Long id) {
-    investmentAdvisoryService.deleteInvestment(id);
-    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  public Mono<ResponseEntity<Void>> deleteInvestments(@PathVariable("id") Long id) {
+    return investmentAdvisoryService.deleteInvestment(id)
+            .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
   }
 
   @Operation(summary = "Check balance")
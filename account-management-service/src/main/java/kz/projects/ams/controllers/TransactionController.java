@@ -5,16 +5,37 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import kz.projects.ams.batch.BulkTransactionReader;
 import kz.projects.ams.dto.TransactionDTO;
+import kz.projects.ams.dto.requests.BulkTransactionRow;
+import kz.projects.ams.dto.requests.TransactionFilter;
 import kz.projects.ams.dto.requests.TransactionRequest;
 import kz.projects.ams.dto.requests.TransferRequest;
+import kz.projects.ams.dto.responses.BulkTransactionResponse;
+import kz.projects.ams.dto.responses.TransactionPageResponse;
+import kz.projects.ams.idempotency.IdempotencyService;
+import kz.projects.ams.models.enums.TransactionType;
 import kz.projects.ams.services.TransactionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
@@ -22,38 +43,75 @@ import java.util.List;
 public class TransactionController {
 
   private final TransactionService transactionService;
+  private final ObjectMapper objectMapper;
+  private final IdempotencyService idempotencyService;
+
+  private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+  private static final String TEXT_CSV_VALUE = "text/csv";
 
   @Operation(summary = "Deposit an amount")
   @ApiResponses(value = {
           @ApiResponse(responseCode = "200", description = "Amount deposited successfully",
                   content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionDTO.class))),
-          @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+          @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+          @ApiResponse(responseCode = "409", description = "Idempotency key conflict", content = @Content)
   })
   @PostMapping("/deposit")
-  public ResponseEntity<TransactionDTO> deposit(@RequestBody TransactionRequest request) {
-    return new ResponseEntity<>(transactionService.deposit(request), HttpStatus.OK);
+  public ResponseEntity<TransactionDTO> deposit(
+          @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+          @RequestBody TransactionRequest request) {
+    TransactionDTO transaction = idempotencyService.execute(idempotencyKey, "deposit", request,
+            TransactionDTO.class, () -> transactionService.deposit(request));
+    return new ResponseEntity<>(transaction, HttpStatus.OK);
   }
 
   @Operation(summary = "Withdraw an amount")
   @ApiResponses(value = {
           @ApiResponse(responseCode = "200", description = "Amount withdrawn successfully",
                   content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionDTO.class))),
-          @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+          @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+          @ApiResponse(responseCode = "409", description = "Idempotency key conflict", content = @Content)
   })
   @PostMapping("/withdraw")
-  private ResponseEntity<TransactionDTO> withdrawal(@RequestBody TransactionRequest request) {
-    return new ResponseEntity<>(transactionService.withdraw(request), HttpStatus.OK);
+  private ResponseEntity<TransactionDTO> withdrawal(
+          @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+          @RequestBody TransactionRequest request) {
+    TransactionDTO transaction = idempotencyService.execute(idempotencyKey, "withdraw", request,
+            TransactionDTO.class, () -> transactionService.withdraw(request));
+    return new ResponseEntity<>(transaction, HttpStatus.OK);
   }
 
   @Operation(summary = "Transfer an amount")
   @ApiResponses(value = {
           @ApiResponse(responseCode = "200", description = "Amount transferred successfully",
                   content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionDTO.class))),
-          @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+          @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+          @ApiResponse(responseCode = "409", description = "Idempotency key conflict", content = @Content)
   })
   @PostMapping("/transfer")
-  private ResponseEntity<TransactionDTO> transferAmount(@RequestBody TransferRequest request) {
-    return new ResponseEntity<>(transactionService.transfer(request), HttpStatus.OK);
+  private ResponseEntity<TransactionDTO> transferAmount(
+          @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+          @RequestBody TransferRequest request) {
+    TransactionDTO transaction = idempotencyService.execute(idempotencyKey, "transfer", request,
+            TransactionDTO.class, () -> transactionService.transfer(request));
+    return new ResponseEntity<>(transaction, HttpStatus.OK);
+  }
+
+  @Operation(summary = "Import deposits, withdrawals and transfers from a JSON array or CSV")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Import processed, see per-row results",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkTransactionResponse.class))),
+          @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+  })
+  @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE})
+  public ResponseEntity<BulkTransactionResponse> importTransactions(HttpServletRequest request) throws IOException {
+    boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf(TEXT_CSV_VALUE));
+    try (InputStream in = request.getInputStream()) {
+      Iterator<BulkTransactionRow> rows = csv
+              ? BulkTransactionReader.csv(in)
+              : BulkTransactionReader.json(in, objectMapper);
+      return new ResponseEntity<>(transactionService.importTransactions(rows), HttpStatus.OK);
+    }
   }
 
   @Operation(summary = "Get all transactions")
@@ -66,4 +124,47 @@ public class TransactionController {
   public ResponseEntity<List<TransactionDTO>> getTransactions() {
     return new ResponseEntity<>(transactionService.getTransactions(), HttpStatus.OK);
   }
+
+  @Operation(summary = "Get a page of transactions")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Page of transactions retrieved successfully",
+                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionPageResponse.class))),
+          @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
+  })
+  @GetMapping("/page")
+  public ResponseEntity<TransactionPageResponse> getTransactionPage(
+          @RequestParam(required = false) String cursor,
+          @RequestParam(defaultValue = "50") int limit,
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+          @RequestParam(required = false) Set<TransactionType> type) {
+    TransactionFilter filter = new TransactionFilter(from, to, type);
+    return new ResponseEntity<>(transactionService.getTransactionPage(filter, cursor, limit), HttpStatus.OK);
+  }
+
+  @Operation(summary = "Export transactions as NDJSON")
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Transactions exported successfully",
+                  content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = TransactionDTO.class)))
+  })
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public void exportTransactions(
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+          @RequestParam(required = false) Set<TransactionType> type,
+          HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    ObjectWriter writer = objectMapper.writerFor(TransactionDTO.class);
+    OutputStream out = new BufferedOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE);
+
+    transactionService.exportTransactions(new TransactionFilter(from, to, type), transaction -> {
+      try {
+        out.write(writer.writeValueAsBytes(transaction));
+        out.write('\n');
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    out.flush();
+  }
 }
@@ -1,10 +1,11 @@
 package kz.projects.ams.dto;
 
 import kz.projects.ams.models.enums.AccountType;
+import kz.projects.commonlib.money.Money;
 
 public record AccountDTO(
         Long id,
         String email,
         AccountType accountType,
-        Double balance
+        Money balance
 ) {}
@@ -0,0 +1,11 @@
+package kz.projects.ams.dto;
+
+import kz.projects.commonlib.money.Money;
+
+import java.util.Date;
+
+public record BalanceDTO(
+        Long accountId,
+        Date at,
+        Money balance
+) {}
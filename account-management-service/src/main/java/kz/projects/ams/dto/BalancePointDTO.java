@@ -0,0 +1,18 @@
+package kz.projects.ams.dto;
+
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.commonlib.money.Money;
+
+import java.util.Date;
+
+/**
+ * Точка ряда баланса. Для изменения баланса напрямую (без транзакции)
+ * {@code transactionId} и {@code type} равны {@code null}.
+ */
+public record BalancePointDTO(
+        Date date,
+        Long transactionId,
+        TransactionType type,
+        Money change,
+        Money balance
+) {}
@@ -1,7 +1,7 @@
 package kz.projects.ams.dto;
 
 import kz.projects.ams.models.enums.TransactionType;
-
+import kz.projects.commonlib.money.Money;
 
 import java.util.Date;
 
@@ -9,7 +9,13 @@ public record TransactionDTO(
         Long id,
         Long accountId,
         TransactionType type,
-        Double amount,
+        Money amount,
         Date date
-) {}
-
+) {
+  /**
+   * Используется в JPQL-проекциях, где сумма читается в минимальных единицах валюты.
+   */
+  public TransactionDTO(Long id, Long accountId, TransactionType type, long amount, Date date) {
+    this(id, accountId, type, Money.ofMinor(amount), date);
+  }
+}
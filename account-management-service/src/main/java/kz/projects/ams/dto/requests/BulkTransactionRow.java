@@ -0,0 +1,12 @@
+package kz.projects.ams.dto.requests;
+
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.commonlib.money.Money;
+
+public record BulkTransactionRow(
+        TransactionType type,
+        Long accountId,
+        Long toAccount,
+        Money amount
+) {
+}
@@ -1,11 +1,12 @@
 package kz.projects.ams.dto.requests;
 
 import kz.projects.commonlib.dto.enums.InvestmentType;
+import kz.projects.commonlib.money.Money;
 
 public record InvestmentRequest(
         Long id,
         Long userId,
         Long accountId,
         InvestmentType investmentType,
-        Double amount
+        Money amount
 ) {}
@@ -0,0 +1,15 @@
+package kz.projects.ams.dto.requests;
+
+import kz.projects.ams.models.enums.TransactionType;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Фильтр истории транзакций. Пустые значения означают отсутствие ограничения.
+ */
+public record TransactionFilter(
+        Date from,
+        Date to,
+        Set<TransactionType> types
+) {}
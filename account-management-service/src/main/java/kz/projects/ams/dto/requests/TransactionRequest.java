@@ -1,8 +1,9 @@
 package kz.projects.ams.dto.requests;
 
+import kz.projects.commonlib.money.Money;
 
 public record TransactionRequest(
         Long accountId,
-        Double amount
+        Money amount
 ) {}
 
@@ -1,8 +1,9 @@
 package kz.projects.ams.dto.requests;
 
+import kz.projects.commonlib.money.Money;
 
 public record TransferRequest(
         Long fromAccount,
         Long toAccount,
-        Double amount
+        Money amount
 ) {}
@@ -0,0 +1,12 @@
+package kz.projects.ams.dto.responses;
+
+import java.util.List;
+
+public record BulkTransactionResponse(
+        int total,
+        int succeeded,
+        int failed,
+        boolean truncated,
+        List<BulkTransactionResult> results
+) {
+}
@@ -0,0 +1,10 @@
+package kz.projects.ams.dto.responses;
+
+import kz.projects.ams.dto.TransactionDTO;
+
+public record BulkTransactionResult(
+        int row,
+        TransactionDTO transaction,
+        String error
+) {
+}
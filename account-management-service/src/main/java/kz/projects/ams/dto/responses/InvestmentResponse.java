@@ -1,6 +1,7 @@
 package kz.projects.ams.dto.responses;
 
 import kz.projects.commonlib.dto.enums.InvestmentType;
+import kz.projects.commonlib.money.Money;
 
 import java.util.Date;
 
@@ -8,7 +9,7 @@ public record InvestmentResponse(
         Long id,
         Long userId,
         InvestmentType investmentType,
-        Double amount,
+        Money amount,
         Date date
 ) {
 }
@@ -0,0 +1,8 @@
+package kz.projects.ams.dto.responses;
+
+public record TokenResponse(
+        String accessToken,
+        String tokenType,
+        long expiresIn
+) {
+}
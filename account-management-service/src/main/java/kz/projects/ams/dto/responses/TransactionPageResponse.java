@@ -0,0 +1,11 @@
+package kz.projects.ams.dto.responses;
+
+import kz.projects.ams.dto.TransactionDTO;
+
+import java.util.List;
+
+public record TransactionPageResponse(
+        List<TransactionDTO> items,
+        String nextCursor
+) {
+}
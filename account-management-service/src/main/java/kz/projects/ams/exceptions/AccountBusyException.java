@@ -0,0 +1,11 @@
+package kz.projects.ams.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class AccountBusyException extends RuntimeException {
+  public AccountBusyException(String message) {
+    super(message);
+  }
+}
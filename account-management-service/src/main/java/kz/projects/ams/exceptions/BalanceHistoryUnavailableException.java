@@ -0,0 +1,11 @@
+package kz.projects.ams.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class BalanceHistoryUnavailableException extends RuntimeException {
+  public BalanceHistoryUnavailableException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,11 @@
+package kz.projects.ams.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidBulkImportException extends RuntimeException {
+  public InvalidBulkImportException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
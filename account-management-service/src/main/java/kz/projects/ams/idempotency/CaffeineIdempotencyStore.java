@@ -0,0 +1,69 @@
+package kz.projects.ams.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Хранилище ключей идемпотентности в памяти узла, только для запуска на одном узле.
+ * Размер ограничен {@code ams.idempotency.maximum-size}, записи удаляются через
+ * {@code ams.idempotency.ttl-seconds} после создания.
+ * Незавершенный запрос удерживает ключ не дольше {@code ams.idempotency.lease-seconds}.
+ */
+@Component
+@ConditionalOnProperty(name = "ams.idempotency.store", havingValue = "memory")
+public class CaffeineIdempotencyStore implements IdempotencyStore {
+
+  @Value("${ams.idempotency.ttl-seconds:86400}")
+  private long ttlSeconds;
+
+  @Value("${ams.idempotency.lease-seconds:3600}")
+  private long leaseSeconds;
+
+  @Value("${ams.idempotency.maximum-size:100000}")
+  private long maximumSize;
+
+  private Cache<String, IdempotencyRecord> records;
+
+  @PostConstruct
+  public void start() {
+    records = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .maximumSize(maximumSize)
+            .build();
+  }
+
+  @Override
+  public Optional<IdempotencyRecord> claim(String key, String fingerprint) {
+    long now = System.currentTimeMillis();
+    IdempotencyRecord claimed = new IdempotencyRecord(fingerprint, null, now);
+    while (true) {
+      IdempotencyRecord existing = records.asMap().putIfAbsent(key, claimed);
+      if (existing == null) {
+        return Optional.empty();
+      }
+      if (!existing.isAbandoned(now, leaseSeconds * 1000)) {
+        return Optional.of(existing);
+      }
+      if (records.asMap().replace(key, existing, claimed)) {
+        return Optional.empty();
+      }
+    }
+  }
+
+  @Override
+  public void complete(String key, String fingerprint, String response) {
+    records.put(key, new IdempotencyRecord(fingerprint, response, System.currentTimeMillis()));
+  }
+
+  @Override
+  public void release(String key) {
+    records.invalidate(key);
+  }
+}
@@ -0,0 +1,24 @@
+package kz.projects.ams.idempotency;
+
+/**
+ * Состояние ключа идемпотентности в {@link IdempotencyStore}.
+ * {@code fingerprint} — отпечаток запроса, {@code response} — ответ в JSON
+ * или {@code null}, если запрос еще выполняется, {@code claimedAt} — время занятия ключа в миллисекундах.
+ */
+public record IdempotencyRecord(
+        String fingerprint,
+        String response,
+        long claimedAt
+) {
+  public boolean isCompleted() {
+    return response != null;
+  }
+
+  /**
+   * Запрос не завершен дольше срока аренды: его исполнитель, вероятно, упал или не смог сохранить ответ,
+   * и ключ можно занять заново.
+   */
+  public boolean isAbandoned(long now, long leaseMillis) {
+    return !isCompleted() && claimedAt <= now - leaseMillis;
+  }
+}
@@ -0,0 +1,145 @@
+package kz.projects.ams.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.ams.exceptions.IdempotencyConflictException;
+import kz.projects.ams.services.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Выполнение запросов с заголовком {@code Idempotency-Key}.
+ * Первый запрос с ключом выполняется и его ответ сохраняется в {@link IdempotencyStore};
+ * повторы с тем же ключом и телом получают сохраненный ответ без повторного выполнения операции.
+ * Ключи разделены по пользователям, поэтому одинаковые ключи разных пользователей не пересекаются.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyService {
+  public static final String HEADER = "Idempotency-Key";
+  private static final int MAX_KEY_LENGTH = 128;
+
+  private final IdempotencyStore idempotencyStore;
+  private final UserService userService;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Выполняет операцию не более одного раза для ключа идемпотентности.
+   *
+   * @param idempotencyKey ключ из заголовка запроса; если {@code null}, операция выполняется без проверки
+   * @param operation      имя операции, входит в отпечаток запроса
+   * @param request        тело запроса
+   * @param responseType   тип ответа для восстановления сохраненного ответа
+   * @param action         операция
+   * @return ответ операции или сохраненный ответ на предыдущий запрос с этим ключом
+   * @throws IdempotencyConflictException если ключ использован с другим запросом или запрос еще выполняется
+   */
+  public <T> T execute(String idempotencyKey, String operation, Object request, Class<T> responseType,
+                       Supplier<T> action) {
+    if (idempotencyKey == null || idempotencyKey.isBlank()) {
+      return action.get();
+    }
+    if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException(HEADER + " must not be longer than " + MAX_KEY_LENGTH + " characters");
+    }
+
+    String key = userService.getCurrentUser().id() + ":" + idempotencyKey;
+    String fingerprint = fingerprint(operation, request);
+    Optional<IdempotencyRecord> existing = idempotencyStore.claim(key, fingerprint);
+    if (existing.isPresent()) {
+      return replay(existing.get(), fingerprint, responseType);
+    }
+
+    T response;
+    try {
+      response = action.get();
+    } catch (RuntimeException e) {
+      idempotencyStore.release(key);
+      throw e;
+    }
+    idempotencyStore.complete(key, fingerprint, write(response));
+    return response;
+  }
+
+  /**
+   * Асинхронный вариант {@link #execute}: ключ занимается сразу, а ответ сохраняется, когда его выдаст
+   * {@code action}. Обращения к хранилищу после ответа выполняются на {@link Schedulers#boundedElastic()},
+   * а не на потоке, выдавшем ответ. Отмена подписки (например, разрыв соединения клиентом) не прерывает
+   * операцию, поэтому ключ не остается занятым до истечения срока хранения.
+   *
+   * @return ответ операции или сохраненный ответ на предыдущий запрос с этим ключом
+   * @throws IdempotencyConflictException если ключ использован с другим запросом или запрос еще выполняется
+   */
+  public <T> Mono<T> executeAsync(String idempotencyKey, String operation, Object request, Class<T> responseType,
+                                  Supplier<Mono<T>> action) {
+    if (idempotencyKey == null || idempotencyKey.isBlank()) {
+      return action.get();
+    }
+    if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException(HEADER + " must not be longer than " + MAX_KEY_LENGTH + " characters");
+    }
+
+    String key = userService.getCurrentUser().id() + ":" + idempotencyKey;
+    String fingerprint = fingerprint(operation, request);
+    Optional<IdempotencyRecord> existing = idempotencyStore.claim(key, fingerprint);
+    if (existing.isPresent()) {
+      return Mono.just(replay(existing.get(), fingerprint, responseType));
+    }
+
+    Mono<T> response;
+    try {
+      response = action.get();
+    } catch (RuntimeException e) {
+      idempotencyStore.release(key);
+      throw e;
+    }
+    return Mono.fromFuture(response
+            .publishOn(Schedulers.boundedElastic())
+            .doOnNext(result -> idempotencyStore.complete(key, fingerprint, write(result)))
+            .doOnError(e -> idempotencyStore.release(key))
+            .toFuture(), true);
+  }
+
+  private <T> T replay(IdempotencyRecord record, String fingerprint, Class<T> responseType) {
+    if (!record.fingerprint().equals(fingerprint)) {
+      throw new IdempotencyConflictException(HEADER + " was already used with a different request");
+    }
+    if (!record.isCompleted()) {
+      throw new IdempotencyConflictException("Request with this " + HEADER + " is still in progress");
+    }
+    try {
+      return objectMapper.readValue(record.response(), responseType);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to read stored idempotent response", e);
+    }
+  }
+
+  private String fingerprint(String operation, Object request) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(operation.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) '\n');
+      digest.update(objectMapper.writeValueAsBytes(request));
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+      throw new IllegalStateException("Failed to fingerprint request", e);
+    }
+  }
+
+  private String write(Object response) {
+    try {
+      return objectMapper.writeValueAsString(response);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to store idempotent response", e);
+    }
+  }
+}
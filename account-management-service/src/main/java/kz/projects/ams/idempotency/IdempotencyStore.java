@@ -0,0 +1,31 @@
+package kz.projects.ams.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Хранилище ключей идемпотентности с ограниченным временем жизни.
+ * Реализация выбирается свойством {@code ams.idempotency.store}: {@code memory} для одного узла
+ * или {@code jdbc} для нескольких узлов с общей базой данных.
+ */
+public interface IdempotencyStore {
+
+  /**
+   * Атомарно занимает ключ для выполнения запроса. Незавершенный запрос, занявший ключ раньше
+   * {@code ams.idempotency.lease-seconds} назад, считается брошенным, и ключ занимается заново.
+   *
+   * @param key         ключ идемпотентности
+   * @param fingerprint отпечаток запроса
+   * @return пустой {@link Optional}, если ключ занят этим вызовом, иначе существующая запись
+   */
+  Optional<IdempotencyRecord> claim(String key, String fingerprint);
+
+  /**
+   * Сохраняет ответ на запрос, выполненный с занятым ключом.
+   */
+  void complete(String key, String fingerprint, String response);
+
+  /**
+   * Освобождает ключ после неудачного выполнения запроса, чтобы клиент мог его повторить.
+   */
+  void release(String key);
+}
@@ -0,0 +1,82 @@
+package kz.projects.ams.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/**
+ * Хранилище ключей идемпотентности в {@code t_idempotency_keys}, общее для всех узлов.
+ * Каждая операция выполняется отдельным запросом вне транзакции вызывающего кода,
+ * поэтому занятый ключ сразу виден остальным узлам. Используется по умолчанию, так как хранилище в памяти
+ * не защищает от повтора, попавшего на другой узел. Устаревшие ключи удаляются по расписанию,
+ * а ключи незавершенных запросов старше {@code ams.idempotency.lease-seconds} — при следующем занятии.
+ * Срок аренды должен быть намного больше самого долгого запроса (например, перевода в инвестиции),
+ * иначе повтор займет ключ выполняющегося запроса и операция выполнится дважды.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ams.idempotency.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcIdempotencyStore implements IdempotencyStore {
+  private static final String DELETE_EXPIRED_KEY_SQL =
+          "DELETE FROM t_idempotency_keys WHERE idempotency_key = ? " +
+                  "AND (created_at <= ? OR (response IS NULL AND created_at <= ?))";
+  private static final String CLAIM_SQL =
+          "INSERT INTO t_idempotency_keys (idempotency_key, fingerprint, created_at) VALUES (?, ?, ?) " +
+                  "ON CONFLICT (idempotency_key) DO NOTHING";
+  private static final String FIND_SQL =
+          "SELECT fingerprint, response, created_at FROM t_idempotency_keys WHERE idempotency_key = ?";
+  private static final String COMPLETE_SQL =
+          "UPDATE t_idempotency_keys SET response = ? WHERE idempotency_key = ? AND fingerprint = ?";
+  private static final String RELEASE_SQL =
+          "DELETE FROM t_idempotency_keys WHERE idempotency_key = ? AND response IS NULL";
+  private static final String PURGE_SQL = "DELETE FROM t_idempotency_keys WHERE created_at <= ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Value("${ams.idempotency.ttl-seconds:86400}")
+  private long ttlSeconds;
+
+  @Value("${ams.idempotency.lease-seconds:3600}")
+  private long leaseSeconds;
+
+  @Override
+  public Optional<IdempotencyRecord> claim(String key, String fingerprint) {
+    long now = System.currentTimeMillis();
+    jdbcTemplate.update(DELETE_EXPIRED_KEY_SQL, key, expiredBefore(), new Timestamp(now - leaseSeconds * 1000));
+    if (jdbcTemplate.update(CLAIM_SQL, key, fingerprint, new Timestamp(now)) == 1) {
+      return Optional.empty();
+    }
+    return jdbcTemplate.query(FIND_SQL, rs -> rs.next()
+            ? Optional.of(new IdempotencyRecord(rs.getString("fingerprint"), rs.getString("response"),
+                    rs.getTimestamp("created_at").getTime()))
+            : Optional.of(new IdempotencyRecord(fingerprint, null, now)), key);
+  }
+
+  @Override
+  public void complete(String key, String fingerprint, String response) {
+    jdbcTemplate.update(COMPLETE_SQL, response, key, fingerprint);
+  }
+
+  @Override
+  public void release(String key) {
+    jdbcTemplate.update(RELEASE_SQL, key);
+  }
+
+  /**
+   * Удаляет ключи, время жизни которых истекло.
+   */
+  @Scheduled(fixedDelayString = "${ams.idempotency.purge-interval-ms:600000}")
+  public void purge() {
+    jdbcTemplate.update(PURGE_SQL, expiredBefore());
+  }
+
+  private Timestamp expiredBefore() {
+    return new Timestamp(System.currentTimeMillis() - ttlSeconds * 1000);
+  }
+}
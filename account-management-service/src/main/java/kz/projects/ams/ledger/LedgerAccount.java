@@ -0,0 +1,42 @@
+package kz.projects.ams.ledger;
+
+import kz.projects.ams.models.enums.AccountType;
+
+/**
+ * Состояние счета, которое хранит {@link LedgerEngine}.
+ * Баланс хранится в минимальных единицах валюты и изменяется только под блокировкой полосы счета,
+ * читать его можно без блокировки.
+ */
+public class LedgerAccount {
+  private final Long id;
+  private final Long ownerId;
+  private final AccountType accountType;
+  private volatile long balance;
+
+  public LedgerAccount(Long id, Long ownerId, AccountType accountType, long balance) {
+    this.id = id;
+    this.ownerId = ownerId;
+    this.accountType = accountType;
+    this.balance = balance;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getOwnerId() {
+    return ownerId;
+  }
+
+  public AccountType getAccountType() {
+    return accountType;
+  }
+
+  public long getBalance() {
+    return balance;
+  }
+
+  void setBalance(long balance) {
+    this.balance = balance;
+  }
+}
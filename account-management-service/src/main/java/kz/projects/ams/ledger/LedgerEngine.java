@@ -0,0 +1,395 @@
+package kz.projects.ams.ledger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kz.projects.ams.exceptions.AccountBusyException;
+import kz.projects.ams.exceptions.InsufficientFundsException;
+import kz.projects.ams.exceptions.UserAccountNotFoundException;
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.ams.repositories.TransactionIdAllocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Леджер в памяти для операций со счетами.
+ * Балансы хранятся в памяти и изменяются под блокировкой полосы счета, каждая операция
+ * сначала записывается в {@link LedgerJournal}, а в базу данных записи переносятся пакетами
+ * в фоне через {@link LedgerStore}. Включается свойством {@code ams.ledger.enabled}.
+ * <p>
+ * Леджер работает только на одном узле: балансы в памяти не согласуются между узлами. Поэтому
+ * на время работы захватывается {@link LedgerLease}, и без нее леджер не запускается.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerEngine {
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final LedgerStore ledgerStore;
+  private final LedgerLease ledgerLease;
+  private final TransactionIdAllocator transactionIdAllocator;
+
+  private final ConcurrentHashMap<Long, LedgerAccount> accounts = new ConcurrentHashMap<>();
+  private final Set<Long> fenced = ConcurrentHashMap.newKeySet();
+  private final AtomicLong fenceEpoch = new AtomicLong();
+  private final ConcurrentLinkedQueue<LedgerEntry> pending = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  @Value("${ams.ledger.enabled:false}")
+  private boolean enabled;
+
+  @Value("${ams.ledger.journal-dir:data/ledger}")
+  private String journalDirectory;
+
+  @Value("${ams.ledger.segment-size:67108864}")
+  private long segmentSize;
+
+  @Value("${ams.ledger.stripes:64}")
+  private int stripeCount;
+
+  @Value("${ams.ledger.flush-batch-size:500}")
+  private int flushBatchSize;
+
+  private ReentrantLock[] stripes;
+  private LedgerJournal journal;
+
+  /**
+   * Захватывает аренду писателя, восстанавливает записи журнала, не перенесенные в базу данных
+   * до остановки, и открывает новый журнал.
+   *
+   * @throws IllegalStateException если леджер уже запущен на другом узле
+   */
+  @PostConstruct
+  public void start() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    ledgerLease.acquire();
+    stripes = new ReentrantLock[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+
+    Path directory = Path.of(journalDirectory);
+    try {
+      long lastSequence = recover(directory);
+      journal = new LedgerJournal(directory, segmentSize, lastSequence + 1, pending::add);
+    } catch (IOException | RuntimeException e) {
+      ledgerLease.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Переносит оставшиеся записи в базу данных, закрывает журнал и снимает аренду писателя.
+   */
+  @PreDestroy
+  public void stop() throws IOException {
+    if (journal == null) {
+      return;
+    }
+    try {
+      flush();
+      journal.close();
+    } finally {
+      ledgerLease.release();
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Возвращает счет леджера, при первом обращении загружая его из базы данных.
+   *
+   * @param accountId идентификатор счета
+   * @return счет леджера
+   * @throws UserAccountNotFoundException если счет не найден
+   * @throws AccountBusyException если счет в данный момент изменяется вне леджера
+   */
+  public LedgerAccount account(Long accountId) {
+    LedgerAccount account = accounts.get(accountId);
+    if (account != null) {
+      return account;
+    }
+
+    while (true) {
+      long epoch = fenceEpoch.get();
+      checkNotFenced(accountId);
+      LedgerAccount loaded = ledgerStore.load(accountId)
+              .orElseThrow(() -> new UserAccountNotFoundException("Account Not Found!"));
+
+      ReentrantLock lock = stripe(accountId);
+      lock.lock();
+      try {
+        checkNotFenced(accountId);
+        if (fenceEpoch.get() == epoch) {
+          LedgerAccount existing = accounts.putIfAbsent(accountId, loaded);
+          return existing != null ? existing : loaded;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Возвращает актуальный баланс счета с учетом записей, еще не перенесенных в базу данных.
+   */
+  public long balanceOf(Long accountId) {
+    return account(accountId).getBalance();
+  }
+
+  /**
+   * Пополняет счет и уведомляет владельца. Возвращает управление после того, как запись сброшена на диск.
+   */
+  public LedgerEntry deposit(LedgerAccount account, long amount) {
+    return deposit(account, amount, true);
+  }
+
+  /**
+   * Пополняет счет. Возвращает управление после того, как запись сброшена на диск.
+   *
+   * @param notify добавить ли уведомление владельцу при переносе записи в базу данных
+   */
+  public LedgerEntry deposit(LedgerAccount account, long amount, boolean notify) {
+    long transactionId = transactionIdAllocator.next();
+    LedgerEntry entry;
+    ReentrantLock lock = stripe(account.getId());
+    lock.lock();
+    try {
+      ensureCurrent(account);
+      entry = journal.append(transactionId, TransactionType.DEPOSIT, account.getId(),
+              LedgerEntry.NO_COUNTERPARTY, amount, notify);
+      account.setBalance(Math.addExact(account.getBalance(), amount));
+    } finally {
+      lock.unlock();
+    }
+    journal.awaitDurable(entry.sequence());
+    return entry;
+  }
+
+  /**
+   * Списывает средства со счета и уведомляет владельца. Возвращает управление после того,
+   * как запись сброшена на диск.
+   *
+   * @throws InsufficientFundsException если на счете недостаточно средств
+   */
+  public LedgerEntry withdraw(LedgerAccount account, long amount) {
+    return withdraw(account, amount, true);
+  }
+
+  /**
+   * Списывает средства со счета. Возвращает управление после того, как запись сброшена на диск.
+   *
+   * @param notify добавить ли уведомление владельцу при переносе записи в базу данных
+   * @throws InsufficientFundsException если на счете недостаточно средств
+   */
+  public LedgerEntry withdraw(LedgerAccount account, long amount, boolean notify) {
+    long transactionId = transactionIdAllocator.next();
+    LedgerEntry entry;
+    ReentrantLock lock = stripe(account.getId());
+    lock.lock();
+    try {
+      ensureCurrent(account);
+      if (account.getBalance() < amount) {
+        throw new InsufficientFundsException("Insufficient funds");
+      }
+      entry = journal.append(transactionId, TransactionType.WITHDRAWAL, account.getId(),
+              LedgerEntry.NO_COUNTERPARTY, amount, notify);
+      account.setBalance(Math.subtractExact(account.getBalance(), amount));
+    } finally {
+      lock.unlock();
+    }
+    journal.awaitDurable(entry.sequence());
+    return entry;
+  }
+
+  /**
+   * Переводит средства между счетами и уведомляет владельца исходного счета.
+   *
+   * @throws InsufficientFundsException если на исходном счете недостаточно средств
+   */
+  public LedgerEntry transfer(LedgerAccount from, LedgerAccount to, long amount) {
+    return transfer(from, to, amount, true);
+  }
+
+  /**
+   * Переводит средства между счетами. Полосы обоих счетов блокируются в порядке номеров,
+   * поэтому встречные переводы не приводят к взаимной блокировке.
+   *
+   * @param notify добавить ли уведомление владельцу исходного счета при переносе записи в базу данных
+   * @throws InsufficientFundsException если на исходном счете недостаточно средств
+   */
+  public LedgerEntry transfer(LedgerAccount from, LedgerAccount to, long amount, boolean notify) {
+    int fromStripe = stripeIndex(from.getId());
+    int toStripe = stripeIndex(to.getId());
+    ReentrantLock first = stripes[Math.min(fromStripe, toStripe)];
+    ReentrantLock second = stripes[Math.max(fromStripe, toStripe)];
+
+    long transactionId = transactionIdAllocator.next();
+    LedgerEntry entry;
+    first.lock();
+    second.lock();
+    try {
+      ensureCurrent(from);
+      ensureCurrent(to);
+      if (from.getBalance() < amount) {
+        throw new InsufficientFundsException("Insufficient funds");
+      }
+      entry = journal.append(transactionId, TransactionType.TRANSFER, from.getId(), to.getId(), amount,
+              notify);
+      from.setBalance(Math.subtractExact(from.getBalance(), amount));
+      to.setBalance(Math.addExact(to.getBalance(), amount));
+    } finally {
+      second.unlock();
+      first.unlock();
+    }
+    journal.awaitDurable(entry.sequence());
+    return entry;
+  }
+
+  /**
+   * Исключает счет из леджера на время внешнего изменения (обновление или удаление счета).
+   * Все накопленные записи переносятся в базу данных, а счет снова становится доступен
+   * леджеру после завершения текущей транзакции и будет перечитан из базы данных.
+   * Если записи перенести не удалось, счет остается в леджере, а изменение отклоняется.
+   *
+   * @param accountId идентификатор счета
+   * @throws AccountBusyException если записи счета не удалось перенести в базу данных
+   */
+  public void fence(Long accountId) {
+    if (!enabled) {
+      return;
+    }
+    ReentrantLock lock = stripe(accountId);
+    LedgerAccount account;
+    lock.lock();
+    try {
+      fenced.add(accountId);
+      account = accounts.remove(accountId);
+    } finally {
+      lock.unlock();
+    }
+    try {
+      applyPending();
+    } catch (RuntimeException e) {
+      // Счет остается в леджере: в базе данных еще нет его последних записей
+      if (account != null) {
+        accounts.put(accountId, account);
+      }
+      release(accountId);
+      log.log(Level.SEVERE, "Failed to flush ledger entries before fencing account " + accountId, e);
+      throw new AccountBusyException("Account is being updated, please retry");
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          release(accountId);
+        }
+      });
+    } else {
+      release(accountId);
+    }
+  }
+
+  /**
+   * Переносит накопленные записи журнала в базу данных и удаляет перенесенные сегменты.
+   */
+  @Scheduled(fixedDelayString = "${ams.ledger.flush-interval-ms:200}")
+  public void flush() {
+    if (journal == null) {
+      return;
+    }
+    try {
+      applyPending();
+    } catch (RuntimeException e) {
+      log.log(Level.SEVERE, "Failed to flush ledger entries, will retry", e);
+    }
+  }
+
+  /**
+   * Переносит все накопленные записи в базу данных; при ошибке записи остаются в очереди.
+   */
+  private void applyPending() {
+    flushLock.lock();
+    try {
+      while (!pending.isEmpty()) {
+        List<LedgerEntry> batch = new ArrayList<>(flushBatchSize);
+        Iterator<LedgerEntry> iterator = pending.iterator();
+        while (iterator.hasNext() && batch.size() < flushBatchSize) {
+          batch.add(iterator.next());
+        }
+        ledgerStore.apply(batch);
+        for (int i = 0; i < batch.size(); i++) {
+          pending.poll();
+        }
+        journal.checkpoint(batch.get(batch.size() - 1).sequence());
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private long recover(Path directory) throws IOException {
+    long applied = ledgerStore.lastAppliedSequence();
+    List<LedgerEntry> unapplied = LedgerJournal.readAll(directory).stream()
+            .filter(entry -> entry.sequence() > applied)
+            .toList();
+
+    for (int from = 0; from < unapplied.size(); from += flushBatchSize) {
+      ledgerStore.apply(unapplied.subList(from, Math.min(from + flushBatchSize, unapplied.size())));
+    }
+    LedgerJournal.purge(directory);
+
+    if (!unapplied.isEmpty()) {
+      log.info("Recovered " + unapplied.size() + " ledger entries from journal");
+      return unapplied.get(unapplied.size() - 1).sequence();
+    }
+    return applied;
+  }
+
+  private void release(Long accountId) {
+    fenceEpoch.incrementAndGet();
+    fenced.remove(accountId);
+  }
+
+  private void checkNotFenced(Long accountId) {
+    if (fenced.contains(accountId)) {
+      throw new AccountBusyException("Account is being updated, please retry");
+    }
+  }
+
+  private void ensureCurrent(LedgerAccount account) {
+    if (accounts.get(account.getId()) != account) {
+      throw new AccountBusyException("Account is being updated, please retry");
+    }
+  }
+
+  private ReentrantLock stripe(Long accountId) {
+    return stripes[stripeIndex(accountId)];
+  }
+
+  private int stripeIndex(Long accountId) {
+    return Math.floorMod(Long.hashCode(accountId), stripes.length);
+  }
+}
@@ -0,0 +1,23 @@
+package kz.projects.ams.ledger;
+
+import kz.projects.ams.models.enums.TransactionType;
+
+/**
+ * Запись журнала предзаписи леджера. Для переводов {@code counterpartyId} содержит счет получателя,
+ * для остальных операций равен {@link #NO_COUNTERPARTY}. {@code transactionId} — идентификатор строки
+ * в {@code t_transactions}, назначенный при добавлении записи. {@code amount} указывается
+ * в минимальных единицах валюты. {@code notifyOwner} указывает, что при переносе в базу данных в outbox
+ * добавляется уведомление владельцу исходного счета.
+ */
+public record LedgerEntry(
+        long sequence,
+        long transactionId,
+        TransactionType type,
+        long accountId,
+        long counterpartyId,
+        long amount,
+        long timestamp,
+        boolean notifyOwner
+) {
+  public static final long NO_COUNTERPARTY = 0L;
+}
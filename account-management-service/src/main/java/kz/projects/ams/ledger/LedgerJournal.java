@@ -0,0 +1,353 @@
+package kz.projects.ams.ledger;
+
+import kz.projects.ams.models.enums.TransactionType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал предзаписи леджера: последовательность сегментов фиксированного формата на локальном диске.
+ * Запись идет под одной блокировкой, а fsync выполняется группой: один вызов {@link #awaitDurable(long)}
+ * делает устойчивыми все записи, добавленные к этому моменту.
+ */
+public class LedgerJournal implements Closeable {
+  private static final int MAGIC = 0x4C444752;
+  private static final short VERSION = 3;
+  private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+  private static final int RECORD_SIZE = Long.BYTES + Long.BYTES + Byte.BYTES + 4 * Long.BYTES + Integer.BYTES;
+  /**
+   * Бит байта типа, которым отмечены записи без уведомления. Записи, сделанные до его появления,
+   * читаются как записи с уведомлением.
+   */
+  private static final int SILENT_FLAG = 0x80;
+  private static final String SEGMENT_PREFIX = "ledger-";
+  private static final String SEGMENT_SUFFIX = ".wal";
+
+  private final Path directory;
+  private final long segmentSize;
+  private final Consumer<LedgerEntry> sink;
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final ReentrantLock syncLock = new ReentrantLock();
+  private final Deque<Segment> segments = new ArrayDeque<>();
+  private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+  private final CRC32 crc = new CRC32();
+
+  private long nextSequence;
+  private volatile FileChannel activeChannel;
+  private volatile long writtenSequence;
+  private volatile long durableSequence;
+
+  /**
+   * Открывает новый сегмент журнала. Существующие сегменты должны быть предварительно
+   * прочитаны через {@link #readAll(Path)} и удалены через {@link #purge(Path)}.
+   *
+   * @param directory    каталог сегментов
+   * @param segmentSize  размер сегмента в байтах, после которого открывается следующий
+   * @param nextSequence номер первой записи
+   * @param sink         получатель записей, вызывается под блокировкой записи в порядке номеров
+   */
+  public LedgerJournal(Path directory, long segmentSize, long nextSequence, Consumer<LedgerEntry> sink)
+          throws IOException {
+    Files.createDirectories(directory);
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.sink = sink;
+    this.nextSequence = nextSequence;
+    this.writtenSequence = nextSequence - 1;
+    this.durableSequence = nextSequence - 1;
+    openSegment();
+  }
+
+  /**
+   * Добавляет запись в журнал. Запись становится устойчивой только после {@link #awaitDurable(long)}.
+   *
+   * @return добавленная запись с присвоенным номером
+   */
+  public LedgerEntry append(long transactionId, TransactionType type, long accountId, long counterpartyId,
+                            long amount, boolean notify) {
+    writeLock.lock();
+    try {
+      LedgerEntry entry = new LedgerEntry(nextSequence, transactionId, type, accountId, counterpartyId, amount,
+              System.currentTimeMillis(), notify);
+      Segment segment = segments.getLast();
+      encode(entry);
+      try {
+        while (buffer.hasRemaining()) {
+          segment.channel.write(buffer);
+        }
+      } catch (IOException e) {
+        segment.channel.truncate(segment.size);
+        throw e;
+      }
+      segment.size += RECORD_SIZE;
+      segment.lastSequence = entry.sequence();
+      nextSequence++;
+      writtenSequence = entry.sequence();
+      sink.accept(entry);
+
+      if (segment.size >= segmentSize) {
+        rollSegment();
+      }
+      return entry;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to append ledger entry", e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Ожидает, пока запись с указанным номером не будет сброшена на диск.
+   * Потоки, пришедшие во время fsync, обслуживаются следующим общим fsync.
+   */
+  public void awaitDurable(long sequence) {
+    if (durableSequence >= sequence) {
+      return;
+    }
+    syncLock.lock();
+    try {
+      if (durableSequence >= sequence) {
+        return;
+      }
+      long target = writtenSequence;
+      activeChannel.force(false);
+      durableSequence = target;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to sync ledger journal", e);
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  /**
+   * Удаляет закрытые сегменты, все записи которых уже перенесены в базу данных.
+   *
+   * @param sequence номер последней записи, перенесенной в базу данных
+   */
+  public void checkpoint(long sequence) {
+    writeLock.lock();
+    try {
+      Iterator<Segment> iterator = segments.iterator();
+      while (iterator.hasNext()) {
+        Segment segment = iterator.next();
+        if (segment.channel != null || segment.lastSequence > sequence) {
+          break;
+        }
+        Files.deleteIfExists(segment.path);
+        iterator.remove();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete ledger segment", e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    writeLock.lock();
+    syncLock.lock();
+    try {
+      Segment segment = segments.getLast();
+      if (segment.channel != null) {
+        segment.channel.force(false);
+        segment.channel.close();
+        segment.channel = null;
+      }
+    } finally {
+      syncLock.unlock();
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Читает все записи из сегментов каталога в порядке номеров.
+   * Чтение сегмента прекращается на первой неполной или поврежденной записи.
+   */
+  public static List<LedgerEntry> readAll(Path directory) throws IOException {
+    List<LedgerEntry> entries = new ArrayList<>();
+    for (Path segment : listSegments(directory)) {
+      readSegment(segment, entries);
+    }
+    return entries;
+  }
+
+  /**
+   * Удаляет все сегменты журнала из каталога.
+   */
+  public static void purge(Path directory) throws IOException {
+    for (Path segment : listSegments(directory)) {
+      Files.deleteIfExists(segment);
+    }
+  }
+
+  private void rollSegment() throws IOException {
+    syncLock.lock();
+    try {
+      Segment current = segments.getLast();
+      current.channel.force(false);
+      current.channel.close();
+      current.channel = null;
+      durableSequence = Math.max(durableSequence, current.lastSequence);
+      openSegment();
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void openSegment() throws IOException {
+    Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION).flip();
+    while (header.hasRemaining()) {
+      channel.write(header);
+    }
+    channel.force(true);
+    syncDirectory();
+
+    Segment segment = new Segment(path, channel);
+    segment.size = HEADER_SIZE;
+    segment.lastSequence = nextSequence - 1;
+    segments.addLast(segment);
+    activeChannel = channel;
+  }
+
+  private void syncDirectory() {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException ignored) {
+      // Не все файловые системы позволяют синхронизировать каталог
+    }
+  }
+
+  private void encode(LedgerEntry entry) {
+    buffer.clear();
+    buffer.putLong(entry.sequence())
+            .putLong(entry.transactionId())
+            .put((byte) (typeCode(entry.type()) | (entry.notifyOwner() ? 0 : SILENT_FLAG)))
+            .putLong(entry.accountId())
+            .putLong(entry.counterpartyId())
+            .putLong(entry.amount())
+            .putLong(entry.timestamp());
+    crc.reset();
+    crc.update(buffer.array(), 0, buffer.position());
+    buffer.putInt((int) crc.getValue());
+    buffer.flip();
+  }
+
+  private static LedgerEntry decode(ByteBuffer record) {
+    long sequence = record.getLong();
+    long transactionId = record.getLong();
+    byte code = record.get();
+    return new LedgerEntry(
+            sequence,
+            transactionId,
+            typeOf((byte) (code & ~SILENT_FLAG)),
+            record.getLong(),
+            record.getLong(),
+            record.getLong(),
+            record.getLong(),
+            (code & SILENT_FLAG) == 0
+    );
+  }
+
+  private static void readSegment(Path path, List<LedgerEntry> entries) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      if (readFully(channel, header) < HEADER_SIZE) {
+        return;
+      }
+      header.flip();
+      if (header.getInt() != MAGIC) {
+        throw new IOException("Not a ledger segment: " + path);
+      }
+      short version = header.getShort();
+      if (version != VERSION) {
+        throw new IOException("Unsupported ledger segment version " + version + ": " + path);
+      }
+
+      ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+      CRC32 checksum = new CRC32();
+      while (true) {
+        record.clear();
+        if (readFully(channel, record) < RECORD_SIZE) {
+          return;
+        }
+        checksum.reset();
+        checksum.update(record.array(), 0, RECORD_SIZE - Integer.BYTES);
+        if ((int) checksum.getValue() != record.getInt(RECORD_SIZE - Integer.BYTES)) {
+          return;
+        }
+        record.flip();
+        entries.add(decode(record));
+      }
+    }
+  }
+
+  private static int readFully(FileChannel channel, ByteBuffer target) throws IOException {
+    while (target.hasRemaining()) {
+      if (channel.read(target) < 0) {
+        break;
+      }
+    }
+    return target.position();
+  }
+
+  private static List<Path> listSegments(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+              })
+              .sorted()
+              .toList();
+    }
+  }
+
+  private static byte typeCode(TransactionType type) {
+    return switch (type) {
+      case DEPOSIT -> 1;
+      case WITHDRAWAL -> 2;
+      case TRANSFER -> 3;
+    };
+  }
+
+  private static TransactionType typeOf(byte code) {
+    return switch (code) {
+      case 1 -> TransactionType.DEPOSIT;
+      case 2 -> TransactionType.WITHDRAWAL;
+      case 3 -> TransactionType.TRANSFER;
+      default -> throw new IllegalStateException("Unknown ledger entry type " + code);
+    };
+  }
+
+  private static final class Segment {
+    private final Path path;
+    private FileChannel channel;
+    private long size;
+    private long lastSequence;
+
+    private Segment(Path path, FileChannel channel) {
+      this.path = path;
+      this.channel = channel;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package kz.projects.ams.ledger;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Аренда единственного писателя леджера.
+ * Сеансовая advisory-блокировка удерживается на выделенном соединении все время работы леджера,
+ * поэтому второй узел с включенным леджером не запустится, пока аренду держит первый.
+ * Блокировка снимается при закрытии соединения, в том числе при аварийном завершении узла.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerLease {
+  private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(?)";
+  private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(?)";
+
+  /**
+   * Ключ advisory-блокировки писателя леджера.
+   */
+  private static final long LEASE_KEY = 0x616d735f6c6467L;
+
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final DataSource dataSource;
+
+  private Connection connection;
+
+  /**
+   * Захватывает аренду до вызова {@link #release()}.
+   *
+   * @throws IllegalStateException если аренду держит другой узел или захватить ее не удалось
+   */
+  public synchronized void acquire() {
+    if (connection != null) {
+      return;
+    }
+    Connection leased = null;
+    try {
+      leased = dataSource.getConnection();
+      leased.setAutoCommit(true);
+      if (!execute(leased, TRY_LOCK_SQL)) {
+        throw new IllegalStateException("Ledger is already running on another node");
+      }
+      connection = leased;
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to acquire ledger lease", e);
+    } finally {
+      if (connection == null && leased != null) {
+        close(leased);
+      }
+    }
+  }
+
+  /**
+   * Снимает аренду и возвращает соединение в пул.
+   */
+  public synchronized void release() {
+    if (connection == null) {
+      return;
+    }
+    try {
+      execute(connection, UNLOCK_SQL);
+    } catch (SQLException e) {
+      log.log(Level.WARNING, "Failed to release ledger lease, it is dropped with the connection", e);
+    } finally {
+      close(connection);
+      connection = null;
+    }
+  }
+
+  private static boolean execute(Connection connection, String sql) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setLong(1, LEASE_KEY);
+      try (ResultSet rs = statement.executeQuery()) {
+        return rs.next() && rs.getBoolean(1);
+      }
+    }
+  }
+
+  private void close(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      log.log(Level.WARNING, "Failed to close ledger lease connection", e);
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package kz.projects.ams.ledger;
+
+import kz.projects.ams.models.Account;
+import kz.projects.ams.models.LedgerCheckpoint;
+import kz.projects.ams.models.Transaction;
+import kz.projects.ams.models.enums.AccountType;
+import kz.projects.ams.outbox.TransactionEventPublisher;
+import kz.projects.ams.repositories.AccountBalanceSnapshotJdbcRepository;
+import kz.projects.ams.repositories.AccountJdbcRepository;
+import kz.projects.ams.repositories.LedgerCheckpointRepository;
+import kz.projects.ams.repositories.TransactionJdbcRepository;
+import kz.projects.ams.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Переносит записи леджера в {@code t_accounts} и {@code t_transactions}.
+ * Изменения балансов, снимки балансов, вставка транзакций и номер последней перенесенной записи
+ * фиксируются в одной транзакции, поэтому повторный перенос после сбоя не дублирует записи.
+ * В той же транзакции в outbox добавляются уведомления владельцам счетов, поэтому записи,
+ * восстановленные из журнала после сбоя, тоже не остаются без уведомлений.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerStore {
+  private static final String LOAD_ACCOUNT_SQL =
+          "SELECT id, user_id, account_type, balance FROM t_accounts WHERE id = ?";
+  private static final String LOAD_OWNERS_SQL =
+          "SELECT a.id, a.account_type, u.id AS user_id, u.name, u.email " +
+                  "FROM t_accounts a JOIN t_users u ON u.id = a.user_id WHERE a.id = ANY(?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final AccountJdbcRepository accountJdbcRepository;
+  private final TransactionJdbcRepository transactionJdbcRepository;
+  private final AccountBalanceSnapshotJdbcRepository snapshotJdbcRepository;
+  private final LedgerCheckpointRepository checkpointRepository;
+  private final TransactionEventPublisher transactionEventPublisher;
+
+  /**
+   * Читает текущее состояние счета напрямую из базы данных, минуя контекст персистентности,
+   * чтобы не получить устаревшую копию сущности из текущей транзакции.
+   *
+   * @param accountId идентификатор счета
+   * @return состояние счета или пустой {@link Optional}, если счет не найден
+   */
+  public Optional<LedgerAccount> load(Long accountId) {
+    return jdbcTemplate.query(LOAD_ACCOUNT_SQL, rs -> rs.next()
+            ? Optional.of(new LedgerAccount(
+                    rs.getLong("id"),
+                    rs.getLong("user_id"),
+                    AccountType.valueOf(rs.getString("account_type")),
+                    rs.getLong("balance")))
+            : Optional.empty(), accountId);
+  }
+
+  /**
+   * Возвращает номер последней записи леджера, перенесенной в базу данных.
+   *
+   * @return номер записи или {@code 0}, если перенос еще не выполнялся
+   */
+  @Transactional(readOnly = true)
+  public long lastAppliedSequence() {
+    return checkpointRepository.findById(LedgerCheckpoint.LEDGER_ID)
+            .map(LedgerCheckpoint::getLastSequence)
+            .orElse(0L);
+  }
+
+  /**
+   * Применяет пакет записей леджера в отдельной транзакции.
+   *
+   * @param entries записи в порядке номеров
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void apply(List<LedgerEntry> entries) {
+    Map<Long, Long> deltas = new TreeMap<>();
+    Map<Long, Date> asOf = new TreeMap<>();
+    List<Transaction> transactions = new ArrayList<>(entries.size());
+
+    for (LedgerEntry entry : entries) {
+      switch (entry.type()) {
+        case DEPOSIT -> deltas.merge(entry.accountId(), entry.amount(), Math::addExact);
+        case WITHDRAWAL -> deltas.merge(entry.accountId(), -entry.amount(), Math::addExact);
+        case TRANSFER -> {
+          deltas.merge(entry.accountId(), -entry.amount(), Math::addExact);
+          deltas.merge(entry.counterpartyId(), entry.amount(), Math::addExact);
+        }
+      }
+      Transaction transaction = toTransaction(entry);
+      transactions.add(transaction);
+      asOf.put(entry.accountId(), transaction.getDate());
+      if (entry.counterpartyId() != LedgerEntry.NO_COUNTERPARTY) {
+        asOf.put(entry.counterpartyId(), transaction.getDate());
+      }
+    }
+
+    accountJdbcRepository.addToBalances(deltas);
+    snapshotJdbcRepository.recordAll(asOf);
+    transactionJdbcRepository.insertAll(transactions);
+    publishEvents(entries, transactions);
+    checkpointRepository.save(new LedgerCheckpoint(LedgerCheckpoint.LEDGER_ID,
+            entries.get(entries.size() - 1).sequence()));
+  }
+
+  private void publishEvents(List<LedgerEntry> entries, List<Transaction> transactions) {
+    Set<Long> accountIds = new TreeSet<>();
+    for (LedgerEntry entry : entries) {
+      if (entry.notifyOwner()) {
+        accountIds.add(entry.accountId());
+      }
+    }
+    if (accountIds.isEmpty()) {
+      return;
+    }
+
+    Map<Long, AccountOwner> owners = loadOwners(accountIds);
+    for (int i = 0; i < entries.size(); i++) {
+      AccountOwner owner = owners.get(entries.get(i).accountId());
+      if (!entries.get(i).notifyOwner() || owner == null) {
+        continue;
+      }
+      Transaction transaction = transactions.get(i);
+      transaction.getAccount().setAccountType(owner.accountType());
+      transactionEventPublisher.publish(owner.user(), transaction);
+    }
+  }
+
+  private Map<Long, AccountOwner> loadOwners(Set<Long> accountIds) {
+    Map<Long, AccountOwner> owners = new HashMap<>();
+    jdbcTemplate.query(LOAD_OWNERS_SQL,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", accountIds.toArray())),
+            rs -> {
+              CurrentUser user = new CurrentUser(rs.getLong("user_id"), rs.getString("name"),
+                      rs.getString("email"), List.of());
+              owners.put(rs.getLong("id"),
+                      new AccountOwner(AccountType.valueOf(rs.getString("account_type")), user));
+            });
+    return owners;
+  }
+
+  private Transaction toTransaction(LedgerEntry entry) {
+    Account account = new Account();
+    account.setId(entry.accountId());
+
+    Transaction transaction = new Transaction();
+    transaction.setId(entry.transactionId());
+    transaction.setAccount(account);
+    transaction.setType(entry.type());
+    transaction.setAmount(entry.amount());
+    if (entry.counterpartyId() != LedgerEntry.NO_COUNTERPARTY) {
+      transaction.setCounterpartyAccountId(entry.counterpartyId());
+    }
+    transaction.setDate(new Date(entry.timestamp()));
+    return transaction;
+  }
+
+  private record AccountOwner(AccountType accountType, CurrentUser user) {
+  }
+}
@@ -2,6 +2,7 @@ package kz.projects.ams.mapper;
 
 import kz.projects.ams.dto.AccountDTO;
 import kz.projects.ams.models.Account;
+import kz.projects.commonlib.money.Money;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,7 +17,7 @@ public class AccountMapper {
             account.getId(),
             account.getUser().getEmail(),
             account.getAccountType(),
-            account.getBalance()
+            Money.ofMinor(account.getBalance())
     );
   }
 }
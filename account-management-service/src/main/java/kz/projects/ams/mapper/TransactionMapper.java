@@ -1,9 +1,13 @@
 package kz.projects.ams.mapper;
 
 import kz.projects.ams.dto.TransactionDTO;
+import kz.projects.ams.ledger.LedgerEntry;
 import kz.projects.ams.models.Transaction;
+import kz.projects.commonlib.money.Money;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
+
 
 @Component
 public class TransactionMapper {
@@ -16,9 +20,22 @@ public class TransactionMapper {
             transaction.getId(),
             transaction.getAccount().getId(),
             transaction.getType(),
-            transaction.getAmount(),
+            Money.ofMinor(transaction.getAmount()),
             transaction.getDate()
     );
   }
-}
 
+  public TransactionDTO toDto(LedgerEntry entry) {
+    if (entry == null) {
+      return null;
+    }
+
+    return new TransactionDTO(
+            entry.transactionId(),
+            entry.accountId(),
+            entry.type(),
+            Money.ofMinor(entry.amount()),
+            new Date(entry.timestamp())
+    );
+  }
+}
@@ -0,0 +1,69 @@
+package kz.projects.ams.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Метрики outbox уведомлений:
+ * <ul>
+ *   <li>{@code ams.outbox.pending} — события, еще не подтвержденные Kafka;</li>
+ *   <li>{@code ams.outbox.lag} — возраст самого старого неотправленного события в секундах;</li>
+ *   <li>{@code ams.outbox.published} — события, подтвержденные Kafka;</li>
+ *   <li>{@code ams.outbox.failures} — неудачные попытки отправки;</li>
+ *   <li>{@code ams.outbox.unreadable} — события, которые не удалось прочитать и которые исключены из отправки.</li>
+ * </ul>
+ * Размер очереди обновляется после каждого прохода ретранслятора, а не при каждом снятии метрик.
+ */
+@Component
+public class OutboxMetrics {
+  private final AtomicLong pending = new AtomicLong();
+  private final AtomicLong oldestCreatedAt = new AtomicLong();
+  private final Counter published;
+  private final Counter failures;
+  private final Counter unreadable;
+
+  public OutboxMetrics(MeterRegistry registry) {
+    Gauge.builder("ams.outbox.pending", pending, AtomicLong::get)
+            .description("Notification events waiting to be sent to Kafka")
+            .register(registry);
+    Gauge.builder("ams.outbox.lag", oldestCreatedAt, OutboxMetrics::lagSeconds)
+            .description("Age of the oldest notification event waiting to be sent")
+            .baseUnit("seconds")
+            .register(registry);
+    this.published = Counter.builder("ams.outbox.published")
+            .description("Notification events acknowledged by Kafka")
+            .register(registry);
+    this.failures = Counter.builder("ams.outbox.failures")
+            .description("Failed attempts to send notification events")
+            .register(registry);
+    this.unreadable = Counter.builder("ams.outbox.unreadable")
+            .description("Notification events that could not be read and were excluded from sending")
+            .register(registry);
+  }
+
+  public void published(int count) {
+    published.increment(count);
+  }
+
+  public void failed() {
+    failures.increment();
+  }
+
+  public void unreadable(int count) {
+    unreadable.increment(count);
+  }
+
+  public void backlog(long pendingEvents, Long oldestEventCreatedAt) {
+    pending.set(pendingEvents);
+    oldestCreatedAt.set(oldestEventCreatedAt == null ? 0 : oldestEventCreatedAt);
+  }
+
+  private static double lagSeconds(AtomicLong oldestCreatedAt) {
+    long createdAt = oldestCreatedAt.get();
+    return createdAt == 0 ? 0 : Math.max(0, System.currentTimeMillis() - createdAt) / 1000.0;
+  }
+}
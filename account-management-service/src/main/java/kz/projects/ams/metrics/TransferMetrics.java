@@ -0,0 +1,60 @@
+package kz.projects.ams.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Метрики конкуренции переводов:
+ * <ul>
+ *   <li>{@code ams.transfer.active} — переводы, выполняемые в данный момент, и их длительность;</li>
+ *   <li>{@code ams.transfer.lock} — время изменения обоих счетов, включая ожидание блокировок строк;</li>
+ *   <li>{@code ams.transfer.rejected} — переводы, отклоненные условием списания;</li>
+ *   <li>{@code ams.transfer.lock.failures} — взаимные блокировки и таймауты блокировок в базе данных.</li>
+ * </ul>
+ */
+@Component
+public class TransferMetrics {
+  private final LongTaskTimer activeTransfers;
+  private final Timer lockTimer;
+  private final Counter rejectedTransfers;
+  private final Counter lockFailures;
+
+  public TransferMetrics(MeterRegistry registry) {
+    this.activeTransfers = LongTaskTimer.builder("ams.transfer.active")
+            .description("Transfers in progress")
+            .register(registry);
+    this.lockTimer = Timer.builder("ams.transfer.lock")
+            .description("Time to debit and credit both accounts, including row lock waits")
+            .publishPercentileHistogram()
+            .register(registry);
+    this.rejectedTransfers = Counter.builder("ams.transfer.rejected")
+            .description("Transfers rejected by the debit condition")
+            .register(registry);
+    this.lockFailures = Counter.builder("ams.transfer.lock.failures")
+            .description("Transfers failed with a deadlock or lock timeout")
+            .register(registry);
+  }
+
+  public LongTaskTimer.Sample startTransfer() {
+    return activeTransfers.start();
+  }
+
+  public Timer.Sample startLocking() {
+    return Timer.start();
+  }
+
+  public void locked(Timer.Sample sample) {
+    sample.stop(lockTimer);
+  }
+
+  public void rejected() {
+    rejectedTransfers.increment();
+  }
+
+  public void lockFailed() {
+    lockFailures.increment();
+  }
+}
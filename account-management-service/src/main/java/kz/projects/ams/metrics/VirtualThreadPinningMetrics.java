@@ -0,0 +1,49 @@
+package kz.projects.ams.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kz.projects.commonlib.diagnostics.VirtualThreadPinningMonitor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Метрика {@code ams.virtual-threads.pinned} — время, на которое виртуальный поток закрепился
+ * за потоком-носителем дольше {@code ams.virtual-threads.pinning-monitor.threshold-ms}.
+ * Тег {@code site} — класс, в котором произошло закрепление (Hibernate, драйвер PostgreSQL, Hikari
+ * или код сервиса). Включается вместе с {@code spring.threads.virtual.enabled} на Java 21.
+ */
+@Component
+@ConditionalOnProperty(name = "ams.virtual-threads.pinning-monitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMetrics {
+  private final MeterRegistry registry;
+  private final VirtualThreadPinningMonitor monitor;
+
+  public VirtualThreadPinningMetrics(MeterRegistry registry,
+                                     @Value("${ams.virtual-threads.pinning-monitor.threshold-ms:20}") long thresholdMs) {
+    this.registry = registry;
+    this.monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(thresholdMs), this::pinned);
+  }
+
+  @PostConstruct
+  public void start() {
+    monitor.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    monitor.close();
+  }
+
+  private void pinned(String site, Duration duration) {
+    Timer.builder("ams.virtual-threads.pinned")
+            .description("Virtual threads pinned to their carrier longer than the threshold")
+            .tag("site", site)
+            .register(registry)
+            .record(duration);
+  }
+}
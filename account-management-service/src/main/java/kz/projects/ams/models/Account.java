@@ -35,7 +35,10 @@ public class Account {
   @Enumerated(EnumType.STRING)
   private AccountType accountType;
 
-  private Double balance;
+  /**
+   * Баланс в минимальных единицах валюты {@link kz.projects.commonlib.money.Money#DEFAULT_CURRENCY}.
+   */
+  private long balance;
 
   @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<Transaction> transactions;
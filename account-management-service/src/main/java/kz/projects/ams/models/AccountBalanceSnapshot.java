@@ -0,0 +1,48 @@
+package kz.projects.ams.models;
+
+import jakarta.persistence.*;
+import kz.projects.ams.models.enums.BalanceSnapshotType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Снимок баланса счета. Баланс {@code balance} в минимальных единицах валюты учитывает все транзакции счета
+ * с датой не позже {@code asOf}.
+ * Снимки {@link BalanceSnapshotType#DAILY} обновляются вместе с балансом счета, по одному на счет и день.
+ * Снимки {@link BalanceSnapshotType#REBASE} фиксируют баланс, установленный напрямую при создании
+ * или изменении счета, и не имеют {@code snapshotDate}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "t_account_balance_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshots_account_date",
+                columnNames = {"account_id", "snapshot_date"}),
+        indexes = @Index(name = "idx_balance_snapshots_account_as_of", columnList = "account_id, as_of"))
+public class AccountBalanceSnapshot {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "account_id", nullable = false)
+  private Long accountId;
+
+  @Column(name = "snapshot_date")
+  private LocalDate snapshotDate;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private BalanceSnapshotType type;
+
+  @Column(nullable = false)
+  private long balance;
+
+  @Temporal(TemporalType.TIMESTAMP)
+  @Column(name = "as_of", nullable = false)
+  private Date asOf;
+}
@@ -0,0 +1,34 @@
+package kz.projects.ams.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Ключ идемпотентности и сохраненный ответ на запрос, выполненный с этим ключом.
+ * Пока запрос выполняется, {@code response} равен {@code null}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "t_idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+public class IdempotencyKey {
+  @Id
+  @Column(name = "idempotency_key", length = 255)
+  private String key;
+
+  @Column(nullable = false, length = 64)
+  private String fingerprint;
+
+  @Column(columnDefinition = "text")
+  private String response;
+
+  @Temporal(TemporalType.TIMESTAMP)
+  @Column(name = "created_at", nullable = false)
+  private Date createdAt;
+}
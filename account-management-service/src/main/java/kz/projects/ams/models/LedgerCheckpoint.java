@@ -0,0 +1,22 @@
+package kz.projects.ams.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "t_ledger_checkpoints")
+public class LedgerCheckpoint {
+  public static final Long LEDGER_ID = 1L;
+
+  @Id
+  private Long id;
+
+  private Long lastSequence;
+}
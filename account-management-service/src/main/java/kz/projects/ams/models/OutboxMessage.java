@@ -0,0 +1,43 @@
+package kz.projects.ams.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Событие уведомления, ожидающее отправки в Kafka.
+ * Записывается в той же транзакции, что и изменение баланса, и удаляется после подтверждения брокером.
+ * Событие, которое не удалось прочитать, остается в таблице с заполненным {@code failedAt} и больше не отправляется.
+ * {@code claimedUntil} — срок, до которого событие выбрано для отправки одним из узлов.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "t_notification_outbox")
+public class OutboxMessage {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private String topic;
+
+  @Column(nullable = false, columnDefinition = "text")
+  private String payload;
+
+  @Temporal(TemporalType.TIMESTAMP)
+  @Column(name = "created_at", nullable = false)
+  private Date createdAt;
+
+  @Temporal(TemporalType.TIMESTAMP)
+  @Column(name = "failed_at")
+  private Date failedAt;
+
+  @Temporal(TemporalType.TIMESTAMP)
+  @Column(name = "claimed_until")
+  private Date claimedUntil;
+}
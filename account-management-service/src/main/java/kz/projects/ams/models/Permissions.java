@@ -1,6 +1,7 @@
 package kz.projects.ams.models;
 
 import jakarta.persistence.*;
+import kz.projects.ams.security.PrincipalCacheInvalidator;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,7 @@ import org.springframework.security.core.GrantedAuthority;
 
 @Entity
 @Table(name = "t_permissions")
+@EntityListeners(PrincipalCacheInvalidator.class)
 @Getter
 @Setter
 @AllArgsConstructor
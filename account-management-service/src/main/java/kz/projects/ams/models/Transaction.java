@@ -12,10 +12,16 @@ import java.util.Date;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "t_transactions")
+@Table(name = "t_transactions", indexes = {
+        @Index(name = "idx_transactions_account_date_id", columnList = "account_id, date, id")
+})
 public class Transaction {
+  public static final String ID_SEQUENCE = "t_transactions_seq";
+  public static final int ID_ALLOCATION_SIZE = 50;
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_id")
+  @SequenceGenerator(name = "transaction_id", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
   private Long id;
 
   @ManyToOne(cascade = CascadeType.ALL)
@@ -25,7 +31,13 @@ public class Transaction {
   @Enumerated(EnumType.STRING)
   private TransactionType type;
 
-  private Double amount;
+  /**
+   * Сумма в минимальных единицах валюты {@link kz.projects.commonlib.money.Money#DEFAULT_CURRENCY}.
+   */
+  private long amount;
+
+  @Column(name = "counterparty_account_id")
+  private Long counterpartyAccountId;
 
   @Temporal(TemporalType.TIMESTAMP)
   private Date date;
@@ -1,6 +1,7 @@
 package kz.projects.ams.models;
 
 import jakarta.persistence.*;
+import kz.projects.ams.security.PrincipalCacheInvalidator;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,6 +13,7 @@ import java.util.List;
 @Setter
 @Entity
 @Table(name = "t_users")
+@EntityListeners(PrincipalCacheInvalidator.class)
 public class User implements UserDetails {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,6 @@
+package kz.projects.ams.models.enums;
+
+public enum BalanceSnapshotType {
+  DAILY,
+  REBASE
+}
@@ -0,0 +1,150 @@
+package kz.projects.ams.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.ams.metrics.OutboxMetrics;
+import kz.projects.commonlib.dto.NotificationEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Фоновый ретранслятор outbox уведомлений в Kafka.
+ * <p>
+ * Каждый проход в короткой транзакции под advisory-блокировкой выбирает пачку событий в порядке идентификаторов
+ * и помечает ее выбранной, затем без открытой транзакции отправляет их все сразу и во второй короткой транзакции
+ * удаляет подтвержденный брокером префикс по идентификаторам. Пока пачка отмечена выбранной, другие узлы новую
+ * пачку не выбирают. Событие после первой неудачной отправки снова становится доступным для выбора
+ * и отправляется повторно на следующем проходе вместе со всеми последующими. Доставка как
+ * минимум однократная: потребитель должен быть готов к повторам. Событие, зафиксированное позже событий
+ * с большими идентификаторами, отправляется после них. Ключ записи — идентификатор пользователя,
+ * поэтому события одного пользователя попадают в одну партицию.
+ * <p>
+ * Событие, которое не удается прочитать, не отправится ни на одном проходе, поэтому оно помечается
+ * как ошибочное и больше не выбирается.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxRelay {
+  /**
+   * Запас срока выбора пачки сверх ожидания подтверждений: на чтение событий и вторую транзакцию.
+   */
+  private static final long CLAIM_MARGIN_MS = 5000;
+
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final OutboxJdbcRepository outboxRepository;
+  private final KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final OutboxMetrics outboxMetrics;
+
+  @Value("${ams.outbox.batch-size:500}")
+  private int batchSize;
+
+  @Value("${ams.outbox.send-timeout-ms:10000}")
+  private long sendTimeoutMs;
+
+  /**
+   * Разбирает outbox, пока пачки заполняются целиком, и обновляет метрики очереди.
+   */
+  @Scheduled(fixedDelayString = "${ams.outbox.poll-interval-ms:200}")
+  public void relay() {
+    int relayed;
+    do {
+      relayed = relayBatch();
+    } while (relayed == batchSize);
+
+    OutboxJdbcRepository.OutboxBacklog backlog = outboxRepository.backlog();
+    outboxMetrics.backlog(backlog.pending(), backlog.oldestCreatedAt());
+  }
+
+  private int relayBatch() {
+    long claimedUntil = System.currentTimeMillis() + sendTimeoutMs + CLAIM_MARGIN_MS;
+    List<OutboxEntry> batch = transactionTemplate.execute(status -> outboxRepository.tryLock()
+            ? outboxRepository.claimBatch(batchSize, claimedUntil)
+            : List.of());
+    if (batch == null || batch.isEmpty()) {
+      return 0;
+    }
+
+    List<OutboxEntry> sent = new ArrayList<>(batch.size());
+    List<Long> unreadable = new ArrayList<>();
+    List<CompletableFuture<SendResult<String, NotificationEvent>>> futures = new ArrayList<>(batch.size());
+    for (OutboxEntry entry : batch) {
+      NotificationEvent event = read(entry);
+      if (event == null) {
+        unreadable.add(entry.id());
+        continue;
+      }
+      sent.add(entry);
+      futures.add(send(entry, event));
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    List<Long> acknowledged = new ArrayList<>(sent.size());
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        acknowledged.add(sent.get(i).id());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (ExecutionException | TimeoutException e) {
+        outboxMetrics.failed();
+        log.log(Level.WARNING, "Unable to send outbox event " + sent.get(i).id(), e);
+        break;
+      }
+    }
+
+    List<Long> unacknowledged = sent.subList(acknowledged.size(), sent.size()).stream()
+            .map(OutboxEntry::id)
+            .toList();
+
+    transactionTemplate.execute(status -> {
+      if (!unreadable.isEmpty()) {
+        outboxRepository.markFailed(unreadable);
+      }
+      if (!acknowledged.isEmpty()) {
+        outboxRepository.deleteAll(acknowledged);
+      }
+      if (!unacknowledged.isEmpty()) {
+        outboxRepository.release(unacknowledged);
+      }
+      return null;
+    });
+    outboxMetrics.unreadable(unreadable.size());
+    outboxMetrics.published(acknowledged.size());
+    return acknowledged.size() + unreadable.size();
+  }
+
+  private NotificationEvent read(OutboxEntry entry) {
+    try {
+      return objectMapper.readValue(entry.payload(), NotificationEvent.class);
+    } catch (JsonProcessingException e) {
+      log.log(Level.SEVERE, "Unable to read outbox event " + entry.id() + ", marking it as failed", e);
+      return null;
+    }
+  }
+
+  private CompletableFuture<SendResult<String, NotificationEvent>> send(OutboxEntry entry, NotificationEvent event) {
+    try {
+      return kafkaTemplate.send(entry.topic(), event.getUserId(), event);
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package kz.projects.ams.outbox;
+
+/**
+ * Строка outbox-таблицы, выбранная для отправки.
+ *
+ * @param id      порядковый номер записи
+ * @param topic   топик Kafka
+ * @param payload событие в JSON
+ */
+public record OutboxEntry(long id, String topic, String payload) {
+}
@@ -0,0 +1,116 @@
+package kz.projects.ams.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Доступ к {@code t_notification_outbox}.
+ * Запись выполняется на соединении текущей транзакции, поэтому событие фиксируется
+ * или откатывается вместе с изменением баланса.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxJdbcRepository {
+  private static final String INSERT_SQL =
+          "INSERT INTO t_notification_outbox (topic, payload, created_at) VALUES (?, ?, ?)";
+  private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?)";
+  private static final String CLAIM_BATCH_SQL =
+          "UPDATE t_notification_outbox SET claimed_until = ? WHERE id IN (" +
+                  "SELECT id FROM t_notification_outbox WHERE failed_at IS NULL ORDER BY id LIMIT ?) " +
+                  "AND NOT EXISTS (SELECT 1 FROM t_notification_outbox WHERE claimed_until > ?) " +
+                  "RETURNING id, topic, payload";
+  private static final String DELETE_SQL = "DELETE FROM t_notification_outbox WHERE id = ANY(?)";
+  private static final String RELEASE_SQL =
+          "UPDATE t_notification_outbox SET claimed_until = NULL WHERE id = ANY(?)";
+  private static final String MARK_FAILED_SQL =
+          "UPDATE t_notification_outbox SET failed_at = ?, claimed_until = NULL WHERE id = ANY(?)";
+  private static final String BACKLOG_SQL =
+          "SELECT count(*), min(created_at) FROM t_notification_outbox WHERE failed_at IS NULL";
+
+  /**
+   * Ключ advisory-блокировки, под которой пачку outbox выбирает только один узел.
+   */
+  private static final long RELAY_LOCK_KEY = 0x616d735f6f7574L;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public void append(String topic, String payload) {
+    jdbcTemplate.update(INSERT_SQL, topic, payload, new Timestamp(System.currentTimeMillis()));
+  }
+
+  /**
+   * Захватывает право выбора пачки outbox до конца текущей транзакции.
+   *
+   * @return {@code false}, если пачку в этот момент выбирает другой узел
+   */
+  public boolean tryLock() {
+    return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK_SQL, Boolean.class, RELAY_LOCK_KEY));
+  }
+
+  /**
+   * Выбирает пачку событий для отправки и помечает ее выбранной до {@code claimedUntil}.
+   * Пока у пачки другого узла не истек срок, новая пачка не выбирается, поэтому события уходят в Kafka
+   * по порядку, даже если узел отправляет их вне транзакции. Вызывается под {@link #tryLock()}.
+   *
+   * @return события в порядке идентификаторов или пустой список, если пачку еще отправляет другой узел
+   */
+  public List<OutboxEntry> claimBatch(int limit, long claimedUntil) {
+    Timestamp until = new Timestamp(claimedUntil);
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    List<OutboxEntry> batch = new ArrayList<>(jdbcTemplate.query(CLAIM_BATCH_SQL,
+            (rs, rowNum) -> new OutboxEntry(rs.getLong("id"), rs.getString("topic"), rs.getString("payload")),
+            until, limit, now));
+    batch.sort(Comparator.comparingLong(OutboxEntry::id));
+    return batch;
+  }
+
+  /**
+   * Удаляет отправленные записи. Удаляются только перечисленные идентификаторы: запись с меньшим
+   * идентификатором могла быть зафиксирована позже и еще не выбиралась для отправки.
+   */
+  public void deleteAll(List<Long> ids) {
+    jdbcTemplate.update(DELETE_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+  }
+
+  /**
+   * Снимает отметку выбора с неотправленных записей, чтобы их можно было выбрать снова.
+   */
+  public void release(List<Long> ids) {
+    jdbcTemplate.update(RELEASE_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+  }
+
+  /**
+   * Исключает записи из отправки, оставляя их в таблице для разбора.
+   */
+  public void markFailed(List<Long> ids) {
+    jdbcTemplate.update(MARK_FAILED_SQL, ps -> {
+      ps.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+      ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+    });
+  }
+
+  /**
+   * Возвращает размер очереди и время создания самой старой записи.
+   */
+  public OutboxBacklog backlog() {
+    return jdbcTemplate.queryForObject(BACKLOG_SQL, (rs, rowNum) -> {
+      Timestamp oldest = rs.getTimestamp(2);
+      return new OutboxBacklog(rs.getLong(1), oldest == null ? null : oldest.getTime());
+    });
+  }
+
+  /**
+   * Размер очереди outbox.
+   *
+   * @param pending        количество неотправленных событий
+   * @param oldestCreatedAt время создания самого старого события в миллисекундах или {@code null}
+   */
+  public record OutboxBacklog(long pending, Long oldestCreatedAt) {
+  }
+}
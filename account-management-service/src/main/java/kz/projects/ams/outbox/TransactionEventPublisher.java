@@ -0,0 +1,62 @@
+package kz.projects.ams.outbox;
+
+import kz.projects.ams.models.Transaction;
+import kz.projects.ams.models.enums.AccountType;
+import kz.projects.ams.security.CurrentUser;
+import kz.projects.ams.services.NotificationEventProducer;
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.dto.notification.DepositCompleted;
+import kz.projects.commonlib.dto.notification.NotificationPayload;
+import kz.projects.commonlib.dto.notification.TransferCompleted;
+import kz.projects.commonlib.dto.notification.WithdrawalCompleted;
+import kz.projects.commonlib.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Уведомления о транзакциях, записанных группой: пакетом {@code TransactionBatchWriter} или переносом
+ * записей леджера. Вызывается в транзакции, изменяющей балансы, поэтому событие попадает в outbox
+ * только вместе с операцией.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionEventPublisher {
+  public static final String TOPIC_NAME = "topic-transactions";
+
+  private final NotificationEventProducer notificationEventProducer;
+
+  /**
+   * Добавляет в outbox уведомление о транзакции.
+   *
+   * @param recipient   владелец исходного счета транзакции
+   * @param transaction транзакция; тип счета должен быть заполнен
+   */
+  public void publish(CurrentUser recipient, Transaction transaction) {
+    NotificationEvent event = new NotificationEvent(
+            recipient.id().toString(),
+            recipient.name(),
+            recipient.email(),
+            payloadOf(transaction),
+            LocalDateTime.ofInstant(transaction.getDate().toInstant(), ZoneId.systemDefault()).toString()
+    );
+    notificationEventProducer.publishEvent(event, TOPIC_NAME);
+  }
+
+  private static NotificationPayload payloadOf(Transaction transaction) {
+    Long accountId = transaction.getAccount().getId();
+    String accountType = typeName(transaction.getAccount().getAccountType());
+    Money amount = Money.ofMinor(transaction.getAmount());
+    return switch (transaction.getType()) {
+      case DEPOSIT -> new DepositCompleted(accountId, accountType, amount);
+      case WITHDRAWAL -> new WithdrawalCompleted(accountId, accountType, amount);
+      case TRANSFER -> new TransferCompleted(accountId, accountType, transaction.getCounterpartyAccountId(), amount);
+    };
+  }
+
+  private static String typeName(AccountType accountType) {
+    return accountType == null ? null : accountType.name();
+  }
+}
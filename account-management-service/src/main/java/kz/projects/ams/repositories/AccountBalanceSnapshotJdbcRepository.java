@@ -0,0 +1,63 @@
+package kz.projects.ams.repositories;
+
+import kz.projects.ams.models.enums.BalanceSnapshotType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Поддержка дневных снимков баланса в {@code t_account_balance_snapshots}.
+ * Методы должны вызываться в той же транзакции, что и изменение баланса счета.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountBalanceSnapshotJdbcRepository {
+  private static final String UPSERT_CONFLICT_SQL =
+          " ON CONFLICT (account_id, snapshot_date) DO UPDATE " +
+                  "SET balance = EXCLUDED.balance, " +
+                  "as_of = GREATEST(t_account_balance_snapshots.as_of, EXCLUDED.as_of)";
+  private static final String UPSERT_SQL =
+          "INSERT INTO t_account_balance_snapshots (account_id, snapshot_date, type, balance, as_of) " +
+                  "VALUES (?, ?, ?, ?, ?)" + UPSERT_CONFLICT_SQL;
+  private static final String UPSERT_FROM_ACCOUNT_SQL =
+          "INSERT INTO t_account_balance_snapshots (account_id, snapshot_date, type, balance, as_of) " +
+                  "SELECT a.id, ?, ?, a.balance, ? FROM t_accounts a WHERE a.id = ?" + UPSERT_CONFLICT_SQL;
+  private static final int BATCH_SIZE = 500;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Обновляет дневной снимок счета известным балансом.
+   *
+   * @param accountId идентификатор счета
+   * @param balance   баланс после изменения в минимальных единицах валюты
+   * @param asOf      дата последней учтенной транзакции
+   */
+  public void record(Long accountId, long balance, java.util.Date asOf) {
+    jdbcTemplate.update(UPSERT_SQL, accountId, Date.valueOf(LocalDate.now()), BalanceSnapshotType.DAILY.name(),
+            balance, new Timestamp(asOf.getTime()));
+  }
+
+  /**
+   * Обновляет дневные снимки счетов текущими балансами из {@code t_accounts}.
+   * Балансы должны быть уже изменены в текущей транзакции.
+   *
+   * @param asOfByAccount дата последней учтенной транзакции по идентификатору счета
+   */
+  public void recordAll(Map<Long, java.util.Date> asOfByAccount) {
+    Date today = Date.valueOf(LocalDate.now());
+    jdbcTemplate.batchUpdate(UPSERT_FROM_ACCOUNT_SQL, new ArrayList<>(asOfByAccount.entrySet()), BATCH_SIZE,
+            (ps, entry) -> {
+              ps.setDate(1, today);
+              ps.setString(2, BalanceSnapshotType.DAILY.name());
+              ps.setTimestamp(3, new Timestamp(entry.getValue().getTime()));
+              ps.setLong(4, entry.getKey());
+            });
+  }
+}
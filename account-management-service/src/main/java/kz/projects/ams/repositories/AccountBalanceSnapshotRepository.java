@@ -0,0 +1,26 @@
+package kz.projects.ams.repositories;
+
+import kz.projects.ams.models.AccountBalanceSnapshot;
+import kz.projects.ams.models.enums.BalanceSnapshotType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, Long> {
+  Optional<AccountBalanceSnapshot> findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDescIdDesc(Long accountId,
+                                                                                                  Date asOf);
+
+  List<AccountBalanceSnapshot> findAllByAccountIdAndTypeAndAsOfGreaterThanAndAsOfLessThanEqualOrderByAsOfAscIdAsc(
+          Long accountId, BalanceSnapshotType type, Date after, Date upTo);
+
+  @Modifying
+  @Query("DELETE FROM AccountBalanceSnapshot s WHERE s.accountId = :accountId")
+  void deleteAllByAccountId(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,117 @@
+package kz.projects.ams.repositories;
+
+import kz.projects.ams.cache.AccountCache;
+import kz.projects.ams.models.Account;
+import kz.projects.ams.models.User;
+import kz.projects.ams.models.enums.AccountType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Пакетные операции над {@code t_accounts} в обход Hibernate.
+ * Каждое изменение баланса удаляет счет из {@link AccountCache}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountJdbcRepository {
+  private static final String ADD_TO_BALANCE_SQL = "UPDATE t_accounts SET balance = balance + ? WHERE id = ?";
+  private static final String DEBIT_SQL =
+          "UPDATE t_accounts SET balance = balance - ? WHERE id = ? AND user_id = ? AND balance >= ? " +
+                  "RETURNING id, user_id, account_type, balance";
+  private static final String CREDIT_SQL =
+          "UPDATE t_accounts SET balance = balance + ? WHERE id = ? RETURNING id, user_id, account_type, balance";
+  private static final String LOCK_ACCOUNTS_SQL =
+          "SELECT id, user_id, account_type, balance FROM t_accounts WHERE id IN (%s) ORDER BY id FOR UPDATE";
+  private static final int BATCH_SIZE = 500;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final AccountCache accountCache;
+
+  /**
+   * Прибавляет изменения к балансам счетов одним пакетом.
+   * Счета обновляются в порядке итерации карты, поэтому для предсказуемого порядка блокировок
+   * следует передавать карту, упорядоченную по идентификатору.
+   *
+   * @param deltas изменения баланса в минимальных единицах валюты по идентификатору счета
+   */
+  public void addToBalances(Map<Long, Long> deltas) {
+    jdbcTemplate.batchUpdate(ADD_TO_BALANCE_SQL, new ArrayList<>(deltas.entrySet()), BATCH_SIZE,
+            (ps, delta) -> {
+              ps.setLong(1, delta.getValue());
+              ps.setLong(2, delta.getKey());
+            });
+    accountCache.evictAll(deltas.keySet());
+  }
+
+  /**
+   * Списывает сумму со счета одним условным {@code UPDATE}, если счет принадлежит пользователю
+   * и на нем достаточно средств. Строка счета остается заблокированной до конца текущей транзакции.
+   *
+   * @param accountId идентификатор счета
+   * @param userId    идентификатор владельца счета
+   * @param amount    сумма в минимальных единицах валюты
+   * @return счет с новым балансом или пустой {@link Optional}, если условие не выполнено
+   */
+  public Optional<Account> debit(Long accountId, Long userId, long amount) {
+    Optional<Account> account = jdbcTemplate.query(DEBIT_SQL,
+            rs -> rs.next() ? Optional.of(mapAccount(rs)) : Optional.empty(), amount, accountId, userId, amount);
+    account.ifPresent(debited -> accountCache.evict(accountId));
+    return account;
+  }
+
+  /**
+   * Зачисляет сумму на счет. Строка счета остается заблокированной до конца текущей транзакции.
+   *
+   * @param accountId идентификатор счета
+   * @param amount    сумма в минимальных единицах валюты
+   * @return счет с новым балансом или пустой {@link Optional}, если счет не найден
+   */
+  public Optional<Account> credit(Long accountId, long amount) {
+    Optional<Account> account = jdbcTemplate.query(CREDIT_SQL,
+            rs -> rs.next() ? Optional.of(mapAccount(rs)) : Optional.empty(), amount, accountId);
+    account.ifPresent(credited -> accountCache.evict(accountId));
+    return account;
+  }
+
+  /**
+   * Блокирует строки счетов до конца текущей транзакции в порядке идентификаторов и возвращает их состояние.
+   * Возвращаемые счета не управляются Hibernate и содержат только идентификатор владельца.
+   *
+   * @param ids идентификаторы счетов
+   * @return счета по идентификатору; отсутствующие в базе данных счета в карту не попадают
+   */
+  public Map<Long, Account> lockAll(Collection<Long> ids) {
+    Map<Long, Account> accounts = new HashMap<>();
+    if (ids.isEmpty()) {
+      return accounts;
+    }
+    String sql = String.format(LOCK_ACCOUNTS_SQL, String.join(", ", Collections.nCopies(ids.size(), "?")));
+    jdbcTemplate.query(sql, rs -> {
+      Account account = mapAccount(rs);
+      accounts.put(account.getId(), account);
+    }, ids.toArray());
+    return accounts;
+  }
+
+  private Account mapAccount(ResultSet rs) throws SQLException {
+    User user = new User();
+    user.setId(rs.getLong("user_id"));
+
+    Account account = new Account();
+    account.setId(rs.getLong("id"));
+    account.setUser(user);
+    account.setAccountType(AccountType.valueOf(rs.getString("account_type")));
+    account.setBalance(rs.getLong("balance"));
+    return account;
+  }
+}
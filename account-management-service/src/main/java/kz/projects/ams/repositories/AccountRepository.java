@@ -1,7 +1,6 @@
 package kz.projects.ams.repositories;
 
 import kz.projects.ams.models.Account;
-import kz.projects.ams.models.User;
 import lombok.NonNull;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -11,7 +10,7 @@ import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-  List<Account> findAllByUser(User user);
+  List<Account> findAllByUserId(Long userId);
 
   @NonNull
   Optional<Account> findById(@NonNull Long id);
@@ -0,0 +1,9 @@
+package kz.projects.ams.repositories;
+
+import kz.projects.ams.models.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, Long> {
+}
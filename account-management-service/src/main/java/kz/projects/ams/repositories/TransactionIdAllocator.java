@@ -0,0 +1,62 @@
+package kz.projects.ams.repositories;
+
+import jakarta.annotation.PostConstruct;
+import kz.projects.ams.models.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Выдает идентификаторы транзакций из последовательности {@code t_transactions_seq} блоками,
+ * как оптимизатор {@code pooled} в Hibernate: одно значение последовательности резервирует
+ * {@link Transaction#ID_ALLOCATION_SIZE} идентификаторов, поэтому вставки вне Hibernate
+ * не пересекаются с идентификаторами, которые выдает сам Hibernate.
+ */
+@Repository
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class TransactionIdAllocator {
+  private static final String NEXT_VALUE_SQL = "SELECT nextval('" + Transaction.ID_SEQUENCE + "')";
+  private static final String ALIGN_SEQUENCE_SQL =
+          "SELECT setval('" + Transaction.ID_SEQUENCE + "', m.max_id) " +
+                  "FROM (SELECT MAX(id) AS max_id FROM t_transactions) m, " + Transaction.ID_SEQUENCE + " s " +
+                  "WHERE s.last_value < m.max_id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private long next = 1;
+  private long limit = 0;
+
+  /**
+   * Сдвигает последовательность за максимальный существующий идентификатор.
+   * Нужно один раз для таблиц, созданных до перехода с {@code IDENTITY} на последовательность.
+   * Бин создается после {@code entityManagerFactory}, чтобы последовательность уже была создана Hibernate.
+   */
+  @PostConstruct
+  public void alignSequence() {
+    jdbcTemplate.queryForList(ALIGN_SEQUENCE_SQL);
+  }
+
+  /**
+   * Возвращает следующий свободный идентификатор транзакции.
+   * Блокировка {@link ReentrantLock}, а не {@code synchronized}: под ней выполняется запрос
+   * к базе, и виртуальный поток не должен держать поток-носитель на время этого запроса.
+   */
+  public long next() {
+    lock.lock();
+    try {
+      if (next > limit) {
+        Long value = jdbcTemplate.queryForObject(NEXT_VALUE_SQL, Long.class);
+        limit = value;
+        next = Math.max(value - Transaction.ID_ALLOCATION_SIZE + 1, 1);
+      }
+      return next++;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
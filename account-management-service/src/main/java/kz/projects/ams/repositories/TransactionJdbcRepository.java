@@ -0,0 +1,48 @@
+package kz.projects.ams.repositories;
+
+import kz.projects.ams.models.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Пакетная вставка транзакций в {@code t_transactions} в обход Hibernate.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionJdbcRepository {
+  private static final String INSERT_SQL = "INSERT INTO t_transactions (id, account_id, type, amount, counterparty_account_id, date) VALUES ";
+  private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?)";
+  private static final int BATCH_SIZE = 500;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Вставляет транзакции многострочными {@code INSERT} по {@value #BATCH_SIZE} строк.
+   * Идентификаторы должны быть назначены заранее через {@link TransactionIdAllocator}.
+   *
+   * @param transactions транзакции для вставки
+   */
+  public void insertAll(List<Transaction> transactions) {
+    for (int from = 0; from < transactions.size(); from += BATCH_SIZE) {
+      List<Transaction> chunk = transactions.subList(from, Math.min(from + BATCH_SIZE, transactions.size()));
+      String sql = INSERT_SQL + String.join(", ", Collections.nCopies(chunk.size(), ROW_PLACEHOLDERS));
+      jdbcTemplate.update(sql, ps -> {
+        int index = 1;
+        for (Transaction transaction : chunk) {
+          ps.setLong(index++, transaction.getId());
+          ps.setLong(index++, transaction.getAccount().getId());
+          ps.setString(index++, transaction.getType().name());
+          ps.setLong(index++, transaction.getAmount());
+          ps.setObject(index++, transaction.getCounterpartyAccountId(), Types.BIGINT);
+          ps.setTimestamp(index++, new Timestamp(transaction.getDate().getTime()));
+        }
+      });
+    }
+  }
+}
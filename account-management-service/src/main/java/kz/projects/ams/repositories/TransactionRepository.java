@@ -1,16 +1,71 @@
 package kz.projects.ams.repositories;
 
 
+import jakarta.persistence.QueryHint;
+import kz.projects.ams.dto.TransactionDTO;
 import kz.projects.ams.models.Transaction;
+import kz.projects.ams.models.enums.TransactionType;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
   @Query("SELECT t FROM Transaction t WHERE t.account.user.id = :userId")
   List<Transaction> findAllByUserId(@Param("userId") Long userId);
+
+  @Query("SELECT new kz.projects.ams.dto.TransactionDTO(t.id, t.account.id, t.type, t.amount, t.date) " +
+          "FROM Transaction t " +
+          "WHERE t.account.user.id = :userId " +
+          "AND t.date >= :from AND t.date < :to AND t.type IN :types " +
+          "AND (t.date < :beforeDate OR (t.date = :beforeDate AND t.id < :beforeId)) " +
+          "ORDER BY t.date DESC, t.id DESC")
+  List<TransactionDTO> findPageByUserId(@Param("userId") Long userId,
+                                        @Param("from") Date from,
+                                        @Param("to") Date to,
+                                        @Param("types") Collection<TransactionType> types,
+                                        @Param("beforeDate") Date beforeDate,
+                                        @Param("beforeId") Long beforeId,
+                                        Limit limit);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT new kz.projects.ams.dto.TransactionDTO(t.id, t.account.id, t.type, t.amount, t.date) " +
+          "FROM Transaction t " +
+          "WHERE t.account.user.id = :userId " +
+          "AND t.date >= :from AND t.date < :to AND t.type IN :types " +
+          "ORDER BY t.date DESC, t.id DESC")
+  Stream<TransactionDTO> streamByUserId(@Param("userId") Long userId,
+                                        @Param("from") Date from,
+                                        @Param("to") Date to,
+                                        @Param("types") Collection<TransactionType> types);
+
+  @Query("SELECT COALESCE(SUM(" +
+          "CASE WHEN t.account.id = :accountId " +
+          "THEN (CASE WHEN t.type = kz.projects.ams.models.enums.TransactionType.DEPOSIT " +
+          "THEN t.amount ELSE -t.amount END) ELSE 0 END + " +
+          "CASE WHEN t.counterpartyAccountId = :accountId THEN t.amount ELSE 0 END), 0) " +
+          "FROM Transaction t " +
+          "WHERE (t.account.id = :accountId OR t.counterpartyAccountId = :accountId) " +
+          "AND t.date > :after AND t.date <= :upTo")
+  Long sumBalanceChange(@Param("accountId") Long accountId,
+                        @Param("after") Date after,
+                        @Param("upTo") Date upTo);
+
+  @Query("SELECT t FROM Transaction t JOIN FETCH t.account " +
+          "WHERE (t.account.id = :accountId OR t.counterpartyAccountId = :accountId) " +
+          "AND t.date > :after AND t.date <= :upTo " +
+          "ORDER BY t.date ASC, t.id ASC")
+  List<Transaction> findBalanceChanges(@Param("accountId") Long accountId,
+                                       @Param("after") Date after,
+                                       @Param("upTo") Date upTo,
+                                       Limit limit);
 }
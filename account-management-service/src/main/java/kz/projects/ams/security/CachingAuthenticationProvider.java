@@ -0,0 +1,48 @@
+package kz.projects.ams.security;
+
+import kz.projects.ams.models.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Проверка логина и пароля с кэшированием успешных результатов в {@link PrincipalCache}.
+ * Повторный запрос с теми же учетными данными аутентифицируется без загрузки пользователя
+ * из базы данных и без проверки BCrypt. Неуспешные попытки не кэшируются и всегда
+ * проверяются делегатом.
+ */
+@RequiredArgsConstructor
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+  private final AuthenticationProvider delegate;
+  private final PrincipalCache principalCache;
+
+  @Override
+  public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+    if (!principalCache.isEnabled() || !(authentication.getCredentials() instanceof String password)) {
+      return delegate.authenticate(authentication);
+    }
+
+    String username = authentication.getName();
+    User user = principalCache.get(username, password);
+    if (user != null) {
+      UsernamePasswordAuthenticationToken result =
+              UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+      result.setDetails(authentication.getDetails());
+      return result;
+    }
+
+    Authentication result = delegate.authenticate(authentication);
+    if (result != null && result.getPrincipal() instanceof User authenticated) {
+      principalCache.put(username, password, authenticated);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean supports(Class<?> authentication) {
+    return delegate.supports(authentication);
+  }
+}
@@ -0,0 +1,23 @@
+package kz.projects.ams.security;
+
+import kz.projects.ams.models.Permissions;
+import kz.projects.ams.models.User;
+
+import java.util.List;
+
+/**
+ * Неизменяемые данные текущего пользователя, используемые сервисами вместо сущности {@link User}.
+ */
+public record CurrentUser(
+        Long id,
+        String name,
+        String email,
+        List<String> roles
+) {
+  public static CurrentUser of(User user) {
+    List<String> roles = user.getPermissionList() == null
+            ? List.of()
+            : user.getPermissionList().stream().map(Permissions::getRole).toList();
+    return new CurrentUser(user.getId(), user.getName(), user.getEmail(), roles);
+  }
+}
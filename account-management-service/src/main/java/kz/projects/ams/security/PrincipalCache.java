@@ -0,0 +1,87 @@
+package kz.projects.ams.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import kz.projects.ams.models.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Кэш пользователей, учетные данные которых недавно прошли проверку.
+ * Ключом служит HMAC-SHA256 от имени пользователя и пароля на случайном ключе, созданном при запуске,
+ * поэтому пароли и их обратимые производные в памяти не хранятся. Записи удаляются через
+ * {@code ams.security.principal-cache.ttl-seconds} и при изменении пользователя или его ролей.
+ */
+@Component
+public class PrincipalCache {
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+  @Value("${ams.security.principal-cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${ams.security.principal-cache.ttl-seconds:300}")
+  private long ttlSeconds;
+
+  @Value("${ams.security.principal-cache.maximum-size:10000}")
+  private long maximumSize;
+
+  private SecretKey secretKey;
+  private Cache<String, User> principals;
+
+  @PostConstruct
+  public void start() throws GeneralSecurityException {
+    secretKey = KeyGenerator.getInstance(HMAC_ALGORITHM).generateKey();
+    principals = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return пользователь, ранее прошедший проверку с этими учетными данными, или {@code null}
+   */
+  public User get(String username, String password) {
+    return principals.getIfPresent(key(username, password));
+  }
+
+  public void put(String username, String password, User user) {
+    principals.put(key(username, password), user);
+  }
+
+  /**
+   * Удаляет все записи пользователя, в том числе полученные с прежним паролем или email.
+   */
+  public void evict(Long userId) {
+    principals.asMap().values().removeIf(user -> user.getId().equals(userId));
+  }
+
+  public void evictAll() {
+    principals.invalidateAll();
+  }
+
+  private String key(String username, String password) {
+    try {
+      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(secretKey);
+      mac.update(username.getBytes(StandardCharsets.UTF_8));
+      mac.update((byte) 0);
+      return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Failed to compute credentials key", e);
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package kz.projects.ams.security;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import kz.projects.ams.models.Permissions;
+import kz.projects.ams.models.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Слушатель сущностей {@link User} и {@link Permissions}, удаляющий устаревшие записи из {@link PrincipalCache}
+ * при смене пароля, email или ролей пользователя и при изменении самих ролей.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCacheInvalidator {
+
+  private final PrincipalCache principalCache;
+
+  @PostUpdate
+  @PostRemove
+  public void onChange(Object entity) {
+    if (entity instanceof User user) {
+      principalCache.evict(user.getId());
+    } else if (entity instanceof Permissions) {
+      principalCache.evictAll();
+    }
+  }
+}
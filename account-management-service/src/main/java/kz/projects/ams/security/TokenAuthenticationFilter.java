@@ -0,0 +1,41 @@
+package kz.projects.ams.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Аутентификация запросов по заголовку {@code Authorization: Bearer <token>}.
+ * Токен проверяется {@link TokenService} без обращения к базе данных и без создания сессии.
+ * Запрос с недействительным токеном продолжает обработку неаутентифицированным.
+ */
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+  private static final String BEARER_PREFIX = TokenService.TOKEN_TYPE + " ";
+
+  private final TokenService tokenService;
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+          throws ServletException, IOException {
+    String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+      tokenService.verify(header.substring(BEARER_PREFIX.length()).trim()).ifPresent(user -> {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null,
+                user.getAuthorities()));
+        SecurityContextHolder.setContext(context);
+      });
+    }
+    filterChain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,159 @@
+package kz.projects.ams.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import kz.projects.ams.dto.responses.TokenResponse;
+import kz.projects.ams.models.Permissions;
+import kz.projects.ams.models.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Выпуск и проверка токенов доступа в формате JWT с подписью HS256.
+ * Токен содержит идентификатор, имя, email и роли пользователя, поэтому проверка не обращается
+ * к базе данных. Ключ подписи задается свойством {@code ams.security.token.secret} (Base64)
+ * и должен совпадать на всех узлах. В режиме {@code ams.security.auth-mode=token} узел не запустится
+ * без ключа длиной не меньше 32 байт; в режиме сессий при отсутствии ключа создается случайный ключ,
+ * и токены действуют только на этом узле до его перезапуска.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenService {
+  public static final String TOKEN_TYPE = "Bearer";
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+  private static final String HEADER = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+  private static final int MIN_SECRET_BYTES = 32;
+  private static final String TOKEN_AUTH_MODE = "token";
+
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final ObjectMapper objectMapper;
+
+  @Value("${ams.security.auth-mode:session}")
+  private String authMode;
+
+  @Value("${ams.security.token.secret:}")
+  private String secret;
+
+  @Value("${ams.security.token.ttl-seconds:3600}")
+  private long ttlSeconds;
+
+  private SecretKey signingKey;
+  private String encodedHeader;
+
+  @PostConstruct
+  public void start() throws GeneralSecurityException {
+    if (secret == null || secret.isBlank()) {
+      if (TOKEN_AUTH_MODE.equals(authMode)) {
+        throw new IllegalStateException("ams.security.token.secret must be set when auth-mode is token");
+      }
+      log.warning("ams.security.token.secret is not set, tokens will only be valid on this instance");
+      signingKey = KeyGenerator.getInstance(HMAC_ALGORITHM).generateKey();
+    } else {
+      byte[] key = Base64.getDecoder().decode(secret);
+      if (key.length < MIN_SECRET_BYTES) {
+        throw new IllegalStateException("ams.security.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+      }
+      signingKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+    encodedHeader = encode(HEADER.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Выпускает токен для пользователя, прошедшего проверку учетных данных.
+   */
+  public TokenResponse issue(User user) {
+    long now = System.currentTimeMillis() / 1000;
+    Map<String, Object> claims = new LinkedHashMap<>();
+    claims.put("sub", user.getId().toString());
+    claims.put("name", user.getName());
+    claims.put("email", user.getEmail());
+    claims.put("roles", user.getPermissionList() == null
+            ? List.of()
+            : user.getPermissionList().stream().map(Permissions::getRole).toList());
+    claims.put("iat", now);
+    claims.put("exp", now + ttlSeconds);
+
+    try {
+      String content = encodedHeader + "." + encode(objectMapper.writeValueAsBytes(claims));
+      return new TokenResponse(content + "." + encode(sign(content)), TOKEN_TYPE, ttlSeconds);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to issue token", e);
+    }
+  }
+
+  /**
+   * Проверяет подпись и срок действия токена.
+   *
+   * @return пользователь, восстановленный из токена, или пустой {@link Optional}, если токен недействителен.
+   * Пользователь не связан с сессией Hibernate и содержит только данные из токена.
+   */
+  public Optional<User> verify(String token) {
+    int payloadStart = token.indexOf('.');
+    int signatureStart = token.lastIndexOf('.');
+    if (payloadStart < 0 || signatureStart <= payloadStart) {
+      return Optional.empty();
+    }
+
+    String content = token.substring(0, signatureStart);
+    try {
+      byte[] signature = Base64.getUrlDecoder().decode(token.substring(signatureStart + 1));
+      if (!content.startsWith(encodedHeader + ".") || !MessageDigest.isEqual(sign(content), signature)) {
+        return Optional.empty();
+      }
+
+      JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(content.substring(payloadStart + 1)));
+      if (claims.path("exp").asLong() <= System.currentTimeMillis() / 1000) {
+        return Optional.empty();
+      }
+      return Optional.of(toUser(claims));
+    } catch (IllegalArgumentException | IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  private User toUser(JsonNode claims) {
+    List<Permissions> permissions = new ArrayList<>();
+    claims.path("roles").forEach(role -> permissions.add(new Permissions(null, role.asText())));
+
+    User user = new User();
+    user.setId(Long.valueOf(claims.path("sub").asText()));
+    user.setName(claims.path("name").asText(null));
+    user.setEmail(claims.path("email").asText(null));
+    user.setPermissionList(permissions);
+    return user;
+  }
+
+  private byte[] sign(String content) {
+    try {
+      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(signingKey);
+      return mac.doFinal(content.getBytes(StandardCharsets.US_ASCII));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Failed to sign token", e);
+    }
+  }
+
+  private static String encode(byte[] bytes) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+}
@@ -0,0 +1,13 @@
+package kz.projects.ams.services;
+
+import kz.projects.ams.dto.BalanceDTO;
+import kz.projects.ams.dto.BalancePointDTO;
+
+import java.util.Date;
+import java.util.List;
+
+public interface BalanceHistoryService {
+  BalanceDTO getBalanceAt(Long accountId, Date at);
+
+  List<BalancePointDTO> getBalanceHistory(Long accountId, Date from, Date to, int limit);
+}
@@ -1,10 +1,16 @@
 package kz.projects.ams.services;
 
 import kz.projects.ams.dto.TransactionDTO;
+import kz.projects.ams.dto.requests.BulkTransactionRow;
+import kz.projects.ams.dto.requests.TransactionFilter;
 import kz.projects.ams.dto.requests.TransactionRequest;
 import kz.projects.ams.dto.requests.TransferRequest;
+import kz.projects.ams.dto.responses.BulkTransactionResponse;
+import kz.projects.ams.dto.responses.TransactionPageResponse;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TransactionService {
   TransactionDTO deposit(TransactionRequest request);
@@ -13,5 +19,11 @@ public interface TransactionService {
 
   TransactionDTO transfer(TransferRequest request);
 
+  BulkTransactionResponse importTransactions(Iterator<BulkTransactionRow> rows);
+
   List<TransactionDTO> getTransactions();
+
+  TransactionPageResponse getTransactionPage(TransactionFilter filter, String cursor, int limit);
+
+  void exportTransactions(TransactionFilter filter, Consumer<TransactionDTO> consumer);
 }
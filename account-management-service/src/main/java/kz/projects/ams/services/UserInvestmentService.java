@@ -4,16 +4,17 @@ import kz.projects.ams.dto.requests.InvestmentRequest;
 import kz.projects.ams.dto.responses.InvestmentResponse;
 import kz.projects.commonlib.dto.BalanceCheckRequest;
 import kz.projects.commonlib.dto.BalanceCheckResponse;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
 public interface UserInvestmentService {
 
-  InvestmentResponse toInvest(InvestmentRequest request);
+  Mono<InvestmentResponse> toInvest(InvestmentRequest request);
 
-  void deleteInvestment(Long id);
+  Mono<Void> deleteInvestment(Long id);
 
-  List<InvestmentResponse> getAllUsersInvestments();
+  Mono<List<InvestmentResponse>> getAllUsersInvestments();
 
   BalanceCheckResponse checkBalance(BalanceCheckRequest request);
 
@@ -3,13 +3,17 @@ package kz.projects.ams.services;
 import kz.projects.ams.dto.AdviserDTO;
 import kz.projects.ams.dto.requests.LoginRequest;
 import kz.projects.ams.dto.UserDTO;
+import kz.projects.ams.dto.responses.TokenResponse;
 import kz.projects.ams.models.User;
+import kz.projects.ams.security.CurrentUser;
 
 
 public interface UserService {
 
   UserDTO register(UserDTO user);
   UserDTO login(LoginRequest request);
+  TokenResponse issueToken(LoginRequest request);
   UserDTO registerAsAdvisor(AdviserDTO adviser);
   User getCurrentSessionUser();
+  CurrentUser getCurrentUser();
 }
@@ -1,21 +1,34 @@
 package kz.projects.ams.services.impl;
 
+import kz.projects.ams.cache.AccountCache;
 import kz.projects.ams.dto.AccountDTO;
 import kz.projects.ams.exceptions.UnauthorizedException;
 import kz.projects.ams.exceptions.UserAccountNotFoundException;
+import kz.projects.ams.ledger.LedgerEngine;
 import kz.projects.ams.mapper.AccountMapper;
 import kz.projects.ams.models.Account;
+import kz.projects.ams.models.AccountBalanceSnapshot;
 import kz.projects.ams.models.User;
+import kz.projects.ams.models.enums.AccountType;
+import kz.projects.ams.models.enums.BalanceSnapshotType;
+import kz.projects.ams.repositories.AccountBalanceSnapshotRepository;
 import kz.projects.ams.repositories.AccountRepository;
+import kz.projects.ams.security.CurrentUser;
 import kz.projects.ams.services.AccountService;
 import kz.projects.ams.services.NotificationEventProducer;
 import kz.projects.ams.services.UserService;
 import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.dto.notification.AccountCreated;
+import kz.projects.commonlib.dto.notification.AccountDeleted;
+import kz.projects.commonlib.dto.notification.AccountUpdated;
+import kz.projects.commonlib.dto.notification.NotificationPayload;
+import kz.projects.commonlib.money.Money;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +45,9 @@ public class AccountServiceImpl implements AccountService {
   private final AccountMapper accountMapper;
   private final UserService userService;
   private final NotificationEventProducer notificationEventProducer;
+  private final LedgerEngine ledgerEngine;
+  private final AccountBalanceSnapshotRepository snapshotRepository;
+  private final AccountCache accountCache;
 
   private static final String TOPIC_NAME = "topic-account";
 
@@ -43,15 +59,17 @@ public class AccountServiceImpl implements AccountService {
    */
   @Override
   public AccountDTO createAccount(AccountDTO accountRequest) {
-    validateBalance(accountRequest.balance());
+    long balance = balanceOf(accountRequest.balance());
 
     Account account = new Account();
     account.setUser(userService.getCurrentSessionUser());
     account.setAccountType(accountRequest.accountType());
-    account.setBalance(accountRequest.balance());
+    account.setBalance(balance);
 
     Account savedAccount = accountRepository.save(account);
-    publishEvent(savedAccount, "created");
+    recordRebase(savedAccount);
+    publishEvent(new AccountCreated(savedAccount.getId(), typeName(savedAccount.getAccountType()),
+            Money.ofMinor(savedAccount.getBalance())));
 
     return accountMapper.toDto(savedAccount);
   }
@@ -64,8 +82,7 @@ public class AccountServiceImpl implements AccountService {
   @Override
   @Transactional(readOnly = true)
   public List<AccountDTO> findAccountsByUserId() {
-    User currentUser = userService.getCurrentSessionUser();
-    return accountRepository.findAllByUser(currentUser).stream()
+    return accountRepository.findAllByUserId(userService.getCurrentUser().id()).stream()
             .map(accountMapper::toDto)
             .collect(Collectors.toList());
   }
@@ -82,16 +99,20 @@ public class AccountServiceImpl implements AccountService {
    */
   @Override
   public AccountDTO updateAccount(Long id, AccountDTO request) {
-    validateBalance(request.balance());
+    long balance = balanceOf(request.balance());
 
+    ledgerEngine.fence(id);
     Account account = getValidatedAccount(id);
     validateUserAccess(account);
 
     account.setAccountType(request.accountType());
-    account.setBalance(request.balance());
+    account.setBalance(balance);
 
     Account updatedAccount = accountRepository.save(account);
-    publishEvent(updatedAccount, "updated");
+    accountCache.evict(updatedAccount.getId());
+    recordRebase(updatedAccount);
+    publishEvent(new AccountUpdated(updatedAccount.getId(), typeName(updatedAccount.getAccountType()),
+            Money.ofMinor(updatedAccount.getBalance())));
 
     return accountMapper.toDto(updatedAccount);
   }
@@ -106,17 +127,25 @@ public class AccountServiceImpl implements AccountService {
    */
   @Override
   public void deleteAccount(Long id) {
+    ledgerEngine.fence(id);
     Account account = getValidatedAccount(id);
     validateUserAccess(account);
 
+    snapshotRepository.deleteAllByAccountId(account.getId());
     accountRepository.delete(account);
-    publishEvent(account, "deleted");
+    accountCache.evict(account.getId());
+    publishEvent(new AccountDeleted(account.getId(), typeName(account.getAccountType()),
+            Money.ofMinor(account.getBalance())));
   }
 
-  private void validateBalance(double balance) {
-    if (balance < 0) {
+  private long balanceOf(Money balance) {
+    if (balance == null || !Money.DEFAULT_CURRENCY.equals(balance.currency())) {
+      throw new IllegalArgumentException("Balance must be specified in " + Money.DEFAULT_CURRENCY);
+    }
+    if (balance.isNegative()) {
       throw new IllegalArgumentException("Balance cannot be negative");
     }
+    return balance.minorUnits();
   }
 
   private Account getValidatedAccount(Long id) {
@@ -125,26 +154,30 @@ public class AccountServiceImpl implements AccountService {
   }
 
   private void validateUserAccess(Account account) {
-    Long currentUserId = userService.getCurrentSessionUser().getId();
-    if (!account.getUser().getId().equals(currentUserId)) {
+    if (!account.getUser().getId().equals(userService.getCurrentUser().id())) {
       throw new UnauthorizedException("You are not authorized to access this account");
     }
   }
 
-  private void publishEvent(Account account, String action) {
-    String message = String.format(
-            "You have successfully %s your account with id %d, type %s, and balance %.2f",
-            action, account.getId(), account.getAccountType(), account.getBalance()
-    );
+  private void recordRebase(Account account) {
+    snapshotRepository.save(new AccountBalanceSnapshot(null, account.getId(), null, BalanceSnapshotType.REBASE,
+            account.getBalance(), new Date()));
+  }
 
+  private void publishEvent(NotificationPayload payload) {
+    CurrentUser currentUser = userService.getCurrentUser();
     NotificationEvent event = new NotificationEvent(
-            userService.getCurrentSessionUser().getId().toString(),
-            userService.getCurrentSessionUser().getName(),
-            userService.getCurrentSessionUser().getEmail(),
-            message,
+            currentUser.id().toString(),
+            currentUser.name(),
+            currentUser.email(),
+            payload,
             LocalDateTime.now().toString()
     );
 
     notificationEventProducer.publishEvent(event, TOPIC_NAME);
   }
-}
\ No newline at end of file
+
+  private static String typeName(AccountType accountType) {
+    return accountType == null ? null : accountType.name();
+  }
+}
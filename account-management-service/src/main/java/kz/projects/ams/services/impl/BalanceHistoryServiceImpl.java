@@ -0,0 +1,146 @@
+package kz.projects.ams.services.impl;
+
+import kz.projects.ams.dto.BalanceDTO;
+import kz.projects.ams.dto.BalancePointDTO;
+import kz.projects.ams.exceptions.BalanceHistoryUnavailableException;
+import kz.projects.ams.exceptions.UnauthorizedException;
+import kz.projects.ams.exceptions.UserAccountNotFoundException;
+import kz.projects.ams.models.Account;
+import kz.projects.ams.models.AccountBalanceSnapshot;
+import kz.projects.ams.models.Transaction;
+import kz.projects.ams.models.enums.BalanceSnapshotType;
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.ams.repositories.AccountBalanceSnapshotRepository;
+import kz.projects.ams.repositories.AccountRepository;
+import kz.projects.ams.repositories.TransactionRepository;
+import kz.projects.ams.services.BalanceHistoryService;
+import kz.projects.ams.services.UserService;
+import kz.projects.commonlib.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Реализация {@link BalanceHistoryService} для получения исторических балансов счета.
+ * Баланс на момент времени вычисляется от ближайшего предшествующего снимка баланса
+ * с учетом только транзакций после него, поэтому стоимость запроса не зависит от длины истории счета.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BalanceHistoryServiceImpl implements BalanceHistoryService {
+
+  private final AccountRepository accountRepository;
+  private final TransactionRepository transactionRepository;
+  private final AccountBalanceSnapshotRepository snapshotRepository;
+  private final UserService userService;
+
+  private static final int MAX_HISTORY_SIZE = 5000;
+
+  /**
+   * Возвращает баланс счета на указанный момент времени.
+   *
+   * @param accountId идентификатор счета
+   * @param at        момент времени
+   * @return {@link BalanceDTO} объект с балансом на указанный момент
+   * @throws UserAccountNotFoundException       если счет не найден
+   * @throws UnauthorizedException              если счет не принадлежит текущему пользователю
+   * @throws BalanceHistoryUnavailableException если на указанный момент нет снимка баланса
+   */
+  @Override
+  public BalanceDTO getBalanceAt(Long accountId, Date at) {
+    validateUserAccess(accountId);
+    return new BalanceDTO(accountId, at, Money.ofMinor(balanceAt(accountId, at)));
+  }
+
+  /**
+   * Возвращает ряд баланса счета: баланс после каждой транзакции за указанный период.
+   *
+   * @param accountId идентификатор счета
+   * @param from      начало периода, не включительно
+   * @param to        конец периода, включительно
+   * @param limit     максимальное количество транзакций, не больше {@value #MAX_HISTORY_SIZE}
+   * @return список {@link BalancePointDTO} объектов в порядке времени
+   * @throws UserAccountNotFoundException       если счет не найден
+   * @throws UnauthorizedException              если счет не принадлежит текущему пользователю
+   * @throws BalanceHistoryUnavailableException если на начало периода нет снимка баланса
+   */
+  @Override
+  public List<BalancePointDTO> getBalanceHistory(Long accountId, Date from, Date to, int limit) {
+    if (!from.before(to)) {
+      throw new IllegalArgumentException("Period start must be before period end");
+    }
+    validateUserAccess(accountId);
+
+    int size = Math.min(Math.max(limit, 1), MAX_HISTORY_SIZE);
+    long balance = balanceAt(accountId, from);
+    List<Transaction> transactions = transactionRepository.findBalanceChanges(accountId, from, to, Limit.of(size));
+    Iterator<AccountBalanceSnapshot> rebases = snapshotRepository
+            .findAllByAccountIdAndTypeAndAsOfGreaterThanAndAsOfLessThanEqualOrderByAsOfAscIdAsc(
+                    accountId, BalanceSnapshotType.REBASE, from, to)
+            .iterator();
+
+    List<BalancePointDTO> points = new ArrayList<>(transactions.size());
+    AccountBalanceSnapshot rebase = rebases.hasNext() ? rebases.next() : null;
+    for (Transaction transaction : transactions) {
+      while (rebase != null && rebase.getAsOf().before(transaction.getDate())) {
+        points.add(rebasePoint(rebase, balance));
+        balance = rebase.getBalance();
+        rebase = rebases.hasNext() ? rebases.next() : null;
+      }
+
+      long change = balanceChange(transaction, accountId);
+      balance = Math.addExact(balance, change);
+      points.add(new BalancePointDTO(transaction.getDate(), transaction.getId(), transaction.getType(),
+              Money.ofMinor(change), Money.ofMinor(balance)));
+    }
+
+    if (transactions.size() < size) {
+      while (rebase != null) {
+        points.add(rebasePoint(rebase, balance));
+        balance = rebase.getBalance();
+        rebase = rebases.hasNext() ? rebases.next() : null;
+      }
+    }
+    return points;
+  }
+
+  private long balanceAt(Long accountId, Date at) {
+    AccountBalanceSnapshot snapshot = snapshotRepository
+            .findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDescIdDesc(accountId, at)
+            .orElseThrow(() -> new BalanceHistoryUnavailableException("Balance history is not available for this date"));
+    return Math.addExact(snapshot.getBalance(),
+            transactionRepository.sumBalanceChange(accountId, snapshot.getAsOf(), at));
+  }
+
+  private long balanceChange(Transaction transaction, Long accountId) {
+    long change = 0;
+    if (transaction.getAccount().getId().equals(accountId)) {
+      change += transaction.getType() == TransactionType.DEPOSIT ? transaction.getAmount() : -transaction.getAmount();
+    }
+    if (accountId.equals(transaction.getCounterpartyAccountId())) {
+      change += transaction.getAmount();
+    }
+    return change;
+  }
+
+  private BalancePointDTO rebasePoint(AccountBalanceSnapshot rebase, long balance) {
+    return new BalancePointDTO(rebase.getAsOf(), null, null, Money.ofMinor(rebase.getBalance() - balance),
+            Money.ofMinor(rebase.getBalance()));
+  }
+
+  private void validateUserAccess(Long accountId) {
+    Account account = accountRepository.findById(accountId)
+            .orElseThrow(() -> new UserAccountNotFoundException("Account not found"));
+    Long currentUserId = userService.getCurrentUser().id();
+    if (!account.getUser().getId().equals(currentUserId)) {
+      throw new UnauthorizedException("You are not authorized to access this account");
+    }
+  }
+}
@@ -1,30 +1,39 @@
 package kz.projects.ams.services.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.ams.outbox.OutboxJdbcRepository;
 import kz.projects.ams.services.NotificationEventProducer;
 import kz.projects.commonlib.dto.NotificationEvent;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.UUID;
 
+/**
+ * Публикует уведомления через outbox: событие записывается в {@code t_notification_outbox}
+ * в транзакции вызывающего кода и отправляется в Kafka фоновым
+ * {@link kz.projects.ams.outbox.NotificationOutboxRelay}. Откат транзакции отменяет и уведомление,
+ * а запрос не ждет брокер.
+ * <p>
+ * Событию присваивается {@code eventId}, который сохраняется в outbox вместе с ним и не меняется
+ * при повторных отправках, поэтому notification-service может отбрасывать дубликаты.
+ */
 @Service
 @RequiredArgsConstructor
 public class NotificationEventProducerImpl implements NotificationEventProducer {
-  private final KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+  private final OutboxJdbcRepository outboxRepository;
+  private final ObjectMapper objectMapper;
 
   @Override
   public void publishEvent(NotificationEvent event, String topicName) {
-    CompletableFuture<SendResult<String, NotificationEvent>> future = kafkaTemplate.send(topicName, event);
-    future.whenComplete((result, ex) -> {
-      if (ex == null) {
-        System.out.println("Sent message=[" + event +
-                "] with offset=[" + result.getRecordMetadata().offset() + "]");
-      } else {
-        System.out.println("Unable to send message=[" +
-                event + "] due to : " + ex.getMessage());
-      }
-    });
+    if (event.getEventId() == null) {
+      event.setEventId(UUID.randomUUID().toString());
+    }
+    try {
+      outboxRepository.append(topicName, objectMapper.writeValueAsString(event));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize notification event", e);
+    }
   }
 }
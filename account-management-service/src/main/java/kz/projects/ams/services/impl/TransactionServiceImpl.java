@@ -1,47 +1,108 @@
 package kz.projects.ams.services.impl;
 
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.Timer;
+import kz.projects.ams.batch.BatchOperation;
+import kz.projects.ams.batch.BatchResult;
+import kz.projects.ams.batch.BulkTransactionImporter;
+import kz.projects.ams.batch.TransactionBatchWriter;
+import kz.projects.ams.cache.AccountCache;
+import kz.projects.ams.cache.AccountSnapshot;
 import kz.projects.ams.dto.TransactionDTO;
+import kz.projects.ams.dto.requests.BulkTransactionRow;
+import kz.projects.ams.dto.requests.TransactionFilter;
 import kz.projects.ams.dto.requests.TransactionRequest;
 import kz.projects.ams.dto.requests.TransferRequest;
+import kz.projects.ams.dto.responses.BulkTransactionResponse;
+import kz.projects.ams.dto.responses.BulkTransactionResult;
+import kz.projects.ams.dto.responses.TransactionPageResponse;
+import kz.projects.ams.exceptions.InvalidCursorException;
 import kz.projects.ams.exceptions.InsufficientFundsException;
 import kz.projects.ams.exceptions.UnauthorizedException;
 import kz.projects.ams.exceptions.UserAccountNotFoundException;
+import kz.projects.ams.ledger.LedgerAccount;
+import kz.projects.ams.ledger.LedgerEngine;
+import kz.projects.ams.ledger.LedgerEntry;
+import kz.projects.ams.ledger.LedgerStore;
 import kz.projects.ams.mapper.TransactionMapper;
+import kz.projects.ams.metrics.TransferMetrics;
 import kz.projects.ams.models.Account;
 import kz.projects.ams.models.Transaction;
-import kz.projects.ams.models.User;
+import kz.projects.ams.models.enums.AccountType;
 import kz.projects.ams.models.enums.TransactionType;
-import kz.projects.ams.repositories.AccountRepository;
+import kz.projects.ams.repositories.AccountBalanceSnapshotJdbcRepository;
+import kz.projects.ams.repositories.AccountJdbcRepository;
+import kz.projects.ams.repositories.TransactionIdAllocator;
+import kz.projects.ams.repositories.TransactionJdbcRepository;
 import kz.projects.ams.repositories.TransactionRepository;
+import kz.projects.ams.security.CurrentUser;
 import kz.projects.ams.services.NotificationEventProducer;
 import kz.projects.ams.services.TransactionService;
 import kz.projects.ams.services.UserService;
 import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.dto.notification.BulkImportCompleted;
+import kz.projects.commonlib.dto.notification.DepositCompleted;
+import kz.projects.commonlib.dto.notification.NotificationPayload;
+import kz.projects.commonlib.dto.notification.TransferCompleted;
+import kz.projects.commonlib.dto.notification.WithdrawalCompleted;
+import kz.projects.commonlib.money.Money;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Реализация {@link TransactionService} для управления транзакциями.
  * Обрабатывает депозиты, снятие средств, переводы и получение списка транзакций для текущего пользователя.
+ * Операции со счетами выполняются через {@link LedgerEngine}, {@link TransactionBatchWriter}
+ * или в собственной транзакции базы данных, в зависимости от конфигурации. Сами методы операций
+ * не открывают транзакцию, чтобы запрос не удерживал соединение, ожидая групповую фиксацию.
+ * В базе данных балансы изменяются условными {@code UPDATE} без чтения сущности счета,
+ * а проверки наличия и владельца счета выполняются по {@link AccountCache}.
+ * Уведомление о транзакции добавляется в outbox в той же транзакции базы данных, что и изменение баланса:
+ * при записи через леджер или пакетом его добавляют {@link LedgerStore} и {@link TransactionBatchWriter}.
  */
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class TransactionServiceImpl implements TransactionService {
 
-  private final AccountRepository accountRepository;
+  private final AccountCache accountCache;
   private final TransactionRepository transactionRepository;
   private final TransactionMapper transactionMapper;
   private final UserService userService;
   private final NotificationEventProducer notificationEventProducer;
+  private final LedgerEngine ledgerEngine;
+  private final TransactionBatchWriter transactionBatchWriter;
+  private final TransactionTemplate transactionTemplate;
+  private final AccountBalanceSnapshotJdbcRepository snapshotJdbcRepository;
+  private final AccountJdbcRepository accountJdbcRepository;
+  private final TransactionJdbcRepository transactionJdbcRepository;
+  private final TransactionIdAllocator transactionIdAllocator;
+  private final TransferMetrics transferMetrics;
+  private final BulkTransactionImporter bulkTransactionImporter;
 
   private static final String TOPIC_NAME = "topic-transactions";
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final Date MIN_DATE = new Date(0L);
+  private static final Date MAX_DATE = new Date(253402214400000L);
 
   /**
    * Выполняет операцию пополнения счета.
@@ -53,18 +114,36 @@ public class TransactionServiceImpl implements TransactionService {
    * @throws IllegalArgumentException если текущий пользователь не имеет доступа к указанному счету
    */
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public TransactionDTO deposit(TransactionRequest request) {
-    validateAmount(request.amount());
-    Account account = getValidatedAccount(request.accountId());
-    validateUserAccess(account);
+    long amount = amountOf(request.amount());
+    if (ledgerEngine.isEnabled()) {
+      LedgerAccount account = ledgerEngine.account(request.accountId());
+      validateUserAccess(account.getOwnerId());
 
-    account.setBalance(account.getBalance() + request.amount());
-    accountRepository.save(account);
+      LedgerEntry entry = ledgerEngine.deposit(account, amount);
 
-    Transaction transaction = saveTransaction(account, TransactionType.DEPOSIT, request.amount());
-    publishEvent(account, request.amount(), "deposit");
+      return transactionMapper.toDto(entry);
+    }
 
-    return transactionMapper.toDto(transaction);
+    if (transactionBatchWriter.isEnabled()) {
+      CurrentUser currentUser = userService.getCurrentUser();
+      Transaction transaction = transactionBatchWriter.submit(new BatchOperation(
+              TransactionType.DEPOSIT, request.accountId(), null, amount, currentUser.id(), currentUser));
+
+      return transactionMapper.toDto(transaction);
+    }
+
+    return transactionTemplate.execute(status -> {
+      validateUserAccess(getValidatedAccount(request.accountId()).userId());
+
+      Account account = credit(request.accountId(), amount);
+      Transaction transaction = insertTransaction(account, TransactionType.DEPOSIT, amount, null);
+      snapshotJdbcRepository.record(account.getId(), account.getBalance(), transaction.getDate());
+      publishEvent(new DepositCompleted(account.getId(), typeName(account.getAccountType()), request.amount()));
+
+      return transactionMapper.toDto(transaction);
+    });
   }
 
   /**
@@ -77,22 +156,34 @@ public class TransactionServiceImpl implements TransactionService {
    * @throws IllegalArgumentException если текущий пользователь не имеет доступа к указанному счету
    */
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public TransactionDTO withdraw(TransactionRequest request) {
-    validateAmount(request.amount());
-    Account account = getValidatedAccount(request.accountId());
-    validateUserAccess(account);
+    long amount = amountOf(request.amount());
+    if (ledgerEngine.isEnabled()) {
+      LedgerAccount account = ledgerEngine.account(request.accountId());
+      validateUserAccess(account.getOwnerId());
+
+      LedgerEntry entry = ledgerEngine.withdraw(account, amount);
 
-    if (account.getBalance() < request.amount()) {
-      throw new InsufficientFundsException("Insufficient funds");
+      return transactionMapper.toDto(entry);
     }
 
-    account.setBalance(account.getBalance() - request.amount());
-    accountRepository.save(account);
+    if (transactionBatchWriter.isEnabled()) {
+      CurrentUser currentUser = userService.getCurrentUser();
+      Transaction transaction = transactionBatchWriter.submit(new BatchOperation(
+              TransactionType.WITHDRAWAL, request.accountId(), null, amount, currentUser.id(), currentUser));
 
-    Transaction transaction = saveTransaction(account, TransactionType.WITHDRAWAL, request.amount());
-    publishEvent(account, request.amount(), "withdrawal");
+      return transactionMapper.toDto(transaction);
+    }
 
-    return transactionMapper.toDto(transaction);
+    return transactionTemplate.execute(status -> {
+      Account account = debit(request.accountId(), currentUserId(), amount);
+      Transaction transaction = insertTransaction(account, TransactionType.WITHDRAWAL, amount, null);
+      snapshotJdbcRepository.record(account.getId(), account.getBalance(), transaction.getDate());
+      publishEvent(new WithdrawalCompleted(account.getId(), typeName(account.getAccountType()), request.amount()));
+
+      return transactionMapper.toDto(transaction);
+    });
   }
 
   /**
@@ -103,32 +194,177 @@ public class TransactionServiceImpl implements TransactionService {
    * @return {@link TransactionDTO} объект, представляющий выполненную транзакцию
    * @throws UserAccountNotFoundException если один из указанных счетов не найден
    * @throws IllegalArgumentException если текущий пользователь не имеет доступа к исходному счету
+   *                                  или счета отправителя и получателя совпадают
    */
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public TransactionDTO transfer(TransferRequest request) {
-    validateAmount(request.amount());
+    long amount = amountOf(request.amount());
+    checkDistinctAccounts(request.fromAccount(), request.toAccount());
+    if (ledgerEngine.isEnabled()) {
+      LedgerAccount fromAccount = ledgerEngine.account(request.fromAccount());
+      LedgerAccount toAccount = ledgerEngine.account(request.toAccount());
+      validateUserAccess(fromAccount.getOwnerId());
 
-    Account fromAccount = getValidatedAccount(request.fromAccount());
-    Account toAccount = getValidatedAccount(request.toAccount());
+      LedgerEntry entry = ledgerEngine.transfer(fromAccount, toAccount, amount);
 
-    validateUserAccess(fromAccount);
+      return transactionMapper.toDto(entry);
+    }
+
+    if (transactionBatchWriter.isEnabled()) {
+      CurrentUser currentUser = userService.getCurrentUser();
+      Transaction transaction = transactionBatchWriter.submit(new BatchOperation(
+              TransactionType.TRANSFER, request.fromAccount(), request.toAccount(), amount,
+              currentUser.id(), currentUser));
 
-    if (fromAccount.getBalance() < request.amount()) {
-      throw new InsufficientFundsException("Insufficient funds");
+      return transactionMapper.toDto(transaction);
     }
 
-    fromAccount.setBalance(fromAccount.getBalance() - request.amount());
-    toAccount.setBalance(toAccount.getBalance() + request.amount());
+    LongTaskTimer.Sample active = transferMetrics.startTransfer();
+    try {
+      return transactionTemplate.execute(status -> transferInDatabase(request, amount));
+    } catch (InsufficientFundsException e) {
+      transferMetrics.rejected();
+      throw e;
+    } catch (PessimisticLockingFailureException e) {
+      transferMetrics.lockFailed();
+      throw e;
+    } finally {
+      active.stop();
+    }
+  }
 
-    accountRepository.save(fromAccount);
-    accountRepository.save(toAccount);
+  /**
+   * Переводит средства двумя условными {@code UPDATE} без предварительного чтения счетов.
+   * Строки счетов блокируются в порядке возрастания идентификаторов, поэтому встречные переводы
+   * не приводят к взаимной блокировке, а проверка баланса и списание выполняются атомарно.
+   */
+  private TransactionDTO transferInDatabase(TransferRequest request, long amount) {
+    Long userId = currentUserId();
+    Timer.Sample locking = transferMetrics.startLocking();
+    Account fromAccount;
+    Account toAccount;
+    if (request.fromAccount() <= request.toAccount()) {
+      fromAccount = debit(request.fromAccount(), userId, amount);
+      toAccount = credit(request.toAccount(), amount);
+    } else {
+      toAccount = credit(request.toAccount(), amount);
+      fromAccount = debit(request.fromAccount(), userId, amount);
+    }
+    transferMetrics.locked(locking);
 
-    Transaction transaction = saveTransaction(fromAccount, TransactionType.TRANSFER, request.amount());
-    publishEvent(fromAccount, request.amount(), "transfer to account ID " + request.toAccount());
+    Transaction transaction = insertTransaction(fromAccount, TransactionType.TRANSFER, amount, toAccount.getId());
+    snapshotJdbcRepository.record(fromAccount.getId(), fromAccount.getBalance(), transaction.getDate());
+    snapshotJdbcRepository.record(toAccount.getId(), toAccount.getBalance(), transaction.getDate());
+    publishEvent(new TransferCompleted(fromAccount.getId(), typeName(fromAccount.getAccountType()),
+            request.toAccount(), request.amount()));
 
     return transactionMapper.toDto(transaction);
   }
 
+  private Account debit(Long accountId, Long userId, long amount) {
+    return accountJdbcRepository.debit(accountId, userId, amount).orElseThrow(() -> {
+      validateUserAccess(getValidatedAccount(accountId).userId());
+      return new InsufficientFundsException("Insufficient funds");
+    });
+  }
+
+  private Account credit(Long accountId, long amount) {
+    return accountJdbcRepository.credit(accountId, amount)
+            .orElseThrow(() -> new UserAccountNotFoundException("Account Not Found!"));
+  }
+
+  /**
+   * Выполняет массовую загрузку депозитов, снятий и переводов текущего пользователя.
+   * Пользователь определяется один раз на всю загрузку, а операции записываются порциями через
+   * {@link BulkTransactionImporter}. Ошибка в строке не прерывает загрузку и возвращается в результате этой строки.
+   * По завершении публикуется одно итоговое уведомление вместо уведомления на каждую операцию.
+   *
+   * @param rows строки загрузки в порядке следования во входном файле
+   * @return {@link BulkTransactionResponse} с результатом каждой строки
+   */
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public BulkTransactionResponse importTransactions(Iterator<BulkTransactionRow> rows) {
+    Long userId = currentUserId();
+    Iterator<BatchOperation> operations = new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return rows.hasNext();
+      }
+
+      @Override
+      public BatchOperation next() {
+        return toOperation(rows.next(), userId);
+      }
+    };
+
+    List<BulkTransactionResult> results = ledgerEngine.isEnabled()
+            ? importToLedger(operations)
+            : importToDatabase(operations);
+
+    int succeeded = (int) results.stream().filter(result -> result.error() == null).count();
+    if (succeeded > 0) {
+      publishEvent(new BulkImportCompleted(succeeded, results.size() - succeeded));
+    }
+
+    return new BulkTransactionResponse(results.size(), succeeded, results.size() - succeeded, rows.hasNext(),
+            results);
+  }
+
+  private BatchOperation toOperation(BulkTransactionRow row, Long userId) {
+    if (row.type() == null || row.accountId() == null) {
+      throw new IllegalArgumentException("Type and account ID are required");
+    }
+    if ((row.type() == TransactionType.TRANSFER) != (row.toAccount() != null)) {
+      throw new IllegalArgumentException("Target account ID must be specified for transfers only");
+    }
+    if (row.type() == TransactionType.TRANSFER) {
+      checkDistinctAccounts(row.accountId(), row.toAccount());
+    }
+    return new BatchOperation(row.type(), row.accountId(), row.toAccount(), amountOf(row.amount()), userId, null);
+  }
+
+  private static void checkDistinctAccounts(Long fromAccount, Long toAccount) {
+    if (Objects.equals(fromAccount, toAccount)) {
+      throw new IllegalArgumentException("Cannot transfer to the same account");
+    }
+  }
+
+  private List<BulkTransactionResult> importToDatabase(Iterator<BatchOperation> operations) {
+    List<BatchResult> written = bulkTransactionImporter.importAll(operations);
+    List<BulkTransactionResult> results = new ArrayList<>(written.size());
+    for (BatchResult result : written) {
+      results.add(result.failure() == null
+              ? new BulkTransactionResult(results.size() + 1, transactionMapper.toDto(result.transaction()), null)
+              : new BulkTransactionResult(results.size() + 1, null, result.failure().getMessage()));
+    }
+    return results;
+  }
+
+  private List<BulkTransactionResult> importToLedger(Iterator<BatchOperation> operations) {
+    List<BulkTransactionResult> results = new ArrayList<>();
+    while (results.size() < bulkTransactionImporter.getMaxRows() && operations.hasNext()) {
+      try {
+        BatchOperation operation = operations.next();
+        LedgerAccount account = ledgerEngine.account(operation.accountId());
+        if (!account.getOwnerId().equals(operation.userId())) {
+          throw new UnauthorizedException("You are not allowed to access this account");
+        }
+        LedgerEntry entry = switch (operation.type()) {
+          case DEPOSIT -> ledgerEngine.deposit(account, operation.amount(), false);
+          case WITHDRAWAL -> ledgerEngine.withdraw(account, operation.amount(), false);
+          case TRANSFER -> ledgerEngine.transfer(account, ledgerEngine.account(operation.counterpartyId()),
+                  operation.amount(), false);
+        };
+        results.add(new BulkTransactionResult(results.size() + 1, transactionMapper.toDto(entry), null));
+      } catch (RuntimeException e) {
+        results.add(new BulkTransactionResult(results.size() + 1, null, e.getMessage()));
+      }
+    }
+    return results;
+  }
+
   /**
    * Получает список транзакций для текущего пользователя.
    *
@@ -137,52 +373,139 @@ public class TransactionServiceImpl implements TransactionService {
   @Override
   @Transactional(readOnly = true)
   public List<TransactionDTO> getTransactions() {
-    User currentUser = userService.getCurrentSessionUser();
-    return transactionRepository.findAllByUserId(currentUser.getId())
+    return transactionRepository.findAllByUserId(currentUserId())
             .stream()
             .map(transactionMapper::toDto)
             .collect(Collectors.toList());
   }
 
-  private void validateAmount(double amount) {
-    if (amount <= 0) {
+  /**
+   * Получает страницу транзакций текущего пользователя, от новых к старым.
+   * Страницы разбиваются по курсору на паре {@code (date, id)}, поэтому стоимость запроса
+   * не зависит от номера страницы.
+   *
+   * @param filter фильтр по периоду и типам транзакций
+   * @param cursor курсор из предыдущей страницы или {@code null} для первой страницы
+   * @param limit  размер страницы, не больше {@value #MAX_PAGE_SIZE}
+   * @return {@link TransactionPageResponse} со страницей транзакций и курсором следующей страницы
+   * @throws InvalidCursorException если курсор поврежден
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public TransactionPageResponse getTransactionPage(TransactionFilter filter, String cursor, int limit) {
+    int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+    Date beforeDate = MAX_DATE;
+    long beforeId = Long.MAX_VALUE;
+    if (cursor != null && !cursor.isBlank()) {
+      long[] position = decodeCursor(cursor);
+      beforeDate = new Date(position[0]);
+      beforeId = position[1];
+    }
+
+    List<TransactionDTO> transactions = transactionRepository.findPageByUserId(currentUserId(),
+            fromDate(filter), toDate(filter), types(filter), beforeDate, beforeId, Limit.of(pageSize + 1));
+    if (transactions.size() <= pageSize) {
+      return new TransactionPageResponse(transactions, null);
+    }
+
+    List<TransactionDTO> page = List.copyOf(transactions.subList(0, pageSize));
+    return new TransactionPageResponse(page, encodeCursor(page.get(pageSize - 1)));
+  }
+
+  /**
+   * Передает все транзакции текущего пользователя, подходящие под фильтр, от новых к старым.
+   * Строки читаются курсором базы данных порциями и не накапливаются в памяти.
+   *
+   * @param filter   фильтр по периоду и типам транзакций
+   * @param consumer получатель транзакций, вызывается для каждой строки внутри транзакции чтения
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public void exportTransactions(TransactionFilter filter, Consumer<TransactionDTO> consumer) {
+    try (Stream<TransactionDTO> transactions = transactionRepository.streamByUserId(currentUserId(),
+            fromDate(filter), toDate(filter), types(filter))) {
+      transactions.forEach(consumer);
+    }
+  }
+
+  private Date fromDate(TransactionFilter filter) {
+    return filter.from() != null ? filter.from() : MIN_DATE;
+  }
+
+  private Date toDate(TransactionFilter filter) {
+    return filter.to() != null ? filter.to() : MAX_DATE;
+  }
+
+  private Collection<TransactionType> types(TransactionFilter filter) {
+    return filter.types() != null && !filter.types().isEmpty()
+            ? filter.types()
+            : EnumSet.allOf(TransactionType.class);
+  }
+
+  private String encodeCursor(TransactionDTO transaction) {
+    String position = transaction.date().getTime() + ":" + transaction.id();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private long[] decodeCursor(String cursor) {
+    try {
+      String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = position.indexOf(':');
+      return new long[]{
+              Long.parseLong(position.substring(0, separator)),
+              Long.parseLong(position.substring(separator + 1))
+      };
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new InvalidCursorException("Invalid cursor");
+    }
+  }
+
+  private long amountOf(Money amount) {
+    if (amount == null || !Money.DEFAULT_CURRENCY.equals(amount.currency())) {
+      throw new IllegalArgumentException("Amount must be specified in " + Money.DEFAULT_CURRENCY);
+    }
+    if (!amount.isPositive()) {
       throw new IllegalArgumentException("Amount must be greater than zero");
     }
+    return amount.minorUnits();
   }
 
-  private Account getValidatedAccount(Long accountId) {
-    return accountRepository.findById(accountId)
+  private AccountSnapshot getValidatedAccount(Long accountId) {
+    return accountCache.find(accountId)
             .orElseThrow(() -> new UserAccountNotFoundException("Account Not Found!"));
   }
 
-  private void validateUserAccess(Account account) {
-    Long currentUserId = userService.getCurrentSessionUser().getId();
-    if (!account.getUser().getId().equals(currentUserId)) {
+  private void validateUserAccess(Long ownerId) {
+    if (!ownerId.equals(currentUserId())) {
       throw new UnauthorizedException("You are not allowed to access this account");
     }
   }
 
-  private Transaction saveTransaction(Account account, TransactionType type, double amount) {
-    Transaction transaction = new Transaction();
-    transaction.setAccount(account);
-    transaction.setType(type);
-    transaction.setAmount(amount);
-    transaction.setDate(new Date());
-    return transactionRepository.save(transaction);
+  private Long currentUserId() {
+    return userService.getCurrentUser().id();
+  }
+
+  private Transaction insertTransaction(Account account, TransactionType type, long amount,
+                                        Long counterpartyAccountId) {
+    Transaction transaction = new Transaction(transactionIdAllocator.next(), account, type, amount,
+            counterpartyAccountId, new Date());
+    transactionJdbcRepository.insertAll(List.of(transaction));
+    return transaction;
   }
 
-  private void publishEvent(Account account, double amount, String operation) {
+  private void publishEvent(NotificationPayload payload) {
+    CurrentUser currentUser = userService.getCurrentUser();
     NotificationEvent event = new NotificationEvent(
-            userService.getCurrentSessionUser().getId().toString(),
-            userService.getCurrentSessionUser().getName(),
-            userService.getCurrentSessionUser().getEmail(),
-            "Operation went successfully! " + "\n" +
-                    "Operation: " + operation + "\n" +
-                    "Amount: " + amount + "\n" +
-                    "Account ID: " + account.getId() + "\n" +
-                    "Account Type: " + account.getAccountType() + "\n",
+            currentUser.id().toString(),
+            currentUser.name(),
+            currentUser.email(),
+            payload,
             LocalDateTime.now().toString()
     );
     notificationEventProducer.publishEvent(event, TOPIC_NAME);
   }
+
+  private static String typeName(AccountType accountType) {
+    return accountType == null ? null : accountType.name();
+  }
 }
\ No newline at end of file
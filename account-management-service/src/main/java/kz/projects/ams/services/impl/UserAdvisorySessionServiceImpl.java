@@ -1,11 +1,16 @@
 package kz.projects.ams.services.impl;
 
 import kz.projects.ams.exceptions.AdvisorySessionOrderException;
+import kz.projects.ams.security.CurrentUser;
 import kz.projects.ams.services.NotificationEventProducer;
 import kz.projects.ams.services.UserAdvisorySessionService;
 import kz.projects.ams.services.UserService;
 import kz.projects.commonlib.dto.AdvisorySessionDTO;
 import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.dto.notification.AdvisorySessionDeleted;
+import kz.projects.commonlib.dto.notification.AdvisorySessionOrdered;
+import kz.projects.commonlib.dto.notification.AdvisorySessionRescheduled;
+import kz.projects.commonlib.dto.notification.NotificationPayload;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
@@ -40,11 +45,11 @@ public class UserAdvisorySessionServiceImpl implements UserAdvisorySessionServic
    */
   @Override
   public AdvisorySessionDTO orderAdvisorySession(AdvisorySessionDTO request) {
-    Long currentUserId = userService.getCurrentSessionUser().getId();
+    CurrentUser currentUser = userService.getCurrentUser();
 
     AdvisorySessionDTO sessionRequest = new AdvisorySessionDTO(
             request.id(),
-            currentUserId,
+            currentUser.id(),
             request.advisoryId(),
             request.date(),
             request.time()
@@ -59,8 +64,7 @@ public class UserAdvisorySessionServiceImpl implements UserAdvisorySessionServic
             "Failed to order advisory session"
     );
 
-    publishEvent("You have successfully ordered advisory with ID " + response.id() +
-            " on " + response.date() + " at " + response.time());
+    publishEvent(currentUser, new AdvisorySessionOrdered(response.id(), response.date(), response.time()));
     return response;
   }
 
@@ -72,7 +76,7 @@ public class UserAdvisorySessionServiceImpl implements UserAdvisorySessionServic
    */
   @Override
   public List<AdvisorySessionDTO> getAdvisorySessionsPlanned() {
-    Long currentUserId = userService.getCurrentSessionUser().getId();
+    Long currentUserId = userService.getCurrentUser().id();
 
     return executeWebClientCall(
             webClientBuilder.build()
@@ -94,7 +98,7 @@ public class UserAdvisorySessionServiceImpl implements UserAdvisorySessionServic
    */
   @Override
   public List<AdvisorySessionDTO> getAdvisersSessions() {
-    String email = userService.getCurrentSessionUser().getEmail();
+    String email = userService.getCurrentUser().email();
 
     return executeWebClientCall(
             webClientBuilder.build()
@@ -117,10 +121,10 @@ public class UserAdvisorySessionServiceImpl implements UserAdvisorySessionServic
    */
   @Override
   public void rescheduleAdvisorySession(Long id, AdvisorySessionDTO request) {
-    Long currentUserId = userService.getCurrentSessionUser().getId();
+    CurrentUser currentUser = userService.getCurrentUser();
     AdvisorySessionDTO sessionRequest = new AdvisorySessionDTO(
             id,
-            currentUserId,
+            currentUser.id(),
             request.advisoryId(),
             request.date(),
             request.time()
@@ -135,8 +139,7 @@ public class UserAdvisorySessionServiceImpl implements UserAdvisorySessionServic
             "Failed to reschedule advisory session"
     );
 
-    publishEvent("You have successfully rescheduled your advisory session with ID " + id +
-            " to " + sessionRequest.date() + " at " + sessionRequest.time());
+    publishEvent(currentUser, new AdvisorySessionRescheduled(id, sessionRequest.date(), sessionRequest.time()));
   }
 
   /**
@@ -147,28 +150,28 @@ public class UserAdvisorySessionServiceImpl implements UserAdvisorySessionServic
    */
   @Override
   public void deleteAdvisorySession(Long id) {
-    Long currentUserId = userService.getCurrentSessionUser().getId();
+    CurrentUser currentUser = userService.getCurrentUser();
 
     executeWebClientCall(
             webClientBuilder.build()
                     .delete()
                     .uri(uriBuilder -> uriBuilder
                             .path(ADVISORY_SESSIONS_URI + "/{id}")
-                            .queryParam("userId", currentUserId)
+                            .queryParam("userId", currentUser.id())
                             .build(id)),
             Void.class,
             "Failed to delete advisory session"
     );
 
-    publishEvent("You have successfully deleted your advisory session with ID " + id);
+    publishEvent(currentUser, new AdvisorySessionDeleted(id));
   }
 
-  private void publishEvent(String message) {
+  private void publishEvent(CurrentUser currentUser, NotificationPayload payload) {
     NotificationEvent event = new NotificationEvent(
-            userService.getCurrentSessionUser().getId().toString(),
-            userService.getCurrentSessionUser().getName(),
-            userService.getCurrentSessionUser().getEmail(),
-            message,
+            currentUser.id().toString(),
+            currentUser.name(),
+            currentUser.email(),
+            payload,
             LocalDateTime.now().toString()
     );
 
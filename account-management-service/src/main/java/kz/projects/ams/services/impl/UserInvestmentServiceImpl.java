@@ -1,5 +1,7 @@
 package kz.projects.ams.services.impl;
 
+import kz.projects.ams.cache.AccountCache;
+import kz.projects.ams.cache.AccountSnapshot;
 import kz.projects.ams.dto.TransactionDTO;
 import kz.projects.ams.dto.requests.InvestmentRequest;
 import kz.projects.ams.dto.requests.TransactionRequest;
@@ -7,8 +9,8 @@ import kz.projects.ams.dto.responses.InvestmentResponse;
 import kz.projects.ams.exceptions.InvestmentOperationException;
 import kz.projects.ams.exceptions.UnauthorizedException;
 import kz.projects.ams.exceptions.UserAccountNotFoundException;
-import kz.projects.ams.models.Account;
-import kz.projects.ams.repositories.AccountRepository;
+import kz.projects.ams.ledger.LedgerEngine;
+import kz.projects.ams.security.CurrentUser;
 import kz.projects.ams.services.NotificationEventProducer;
 import kz.projects.ams.services.TransactionService;
 import kz.projects.ams.services.UserInvestmentService;
@@ -16,18 +18,34 @@ import kz.projects.ams.services.UserService;
 import kz.projects.commonlib.dto.BalanceCheckRequest;
 import kz.projects.commonlib.dto.BalanceCheckResponse;
 import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.dto.notification.InvestmentDeleted;
+import kz.projects.commonlib.dto.notification.InvestmentPlaced;
+import kz.projects.commonlib.dto.notification.NotificationPayload;
+import kz.projects.commonlib.money.Money;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Реализация {@link UserInvestmentService} для управления инвестициями пользователей.
  * Сервис взаимодействует с внешним сервисом для обработки инвестиционных запросов через {@link WebClient}.
+ * Счета и балансы для проверок читаются через {@link AccountCache}.
+ * <p>
+ * Запросы к сервису инвестиций не блокируют поток запроса: методы возвращают {@link Mono}, а ожидание ответа
+ * не занимает потоков. Текущий пользователь и проверки доступа вычисляются до подписки, на потоке запроса.
+ * Блокирующая работа после ответа (списание со счета, запись в outbox) выполняется на
+ * {@link Schedulers#boundedElastic()} с контекстом безопасности вызывающего потока. Изменяющие операции
+ * доводятся до конца, даже если клиент отменил запрос.
  */
 @Service
 @RequiredArgsConstructor
@@ -36,8 +54,9 @@ public class UserInvestmentServiceImpl implements UserInvestmentService {
   private final WebClient.Builder webClientBuilder;
   private final UserService userService;
   private final TransactionService transactionService;
-  private final AccountRepository accountRepository;
+  private final AccountCache accountCache;
   private final NotificationEventProducer notificationEventProducer;
+  private final LedgerEngine ledgerEngine;
 
   private static final String INVESTMENTS_URI = "/investments";
   private static final String TOPIC_NAME = "topic-advisory";
@@ -52,20 +71,22 @@ public class UserInvestmentServiceImpl implements UserInvestmentService {
    * @throws InvestmentOperationException если произошла ошибка при обработке инвестиции
    */
   @Override
-  public InvestmentResponse toInvest(InvestmentRequest request) {
-    Account account = validateAccount(request.accountId());
-    validateAccountAccess(account);
-
-    InvestmentRequest investmentRequest = buildInvestmentRequest(request, account.getUser().getId());
-    InvestmentResponse response = performInvestment(investmentRequest);
-
-    withdrawForInvestment(request);
-
-    publishEvent("You have successfully invested " + response.amount() + " to " + response.investmentType()
-            + " from account with ID " + request.accountId()
-            + " at " + response.date());
-
-    return response;
+  public Mono<InvestmentResponse> toInvest(InvestmentRequest request) {
+    CurrentUser currentUser = userService.getCurrentUser();
+    AccountSnapshot account = validateAccount(request.accountId());
+    validateAccountAccess(account, currentUser);
+    SecurityContext securityContext = SecurityContextHolder.getContext();
+
+    InvestmentRequest investmentRequest = buildInvestmentRequest(request, account.userId());
+    return detached(performInvestment(investmentRequest)
+            .flatMap(response -> blocking(securityContext, () -> {
+              withdrawForInvestment(request);
+
+              publishEvent(currentUser, new InvestmentPlaced(response.id(), response.investmentType(),
+                      response.amount(), request.accountId(),
+                      response.date() == null ? System.currentTimeMillis() : response.date().getTime()));
+              return response;
+            })));
   }
 
   /**
@@ -75,9 +96,8 @@ public class UserInvestmentServiceImpl implements UserInvestmentService {
    * @throws InvestmentOperationException если произошла ошибка при удалении инвестиции
    */
   @Override
-  public void deleteInvestment(Long id) {
-    Long currentUserId = userService.getCurrentSessionUser().getId();
-    deleteUserInvestment(id, currentUserId);
+  public Mono<Void> deleteInvestment(Long id) {
+    return detached(deleteUserInvestment(id, userService.getCurrentUser(), SecurityContextHolder.getContext()));
   }
 
   /**
@@ -87,13 +107,13 @@ public class UserInvestmentServiceImpl implements UserInvestmentService {
    * @throws InvestmentOperationException если произошла ошибка при получении инвестиций
    */
   @Override
-  public List<InvestmentResponse> getAllUsersInvestments() {
-    Long currentUserId = userService.getCurrentSessionUser().getId();
-    return getUserInvestmentList(currentUserId);
+  public Mono<List<InvestmentResponse>> getAllUsersInvestments() {
+    return getUserInvestmentList(userService.getCurrentUser().id());
   }
 
   /**
-   * Проверяет баланс на указанном счете.
+   * Проверяет баланс на указанном счете. Баланс читается из леджера или базы данных, а не из кэша счетов:
+   * по результату проверки сервис инвестиций создает инвестицию до списания средств.
    *
    * @param request {@link BalanceCheckRequest} объект, содержащий данные для проверки баланса
    * @return {@link BalanceCheckResponse} объект, представляющий результат проверки баланса
@@ -101,22 +121,25 @@ public class UserInvestmentServiceImpl implements UserInvestmentService {
    */
   @Override
   public BalanceCheckResponse checkBalance(BalanceCheckRequest request) {
-    Account account = validateAccount(request.accountId());
+    long balance = ledgerEngine.isEnabled()
+            ? ledgerEngine.balanceOf(request.accountId())
+            : accountCache.findCurrent(request.accountId())
+                    .orElseThrow(() -> new UserAccountNotFoundException("Account not found"))
+                    .balance();
 
     return new BalanceCheckResponse(
-            account.getBalance() >= request.amount(),
-            account.getBalance()
+            Money.DEFAULT_CURRENCY.equals(request.amount().currency()) && balance >= request.amount().minorUnits(),
+            Money.ofMinor(balance)
     );
   }
 
-  private Account validateAccount(Long id) {
-    return accountRepository.findById(id)
+  private AccountSnapshot validateAccount(Long id) {
+    return accountCache.find(id)
             .orElseThrow(() -> new UserAccountNotFoundException("Account not found"));
   }
 
-  private void validateAccountAccess(Account account) {
-    Long currentUserId = userService.getCurrentSessionUser().getId();
-    if (!account.getUser().getId().equals(currentUserId)) {
+  private void validateAccountAccess(AccountSnapshot account, CurrentUser currentUser) {
+    if (!account.userId().equals(currentUser.id())) {
       throw new UnauthorizedException("You are not authorized to access this account");
     }
   }
@@ -131,66 +154,65 @@ public class UserInvestmentServiceImpl implements UserInvestmentService {
     );
   }
 
-  private InvestmentResponse performInvestment(InvestmentRequest request) {
-    try {
-      InvestmentResponse response = webClientBuilder.build()
-              .post()
-              .uri(INVESTMENTS_URI)
-              .bodyValue(request)
-              .retrieve()
-              .bodyToMono(InvestmentResponse.class)
-              .block();
-
-      if (response == null) {
-        throw new WebClientResponseException("Investment process failed", HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "", null, null, null);
-      }
-
-      return response;
-    } catch (WebClientResponseException e) {
-      throw new InvestmentOperationException("Failed to process investment", e);
-    }
+  private Mono<InvestmentResponse> performInvestment(InvestmentRequest request) {
+    return webClientBuilder.build()
+            .post()
+            .uri(INVESTMENTS_URI)
+            .bodyValue(request)
+            .retrieve()
+            .bodyToMono(InvestmentResponse.class)
+            .switchIfEmpty(Mono.error(() -> new InvestmentOperationException("Failed to process investment")))
+            .onErrorMap(WebClientResponseException.class,
+                    e -> new InvestmentOperationException("Failed to process investment", e));
   }
 
-  private void deleteUserInvestment(Long id, Long currentUserId) {
-    try {
-      webClientBuilder.build()
-              .delete()
-              .uri(uriBuilder -> uriBuilder
-                      .path(INVESTMENTS_URI + "/{id}")
-                      .queryParam("userId", currentUserId)
-                      .build(id))
-              .retrieve()
-              .toBodilessEntity()
-              .block();
-
-      publishEvent("You have successfully deleted your investment with ID " + id);
-    } catch (WebClientResponseException e) {
-      throw new InvestmentOperationException("Failed to delete the investment", e);
-    }
+  private Mono<Void> deleteUserInvestment(Long id, CurrentUser currentUser, SecurityContext securityContext) {
+    return webClientBuilder.build()
+            .delete()
+            .uri(uriBuilder -> uriBuilder
+                    .path(INVESTMENTS_URI + "/{id}")
+                    .queryParam("userId", currentUser.id())
+                    .build(id))
+            .retrieve()
+            .toBodilessEntity()
+            .onErrorMap(WebClientResponseException.class,
+                    e -> new InvestmentOperationException("Failed to delete the investment", e))
+            .flatMap(response -> blocking(securityContext, () -> {
+              publishEvent(currentUser, new InvestmentDeleted(id));
+              return response;
+            }))
+            .then();
   }
 
-  private List<InvestmentResponse> getUserInvestmentList(Long currentUserId) {
-    try {
-      List<InvestmentResponse> investments = webClientBuilder.build()
-              .get()
-              .uri(uriBuilder -> uriBuilder
-                      .path(INVESTMENTS_URI)
-                      .queryParam("userId", currentUserId)
-                      .build())
-              .retrieve()
-              .bodyToFlux(InvestmentResponse.class)
-              .collectList()
-              .block();
-
-      if (investments == null) {
-        throw new InvestmentOperationException("Failed to get investments");
-      }
-
-      return investments;
-    } catch (WebClientResponseException e) {
-      throw new InvestmentOperationException("Failed to get investments", e);
-    }
+  private Mono<List<InvestmentResponse>> getUserInvestmentList(Long currentUserId) {
+    return webClientBuilder.build()
+            .get()
+            .uri(uriBuilder -> uriBuilder
+                    .path(INVESTMENTS_URI)
+                    .queryParam("userId", currentUserId)
+                    .build())
+            .retrieve()
+            .bodyToFlux(InvestmentResponse.class)
+            .collectList()
+            .onErrorMap(WebClientResponseException.class,
+                    e -> new InvestmentOperationException("Failed to get investments", e));
+  }
+
+  /**
+   * Выполняет блокирующую работу на {@link Schedulers#boundedElastic()} с переданным контекстом безопасности,
+   * чтобы сервисы, читающие текущего пользователя, работали как на потоке запроса.
+   */
+  private <T> Mono<T> blocking(SecurityContext securityContext, Callable<T> action) {
+    return Mono.fromCallable(DelegatingSecurityContextCallable.create(action, securityContext))
+            .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Запускает операцию сразу и не отменяет ее при отмене подписки, чтобы инвестиция,
+   * уже созданная во внешнем сервисе, не осталась без списания со счета.
+   */
+  private <T> Mono<T> detached(Mono<T> operation) {
+    return Mono.fromFuture(operation.toFuture(), true);
   }
 
   private void withdrawForInvestment(InvestmentRequest request) {
@@ -205,12 +227,12 @@ public class UserInvestmentServiceImpl implements UserInvestmentService {
     }
   }
 
-  private void publishEvent(String message) {
+  private void publishEvent(CurrentUser currentUser, NotificationPayload payload) {
     NotificationEvent event = new NotificationEvent(
-            userService.getCurrentSessionUser().getId().toString(),
-            userService.getCurrentSessionUser().getName(),
-            userService.getCurrentSessionUser().getEmail(),
-            message,
+            currentUser.id().toString(),
+            currentUser.name(),
+            currentUser.email(),
+            payload,
             LocalDateTime.now().toString()
     );
 
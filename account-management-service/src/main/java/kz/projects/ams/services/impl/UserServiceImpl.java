@@ -4,11 +4,14 @@ import com.sun.jdi.InternalException;
 import kz.projects.ams.dto.AdviserDTO;
 import kz.projects.ams.dto.UserDTO;
 import kz.projects.ams.dto.requests.LoginRequest;
+import kz.projects.ams.dto.responses.TokenResponse;
 import kz.projects.ams.mapper.UserMapper;
 import kz.projects.ams.models.Permissions;
 import kz.projects.ams.models.User;
 import kz.projects.ams.repositories.PermissionsRepository;
 import kz.projects.ams.repositories.UserRepository;
+import kz.projects.ams.security.CurrentUser;
+import kz.projects.ams.security.TokenService;
 import kz.projects.ams.services.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -21,6 +24,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
@@ -40,8 +45,10 @@ public class UserServiceImpl implements UserService {
   private final CustomUserDetailsService userDetailsService;
   private final UserMapper userMapper;
   private final WebClient.Builder webClientBuilder;
+  private final TokenService tokenService;
 
   private static final String FINANCIAL_ADVISOR_URI = "/financial-advisors";
+  private static final String CURRENT_USER_ATTRIBUTE = UserServiceImpl.class.getName() + ".CURRENT_USER";
 
   /**
    * Регистрирует нового пользователя.
@@ -80,6 +87,24 @@ public class UserServiceImpl implements UserService {
     }
   }
 
+  /**
+   * Выпускает токен доступа для пользователя с указанными учетными данными.
+   * В отличие от {@link #login(LoginRequest)} не изменяет Security контекст и не создает сессию.
+   *
+   * @param request запрос на вход в систему
+   * @return {@link TokenResponse} с токеном доступа и сроком его действия в секундах
+   * @throws UsernameNotFoundException если пользователь с указанным email не найден
+   * @throws BadCredentialsException   если пароль неверен
+   */
+  @Override
+  public TokenResponse issueToken(LoginRequest request) {
+    UserDetails userDetails = userDetailsService.loadUserByUsername(request.email());
+    if (!passwordEncoder.matches(request.password(), userDetails.getPassword())) {
+      throw new BadCredentialsException("Invalid credentials");
+    }
+    return tokenService.issue((User) userDetails);
+  }
+
   /**
    * Регистрирует нового советника.
    * Проверяет наличие пользователя с указанным email, создает нового советника и отправляет запрос на внешний сервис.
@@ -117,6 +142,32 @@ public class UserServiceImpl implements UserService {
     return null;
   }
 
+  /**
+   * Получает данные текущего авторизованного пользователя.
+   * В рамках HTTP-запроса пользователь определяется один раз и сохраняется в атрибутах запроса,
+   * поэтому повторные вызовы из разных сервисов не обращаются к Security контексту.
+   *
+   * @return {@link CurrentUser} текущего пользователя, или {@code null}, если нет активной авторизации
+   */
+  @Override
+  public CurrentUser getCurrentUser() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null
+            && attributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof CurrentUser user) {
+      return user;
+    }
+
+    User user = getCurrentSessionUser();
+    if (user == null) {
+      return null;
+    }
+    CurrentUser currentUser = CurrentUser.of(user);
+    if (attributes != null) {
+      attributes.setAttribute(CURRENT_USER_ATTRIBUTE, currentUser, RequestAttributes.SCOPE_REQUEST);
+    }
+    return currentUser;
+  }
+
   private void checkIfUserExists(String email) {
     userRepository.findByEmail(email)
             .ifPresent(user -> {
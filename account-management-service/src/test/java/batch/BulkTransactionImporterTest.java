@@ -0,0 +1,130 @@
+package batch;
+
+import kz.projects.ams.batch.BatchOperation;
+import kz.projects.ams.batch.BatchResult;
+import kz.projects.ams.batch.BulkTransactionImporter;
+import kz.projects.ams.batch.TransactionBatchWriter;
+import kz.projects.ams.models.Account;
+import kz.projects.ams.models.Transaction;
+import kz.projects.ams.models.enums.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkTransactionImporterTest {
+
+  @Mock
+  private TransactionBatchWriter transactionBatchWriter;
+
+  private BulkTransactionImporter bulkTransactionImporter;
+
+  @BeforeEach
+  public void setUp() {
+    bulkTransactionImporter = new BulkTransactionImporter(transactionBatchWriter);
+    ReflectionTestUtils.setField(bulkTransactionImporter, "chunkSize", 2);
+    ReflectionTestUtils.setField(bulkTransactionImporter, "maxRows", 100);
+    ReflectionTestUtils.setField(bulkTransactionImporter, "writerThreads", 2);
+    bulkTransactionImporter.start();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    bulkTransactionImporter.stop();
+  }
+
+  @Test
+  public void testImportAll_KeepsRowOrderAcrossChunks() {
+    when(transactionBatchWriter.writeAll(anyList())).thenAnswer(invocation -> invocation.<List<BatchOperation>>getArgument(0)
+            .stream()
+            .map(operation -> new BatchResult(transaction(operation), null))
+            .toList());
+
+    List<BatchResult> results = bulkTransactionImporter.importAll(operations(1, 2, -1, 3, 4, 5));
+
+    assertEquals(6, results.size());
+    assertEquals(List.of(1L, 2L), List.of(results.get(0).transaction().getAccount().getId(),
+            results.get(1).transaction().getAccount().getId()));
+    assertInstanceOf(IllegalArgumentException.class, results.get(2).failure());
+    assertEquals(List.of(3L, 4L, 5L), IntStream.range(3, 6)
+            .mapToObj(i -> results.get(i).transaction().getAccount().getId())
+            .toList());
+    verify(transactionBatchWriter, times(3)).writeAll(anyList());
+  }
+
+  @Test
+  public void testImportAll_RejectsChunkOnWriteFailure() {
+    DataAccessResourceFailureException failure = new DataAccessResourceFailureException("Connection lost");
+    when(transactionBatchWriter.writeAll(anyList())).thenThrow(failure);
+
+    List<BatchResult> results = bulkTransactionImporter.importAll(operations(1, 2, 3));
+
+    assertEquals(3, results.size());
+    results.forEach(result -> {
+      assertNull(result.transaction());
+      assertEquals(failure, result.failure());
+    });
+  }
+
+  @Test
+  public void testImportAll_StopsAtMaxRows() {
+    ReflectionTestUtils.setField(bulkTransactionImporter, "maxRows", 2);
+    when(transactionBatchWriter.writeAll(anyList())).thenAnswer(invocation -> invocation.<List<BatchOperation>>getArgument(0)
+            .stream()
+            .map(operation -> new BatchResult(transaction(operation), null))
+            .toList());
+    Iterator<BatchOperation> operations = operations(1, 2, 3);
+
+    List<BatchResult> results = bulkTransactionImporter.importAll(operations);
+
+    assertEquals(2, results.size());
+    assertEquals(3L, operations.next().accountId());
+  }
+
+  /**
+   * Операции по счетам с указанными идентификаторами; отрицательный идентификатор означает строку с ошибкой.
+   */
+  private Iterator<BatchOperation> operations(long... accountIds) {
+    Iterator<Long> ids = Arrays.stream(accountIds).boxed().iterator();
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return ids.hasNext();
+      }
+
+      @Override
+      public BatchOperation next() {
+        long accountId = ids.next();
+        if (accountId < 0) {
+          throw new IllegalArgumentException("Invalid row");
+        }
+        return new BatchOperation(TransactionType.DEPOSIT, accountId, null, 1_00L, 10L, null);
+      }
+    };
+  }
+
+  private Transaction transaction(BatchOperation operation) {
+    Account account = new Account();
+    account.setId(operation.accountId());
+    return new Transaction(operation.accountId(), account, operation.type(), operation.amount(), null, new Date());
+  }
+}
@@ -0,0 +1,74 @@
+package batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.ams.batch.BulkTransactionReader;
+import kz.projects.ams.dto.requests.BulkTransactionRow;
+import kz.projects.ams.exceptions.InvalidBulkImportException;
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.commonlib.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BulkTransactionReaderTest {
+
+  @Test
+  public void testCsv() {
+    Iterator<BulkTransactionRow> rows = BulkTransactionReader.csv(body("""
+            type,accountId,toAccount,amount
+            DEPOSIT,1,,100.50
+
+            transfer,1,2,40
+            WITHDRAWAL,x,,1
+            """));
+
+    assertEquals(new BulkTransactionRow(TransactionType.DEPOSIT, 1L, null, Money.of("100.50")), rows.next());
+    assertEquals(new BulkTransactionRow(TransactionType.TRANSFER, 1L, 2L, Money.of("40")), rows.next());
+    assertThrows(IllegalArgumentException.class, rows::next);
+    assertFalse(rows.hasNext());
+  }
+
+  @Test
+  public void testJson() {
+    Iterator<BulkTransactionRow> rows = BulkTransactionReader.json(body("""
+            [
+              {"type": "DEPOSIT", "accountId": 1, "amount": 100.50},
+              {"type": "UNKNOWN", "accountId": 1, "amount": 1},
+              {"type": "TRANSFER", "accountId": 1, "toAccount": 2, "amount": {"amount": 40, "currency": "KZT"}}
+            ]
+            """), new ObjectMapper());
+
+    assertEquals(new BulkTransactionRow(TransactionType.DEPOSIT, 1L, null, Money.of("100.50")), rows.next());
+    assertThrows(IllegalArgumentException.class, rows::next);
+    assertEquals(new BulkTransactionRow(TransactionType.TRANSFER, 1L, 2L, Money.of("40")), rows.next());
+    assertFalse(rows.hasNext());
+  }
+
+  @Test
+  public void testJson_Truncated() {
+    Iterator<BulkTransactionRow> rows = BulkTransactionReader.json(body("""
+            [{"type": "DEPOSIT", "accountId": 1, "amount": 1}, {"type": "DEP
+            """), new ObjectMapper());
+
+    rows.next();
+    assertThrows(IllegalArgumentException.class, rows::next);
+    assertFalse(rows.hasNext());
+  }
+
+  @Test
+  public void testJson_NotAnArray() {
+    assertThrows(InvalidBulkImportException.class,
+            () -> BulkTransactionReader.json(body("{\"type\": \"DEPOSIT\"}"), new ObjectMapper()));
+  }
+
+  private InputStream body(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,154 @@
+package batch;
+
+import kz.projects.ams.batch.BatchOperation;
+import kz.projects.ams.batch.TransactionBatchWriter;
+import kz.projects.ams.exceptions.InsufficientFundsException;
+import kz.projects.ams.exceptions.UnauthorizedException;
+import kz.projects.ams.exceptions.UserAccountNotFoundException;
+import kz.projects.ams.models.Account;
+import kz.projects.ams.models.Transaction;
+import kz.projects.ams.models.User;
+import kz.projects.ams.models.enums.AccountType;
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.ams.outbox.TransactionEventPublisher;
+import kz.projects.ams.repositories.AccountBalanceSnapshotJdbcRepository;
+import kz.projects.ams.repositories.AccountJdbcRepository;
+import kz.projects.ams.repositories.TransactionIdAllocator;
+import kz.projects.ams.repositories.TransactionJdbcRepository;
+import kz.projects.ams.security.CurrentUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionBatchWriterTest {
+
+  private static final CurrentUser RECIPIENT = new CurrentUser(10L, "Test User", "test@example.com", List.of());
+
+  @Mock
+  private AccountJdbcRepository accountJdbcRepository;
+
+  @Mock
+  private TransactionJdbcRepository transactionJdbcRepository;
+
+  @Mock
+  private AccountBalanceSnapshotJdbcRepository snapshotJdbcRepository;
+
+  @Mock
+  private TransactionIdAllocator transactionIdAllocator;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @Mock
+  private TransactionEventPublisher transactionEventPublisher;
+
+  private TransactionBatchWriter transactionBatchWriter;
+
+  @BeforeEach
+  public void setUp() {
+    AtomicLong transactionIds = new AtomicLong();
+    lenient().when(transactionIdAllocator.next()).thenAnswer(invocation -> transactionIds.incrementAndGet());
+    when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    when(accountJdbcRepository.lockAll(anyCollection())).thenAnswer(invocation -> {
+      Map<Long, Account> accounts = new HashMap<>();
+      accounts.put(1L, account(1L, 10L, 100_00L));
+      accounts.put(2L, account(2L, 20L, 0_00L));
+      return accounts;
+    });
+
+    transactionBatchWriter = new TransactionBatchWriter(accountJdbcRepository, transactionJdbcRepository,
+            snapshotJdbcRepository, transactionIdAllocator, transactionTemplate, transactionEventPublisher);
+    ReflectionTestUtils.setField(transactionBatchWriter, "enabled", true);
+    ReflectionTestUtils.setField(transactionBatchWriter, "windowMs", 1L);
+    ReflectionTestUtils.setField(transactionBatchWriter, "maxBatchSize", 16);
+    ReflectionTestUtils.setField(transactionBatchWriter, "queueCapacity", 16);
+    transactionBatchWriter.start();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    transactionBatchWriter.stop();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSubmit_Transfer() {
+    Transaction transaction = transactionBatchWriter.submit(
+            new BatchOperation(TransactionType.TRANSFER, 1L, 2L, 40_00L, 10L, null));
+
+    assertEquals(1L, transaction.getId());
+    assertEquals(1L, transaction.getAccount().getId());
+    assertEquals(TransactionType.TRANSFER, transaction.getType());
+
+    ArgumentCaptor<Map<Long, Long>> deltas = ArgumentCaptor.forClass(Map.class);
+    verify(accountJdbcRepository).addToBalances(deltas.capture());
+    assertEquals(Map.of(1L, -40_00L, 2L, 40_00L), deltas.getValue());
+    verify(transactionJdbcRepository).insertAll(List.of(transaction));
+    verify(snapshotJdbcRepository).recordAll(Map.of(1L, transaction.getDate(), 2L, transaction.getDate()));
+  }
+
+  @Test
+  public void testSubmit_InsufficientFunds() {
+    assertThrows(InsufficientFundsException.class, () -> transactionBatchWriter.submit(
+            new BatchOperation(TransactionType.WITHDRAWAL, 2L, null, 1_00L, 20L, RECIPIENT)));
+
+    verify(transactionJdbcRepository, never()).insertAll(any());
+    verify(transactionEventPublisher, never()).publish(any(), any());
+  }
+
+  @Test
+  public void testSubmit_Unauthorized() {
+    assertThrows(UnauthorizedException.class, () -> transactionBatchWriter.submit(
+            new BatchOperation(TransactionType.DEPOSIT, 1L, null, 1_00L, 20L, null)));
+  }
+
+  @Test
+  public void testSubmit_AccountNotFound() {
+    assertThrows(UserAccountNotFoundException.class, () -> transactionBatchWriter.submit(
+            new BatchOperation(TransactionType.DEPOSIT, 3L, null, 1_00L, 10L, null)));
+  }
+
+  @Test
+  public void testSubmit_PublishesEventInBatchTransaction() {
+    Transaction transaction = transactionBatchWriter.submit(
+            new BatchOperation(TransactionType.DEPOSIT, 1L, null, 5_00L, 10L, RECIPIENT));
+
+    verify(transactionEventPublisher).publish(RECIPIENT, transaction);
+    verify(transactionTemplate).execute(any());
+  }
+
+  private Account account(Long id, Long userId, long balance) {
+    User user = new User();
+    user.setId(userId);
+
+    Account account = new Account();
+    account.setId(id);
+    account.setUser(user);
+    account.setAccountType(AccountType.SAVINGS);
+    account.setBalance(balance);
+    return account;
+  }
+}
@@ -0,0 +1,107 @@
+package cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import kz.projects.ams.cache.AccountCache;
+import kz.projects.ams.cache.AccountSnapshot;
+import kz.projects.ams.config.CacheConfig;
+import kz.projects.ams.models.Account;
+import kz.projects.ams.models.User;
+import kz.projects.ams.models.enums.AccountType;
+import kz.projects.ams.repositories.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AccountCacheTest {
+
+  private final AccountRepository accountRepository = mock(AccountRepository.class);
+
+  private AnnotationConfigApplicationContext context;
+
+  private AccountCache accountCache;
+
+  @BeforeEach
+  public void setUp() {
+    context = new AnnotationConfigApplicationContext();
+    context.registerBean(AccountRepository.class, () -> accountRepository);
+    context.register(CacheConfig.class, AccountCache.class);
+    context.refresh();
+    accountCache = context.getBean(AccountCache.class);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    context.close();
+  }
+
+  @Test
+  public void testFind_ServedFromCacheUntilEvicted() {
+    when(accountRepository.findById(1L))
+            .thenReturn(Optional.of(account(100_00L)))
+            .thenReturn(Optional.of(account(60_00L)));
+
+    assertEquals(100_00L, accountCache.find(1L).map(AccountSnapshot::balance).orElseThrow());
+    assertEquals(100_00L, accountCache.find(1L).map(AccountSnapshot::balance).orElseThrow());
+    verify(accountRepository, times(1)).findById(1L);
+
+    accountCache.evict(1L);
+
+    assertEquals(60_00L, accountCache.find(1L).map(AccountSnapshot::balance).orElseThrow());
+    verify(accountRepository, times(2)).findById(1L);
+
+    CacheStats stats = stats();
+    assertEquals(1, stats.hitCount());
+    assertEquals(2, stats.missCount());
+  }
+
+  @Test
+  public void testFind_MissingAccountIsNotCached() {
+    when(accountRepository.findById(2L)).thenReturn(Optional.empty());
+
+    assertEquals(Optional.empty(), accountCache.find(2L));
+    assertEquals(Optional.empty(), accountCache.find(2L));
+
+    verify(accountRepository, times(2)).findById(2L);
+  }
+
+  @Test
+  public void testFindCurrent_BypassesCache() {
+    when(accountRepository.findById(1L))
+            .thenReturn(Optional.of(account(100_00L)))
+            .thenReturn(Optional.of(account(60_00L)));
+
+    assertEquals(100_00L, accountCache.find(1L).map(AccountSnapshot::balance).orElseThrow());
+    assertEquals(60_00L, accountCache.findCurrent(1L).map(AccountSnapshot::balance).orElseThrow());
+    assertEquals(100_00L, accountCache.find(1L).map(AccountSnapshot::balance).orElseThrow());
+  }
+
+  private CacheStats stats() {
+    TransactionAwareCacheDecorator cache = (TransactionAwareCacheDecorator) context.getBean(CacheManager.class)
+            .getCache(AccountCache.ACCOUNTS);
+    return ((CaffeineCache) cache.getTargetCache()).getNativeCache().stats();
+  }
+
+  private Account account(long balance) {
+    User user = new User();
+    user.setId(10L);
+
+    Account account = new Account();
+    account.setId(1L);
+    account.setUser(user);
+    account.setAccountType(AccountType.SAVINGS);
+    account.setBalance(balance);
+    return account;
+  }
+}
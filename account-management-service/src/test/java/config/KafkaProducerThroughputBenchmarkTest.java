@@ -0,0 +1,91 @@
+package config;
+
+import kz.projects.ams.config.KafkaProducerConfig;
+import kz.projects.commonlib.dto.NotificationEvent;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of notification events on {@code topic-transactions} with the original producer settings
+ * and with the throughput profile from {@link KafkaProducerConfig}, in JSON and in the binary format.
+ * Needs a running broker:
+ * {@code mvn test -Dtest=KafkaProducerThroughputBenchmarkTest -Dams.benchmark.kafka.bootstrap=localhost:29092}
+ */
+@EnabledIfSystemProperty(named = "ams.benchmark.kafka.bootstrap", matches = ".+")
+public class KafkaProducerThroughputBenchmarkTest {
+  private static final String TOPIC = "topic-transactions";
+  private static final int EVENTS = Integer.getInteger("ams.benchmark.kafka.events", 200_000);
+  private static final int USERS = 1_000;
+
+  @Test
+  public void compareProducerProfiles() throws Exception {
+    String bootstrap = System.getProperty("ams.benchmark.kafka.bootstrap");
+
+    Map<String, Object> baseline = new HashMap<>();
+    baseline.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+    baseline.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    baseline.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+
+    KafkaProducerConfig config = new KafkaProducerConfig();
+    ReflectionTestUtils.setField(config, "bootstrapAddress", bootstrap);
+    ReflectionTestUtils.setField(config, "format", "json");
+    ReflectionTestUtils.setField(config, "lingerMs", 10);
+    ReflectionTestUtils.setField(config, "batchSize", 65536);
+    ReflectionTestUtils.setField(config, "compressionType", "lz4");
+    ReflectionTestUtils.setField(config, "acks", "all");
+    ReflectionTestUtils.setField(config, "enableIdempotence", true);
+    ReflectionTestUtils.setField(config, "maxInFlight", 5);
+
+    run("baseline", baseline, false);
+    run("throughput", config.producerProperties(), true);
+
+    ReflectionTestUtils.setField(config, "format", "binary");
+    run("binary", config.producerProperties(), true);
+  }
+
+  private void run(String profile, Map<String, Object> properties, boolean keyed) throws Exception {
+    DefaultKafkaProducerFactory<String, NotificationEvent> factory = new DefaultKafkaProducerFactory<>(properties);
+    try {
+      KafkaTemplate<String, NotificationEvent> template = new KafkaTemplate<>(factory);
+      send(template, Math.min(EVENTS, 10_000), keyed);
+
+      long start = System.nanoTime();
+      int acknowledged = send(template, EVENTS, keyed);
+      double seconds = (System.nanoTime() - start) / 1e9;
+
+      assertEquals(EVENTS, acknowledged);
+      System.out.printf("%-10s %,d events in %.2f s: %,.0f events/sec%n", profile, EVENTS, seconds, EVENTS / seconds);
+    } finally {
+      factory.destroy();
+    }
+  }
+
+  private int send(KafkaTemplate<String, NotificationEvent> template, int events, boolean keyed) throws Exception {
+    @SuppressWarnings("unchecked")
+    CompletableFuture<SendResult<String, NotificationEvent>>[] futures = new CompletableFuture[events];
+    for (int i = 0; i < events; i++) {
+      String userId = Integer.toString(i % USERS);
+      NotificationEvent event = new NotificationEvent(userId, "user" + userId, "user" + userId + "@example.com",
+              "Operation went successfully! \nOperation: deposit\nAmount: 100.00\nAccount ID: " + i + "\n",
+              LocalDateTime.now().toString());
+      futures[i] = keyed ? template.send(TOPIC, userId, event) : template.send(TOPIC, event);
+    }
+    CompletableFuture.allOf(futures).get(5, TimeUnit.MINUTES);
+    return futures.length;
+  }
+}
@@ -0,0 +1,92 @@
+package config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Highest number of concurrent requests the running service sustains, for comparing platform and virtual
+ * threads at the same heap. Start the service twice with the same {@code -Xmx}, once with
+ * {@code spring.threads.virtual.enabled=false} and once on Java 21 with {@code -Pjava21}, and run against each:
+ * {@code mvn test -Dtest=VirtualThreadLoadBenchmarkTest -Dams.benchmark.http.url=http://localhost:8091/api/v1/ams/accounts
+ * -Dams.benchmark.http.token=<jwt>}
+ * <p>
+ * A concurrency level counts as sustained while less than 1% of its requests fail or time out.
+ */
+@EnabledIfSystemProperty(named = "ams.benchmark.http.url", matches = ".+")
+public class VirtualThreadLoadBenchmarkTest {
+  private static final int MAX_CONCURRENCY = Integer.getInteger("ams.benchmark.http.max-concurrency", 6_400);
+  private static final Duration LEVEL_DURATION = Duration.ofSeconds(Long.getLong("ams.benchmark.http.level-seconds", 10));
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+  private static final double MAX_ERROR_RATE = 0.01;
+
+  @Test
+  public void findSustainedConcurrency() throws Exception {
+    URI uri = URI.create(System.getProperty("ams.benchmark.http.url"));
+    String token = System.getProperty("ams.benchmark.http.token");
+
+    HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET();
+    if (token != null) {
+      builder.header("Authorization", "Bearer " + token);
+    }
+    HttpRequest request = builder.build();
+    HttpClient client = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+
+    run(client, request, 50);
+
+    int sustained = 0;
+    for (int concurrency = 100; concurrency <= MAX_CONCURRENCY; concurrency *= 2) {
+      if (!run(client, request, concurrency)) {
+        break;
+      }
+      sustained = concurrency;
+    }
+    System.out.printf("sustained concurrency: %,d%n", sustained);
+  }
+
+  private boolean run(HttpClient client, HttpRequest request, int concurrency) throws InterruptedException {
+    Semaphore inFlight = new Semaphore(concurrency);
+    AtomicInteger errors = new AtomicInteger();
+    List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+    long deadline = System.nanoTime() + LEVEL_DURATION.toNanos();
+    while (System.nanoTime() < deadline) {
+      inFlight.acquire();
+      long start = System.nanoTime();
+      client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+              .whenComplete((response, error) -> {
+                if (error != null || response.statusCode() >= 500) {
+                  errors.incrementAndGet();
+                } else {
+                  latencies.add(System.nanoTime() - start);
+                }
+                inFlight.release();
+              });
+    }
+    inFlight.tryAcquire(concurrency, REQUEST_TIMEOUT.toMillis() * 2, TimeUnit.MILLISECONDS);
+
+    List<Long> sorted;
+    synchronized (latencies) {
+      sorted = new ArrayList<>(latencies);
+    }
+    Collections.sort(sorted);
+    int total = sorted.size() + errors.get();
+    double errorRate = total == 0 ? 1 : (double) errors.get() / total;
+    double p99 = sorted.isEmpty() ? 0 : sorted.get((int) (sorted.size() * 0.99)) / 1e6;
+
+    System.out.printf("%,6d concurrent: %,d requests, %.2f%% errors, p99 %.1f ms%n",
+            concurrency, total, errorRate * 100, p99);
+    return errorRate < MAX_ERROR_RATE;
+  }
+}
@@ -0,0 +1,147 @@
+package idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.ams.dto.TransactionDTO;
+import kz.projects.ams.dto.requests.TransactionRequest;
+import kz.projects.ams.exceptions.IdempotencyConflictException;
+import kz.projects.ams.exceptions.InsufficientFundsException;
+import kz.projects.ams.idempotency.CaffeineIdempotencyStore;
+import kz.projects.ams.idempotency.IdempotencyService;
+import kz.projects.ams.models.User;
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.ams.security.CurrentUser;
+import kz.projects.ams.services.UserService;
+import kz.projects.commonlib.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+
+  @Mock
+  private UserService userService;
+
+  private CaffeineIdempotencyStore store;
+
+  private IdempotencyService idempotencyService;
+
+  @BeforeEach
+  public void setUp() {
+    User user = new User();
+    user.setId(1L);
+    lenient().when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
+
+    store = new CaffeineIdempotencyStore();
+    ReflectionTestUtils.setField(store, "ttlSeconds", 60L);
+    ReflectionTestUtils.setField(store, "leaseSeconds", 60L);
+    ReflectionTestUtils.setField(store, "maximumSize", 100L);
+    store.start();
+
+    idempotencyService = new IdempotencyService(store, userService, new ObjectMapper());
+  }
+
+  @Test
+  public void testExecute_ReplaysStoredResponse() {
+    TransactionRequest request = new TransactionRequest(1L, Money.of("100.00"));
+    AtomicInteger invocations = new AtomicInteger();
+
+    TransactionDTO first = idempotencyService.execute("key-1", "deposit", request, TransactionDTO.class,
+            () -> deposit(invocations));
+    TransactionDTO second = idempotencyService.execute("key-1", "deposit", request, TransactionDTO.class,
+            () -> deposit(invocations));
+
+    assertEquals(1, invocations.get());
+    assertEquals(first, second);
+  }
+
+  @Test
+  public void testExecute_DifferentRequestWithSameKey() {
+    AtomicInteger invocations = new AtomicInteger();
+    idempotencyService.execute("key-1", "deposit", new TransactionRequest(1L, Money.of("100.00")),
+            TransactionDTO.class, () -> deposit(invocations));
+
+    assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute("key-1", "deposit",
+            new TransactionRequest(1L, Money.of("200.00")), TransactionDTO.class, () -> deposit(invocations)));
+    assertEquals(1, invocations.get());
+  }
+
+  @Test
+  public void testExecute_ReleasesKeyOnFailure() {
+    TransactionRequest request = new TransactionRequest(1L, Money.of("100.00"));
+    AtomicInteger invocations = new AtomicInteger();
+
+    assertThrows(InsufficientFundsException.class, () -> idempotencyService.execute("key-1", "withdraw", request,
+            TransactionDTO.class, () -> {
+              throw new InsufficientFundsException("Insufficient funds");
+            }));
+    idempotencyService.execute("key-1", "withdraw", request, TransactionDTO.class, () -> deposit(invocations));
+
+    assertEquals(1, invocations.get());
+  }
+
+  @Test
+  public void testExecute_ReclaimsAbandonedKey() {
+    TransactionRequest request = new TransactionRequest(1L, Money.of("100.00"));
+    AtomicInteger invocations = new AtomicInteger();
+    store.claim("1:key-1", fingerprintOf("deposit", request));
+
+    assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute("key-1", "deposit", request,
+            TransactionDTO.class, () -> deposit(invocations)));
+
+    ReflectionTestUtils.setField(store, "leaseSeconds", 0L);
+    idempotencyService.execute("key-1", "deposit", request, TransactionDTO.class, () -> deposit(invocations));
+    ReflectionTestUtils.setField(store, "leaseSeconds", 60L);
+    idempotencyService.execute("key-1", "deposit", request, TransactionDTO.class, () -> deposit(invocations));
+
+    assertEquals(1, invocations.get());
+  }
+
+  @Test
+  public void testExecute_WithoutKey() {
+    TransactionRequest request = new TransactionRequest(1L, Money.of("100.00"));
+    AtomicInteger invocations = new AtomicInteger();
+
+    idempotencyService.execute(null, "deposit", request, TransactionDTO.class, () -> deposit(invocations));
+    idempotencyService.execute(null, "deposit", request, TransactionDTO.class, () -> deposit(invocations));
+
+    assertEquals(2, invocations.get());
+  }
+
+  @Test
+  public void testExecuteAsync_ReplaysStoredResponseAndReleasesKeyOnFailure() {
+    TransactionRequest request = new TransactionRequest(1L, Money.of("100.00"));
+    AtomicInteger invocations = new AtomicInteger();
+
+    assertThrows(InsufficientFundsException.class, () -> idempotencyService.executeAsync("key-1", "withdraw",
+            request, TransactionDTO.class, () -> Mono.error(new InsufficientFundsException("Insufficient funds")))
+            .block());
+    TransactionDTO first = idempotencyService.executeAsync("key-1", "withdraw", request, TransactionDTO.class,
+            () -> Mono.fromSupplier(() -> deposit(invocations))).block();
+    TransactionDTO second = idempotencyService.executeAsync("key-1", "withdraw", request, TransactionDTO.class,
+            () -> Mono.fromSupplier(() -> deposit(invocations))).block();
+
+    assertEquals(1, invocations.get());
+    assertEquals(first, second);
+  }
+
+  private String fingerprintOf(String operation, Object request) {
+    return ReflectionTestUtils.invokeMethod(idempotencyService, "fingerprint", operation, request);
+  }
+
+  private TransactionDTO deposit(AtomicInteger invocations) {
+    return new TransactionDTO((long) invocations.incrementAndGet(), 1L, TransactionType.DEPOSIT,
+            Money.of("100.00"), new Date(1_700_000_000_000L));
+  }
+}
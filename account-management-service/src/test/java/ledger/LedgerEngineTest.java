@@ -0,0 +1,241 @@
+package ledger;
+
+import kz.projects.ams.exceptions.AccountBusyException;
+import kz.projects.ams.exceptions.InsufficientFundsException;
+import kz.projects.ams.exceptions.UserAccountNotFoundException;
+import kz.projects.ams.ledger.LedgerAccount;
+import kz.projects.ams.ledger.LedgerEngine;
+import kz.projects.ams.ledger.LedgerEntry;
+import kz.projects.ams.ledger.LedgerJournal;
+import kz.projects.ams.ledger.LedgerLease;
+import kz.projects.ams.ledger.LedgerStore;
+import kz.projects.ams.models.enums.AccountType;
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.ams.repositories.TransactionIdAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerEngineTest {
+
+  @Mock
+  private LedgerStore ledgerStore;
+
+  @Mock
+  private LedgerLease ledgerLease;
+
+  @Mock
+  private TransactionIdAllocator transactionIdAllocator;
+
+  @TempDir
+  private Path journalDirectory;
+
+  private LedgerEngine ledgerEngine;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    lenient().when(ledgerStore.load(1L))
+            .thenAnswer(invocation -> Optional.of(new LedgerAccount(1L, 10L, AccountType.EXPENSES, 1000_00L)));
+    lenient().when(ledgerStore.load(2L))
+            .thenAnswer(invocation -> Optional.of(new LedgerAccount(2L, 20L, AccountType.SAVINGS, 0_00L)));
+    lenient().when(ledgerStore.load(3L)).thenReturn(Optional.empty());
+    AtomicLong transactionIds = new AtomicLong();
+    lenient().when(transactionIdAllocator.next()).thenAnswer(invocation -> transactionIds.incrementAndGet());
+
+    ledgerEngine = new LedgerEngine(ledgerStore, ledgerLease, transactionIdAllocator);
+    ReflectionTestUtils.setField(ledgerEngine, "enabled", true);
+    ReflectionTestUtils.setField(ledgerEngine, "journalDirectory", journalDirectory.toString());
+    ReflectionTestUtils.setField(ledgerEngine, "segmentSize", 1024L);
+    ReflectionTestUtils.setField(ledgerEngine, "stripeCount", 8);
+    ReflectionTestUtils.setField(ledgerEngine, "flushBatchSize", 100);
+    ledgerEngine.start();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    ledgerEngine.stop();
+  }
+
+  @Test
+  public void testDepositWithdrawAndTransfer() {
+    LedgerAccount from = ledgerEngine.account(1L);
+    LedgerAccount to = ledgerEngine.account(2L);
+
+    ledgerEngine.deposit(from, 200_00L);
+    ledgerEngine.withdraw(from, 50_00L);
+    LedgerEntry transfer = ledgerEngine.transfer(from, to, 150_00L);
+
+    assertEquals(TransactionType.TRANSFER, transfer.type());
+    assertEquals(2L, transfer.counterpartyId());
+    assertEquals(1000_00L, ledgerEngine.balanceOf(1L));
+    assertEquals(150_00L, ledgerEngine.balanceOf(2L));
+    assertSame(from, ledgerEngine.account(1L));
+  }
+
+  @Test
+  public void testTransfer_ToSameAccountKeepsBalance() {
+    LedgerAccount account = ledgerEngine.account(1L);
+
+    ledgerEngine.transfer(account, account, 400_00L);
+
+    assertEquals(1000_00L, ledgerEngine.balanceOf(1L));
+    assertThrows(InsufficientFundsException.class, () -> ledgerEngine.withdraw(account, 1000_01L));
+  }
+
+  @Test
+  public void testWithdraw_InsufficientFunds() {
+    LedgerAccount account = ledgerEngine.account(2L);
+
+    assertThrows(InsufficientFundsException.class, () -> ledgerEngine.withdraw(account, 1_00L));
+    assertEquals(0_00L, ledgerEngine.balanceOf(2L));
+  }
+
+  @Test
+  public void testAccount_NotFound() {
+    assertThrows(UserAccountNotFoundException.class, () -> ledgerEngine.account(3L));
+  }
+
+  @Test
+  public void testConcurrentTransfers_PreserveTotalBalance() throws Exception {
+    LedgerAccount first = ledgerEngine.account(1L);
+    LedgerAccount second = ledgerEngine.account(2L);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 400; i++) {
+        boolean forward = i % 2 == 0;
+        futures.add(executor.submit(() -> {
+          try {
+            ledgerEngine.transfer(forward ? first : second, forward ? second : first, 1_00L);
+          } catch (InsufficientFundsException ignored) {
+            // Допустимо для обратного перевода с пустого счета
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(1000_00L, ledgerEngine.balanceOf(1L) + ledgerEngine.balanceOf(2L));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testFlush_AppliesEntriesInOrder() {
+    LedgerAccount account = ledgerEngine.account(1L);
+    ledgerEngine.deposit(account, 10_00L);
+    ledgerEngine.deposit(account, 20_00L);
+
+    ledgerEngine.flush();
+
+    ArgumentCaptor<List<LedgerEntry>> captor = ArgumentCaptor.forClass(List.class);
+    verify(ledgerStore).apply(captor.capture());
+    List<LedgerEntry> applied = captor.getValue();
+    assertEquals(2, applied.size());
+    assertEquals(applied.get(0).sequence() + 1, applied.get(1).sequence());
+    assertEquals(applied.get(0).transactionId() + 1, applied.get(1).transactionId());
+    assertEquals(20_00L, applied.get(1).amount());
+  }
+
+  @Test
+  public void testFence_RejectsOperationsOnStaleAccount() {
+    LedgerAccount account = ledgerEngine.account(1L);
+
+    ledgerEngine.fence(1L);
+
+    assertThrows(AccountBusyException.class, () -> ledgerEngine.deposit(account, 10_00L));
+    verify(ledgerStore, never()).apply(anyList());
+  }
+
+  @Test
+  public void testFence_FailsWhenEntriesAreNotFlushed() {
+    LedgerAccount account = ledgerEngine.account(1L);
+    ledgerEngine.deposit(account, 10_00L);
+    doThrow(new DataAccessResourceFailureException("database down")).doNothing().when(ledgerStore).apply(anyList());
+
+    assertThrows(AccountBusyException.class, () -> ledgerEngine.fence(1L));
+
+    assertSame(account, ledgerEngine.account(1L));
+    assertEquals(1010_00L, ledgerEngine.balanceOf(1L));
+    ledgerEngine.fence(1L);
+    verify(ledgerStore, times(2)).apply(anyList());
+  }
+
+  @Test
+  public void testRecover_AppliesUnflushedJournalEntries() throws Exception {
+    LedgerAccount account = ledgerEngine.account(1L);
+    ledgerEngine.deposit(account, 10_00L);
+    ledgerEngine.deposit(account, 20_00L);
+
+    List<LedgerEntry> journal = LedgerJournal.readAll(journalDirectory);
+    assertEquals(2, journal.size());
+
+    ledgerEngine = new LedgerEngine(ledgerStore, ledgerLease, transactionIdAllocator);
+    ReflectionTestUtils.setField(ledgerEngine, "enabled", true);
+    ReflectionTestUtils.setField(ledgerEngine, "journalDirectory", journalDirectory.toString());
+    ReflectionTestUtils.setField(ledgerEngine, "segmentSize", 1024L);
+    ReflectionTestUtils.setField(ledgerEngine, "stripeCount", 8);
+    ReflectionTestUtils.setField(ledgerEngine, "flushBatchSize", 100);
+    when(ledgerStore.lastAppliedSequence()).thenReturn(journal.get(0).sequence());
+
+    ledgerEngine.start();
+
+    verify(ledgerStore).apply(List.of(journal.get(1)));
+    assertEquals(List.of(), LedgerJournal.readAll(journalDirectory));
+  }
+
+  @Test
+  public void testJournal_KeepsNotificationFlag() throws Exception {
+    LedgerAccount account = ledgerEngine.account(1L);
+    ledgerEngine.deposit(account, 10_00L);
+    ledgerEngine.deposit(account, 20_00L, false);
+
+    List<LedgerEntry> journal = LedgerJournal.readAll(journalDirectory);
+    assertEquals(List.of(true, false), journal.stream().map(LedgerEntry::notifyOwner).toList());
+    assertEquals(List.of(TransactionType.DEPOSIT, TransactionType.DEPOSIT),
+            journal.stream().map(LedgerEntry::type).toList());
+  }
+
+  @Test
+  public void testStart_FailsWhenLeaseIsHeldByAnotherNode() {
+    LedgerEngine second = new LedgerEngine(ledgerStore, ledgerLease, transactionIdAllocator);
+    ReflectionTestUtils.setField(second, "enabled", true);
+    ReflectionTestUtils.setField(second, "journalDirectory", journalDirectory.toString());
+    doThrow(new IllegalStateException("Ledger is already running on another node")).when(ledgerLease).acquire();
+
+    assertThrows(IllegalStateException.class, second::start);
+    verify(ledgerStore, times(1)).lastAppliedSequence();
+  }
+}
@@ -0,0 +1,166 @@
+package outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.projects.ams.metrics.OutboxMetrics;
+import kz.projects.ams.outbox.NotificationOutboxRelay;
+import kz.projects.ams.outbox.OutboxEntry;
+import kz.projects.ams.outbox.OutboxJdbcRepository;
+import kz.projects.commonlib.dto.NotificationEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxRelayTest {
+
+  @Mock
+  private OutboxJdbcRepository outboxRepository;
+
+  @Mock
+  private KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private SimpleMeterRegistry registry;
+
+  private NotificationOutboxRelay relay;
+
+  @BeforeEach
+  public void setUp() {
+    when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    when(outboxRepository.backlog()).thenReturn(new OutboxJdbcRepository.OutboxBacklog(0, null));
+
+    registry = new SimpleMeterRegistry();
+    relay = new NotificationOutboxRelay(outboxRepository, kafkaTemplate, transactionTemplate, objectMapper,
+            new OutboxMetrics(registry));
+    ReflectionTestUtils.setField(relay, "batchSize", 10);
+    ReflectionTestUtils.setField(relay, "sendTimeoutMs", 1000L);
+  }
+
+  @Test
+  public void testRelay_SendsInOrderAndDeletesBatch() throws Exception {
+    when(outboxRepository.tryLock()).thenReturn(true);
+    when(outboxRepository.claimBatch(eq(10), anyLong())).thenReturn(List.of(entry(1L, "first"), entry(2L, "second")));
+    when(kafkaTemplate.send(eq("topic-transactions"), eq("1"), any(NotificationEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+    relay.relay();
+
+    ArgumentCaptor<NotificationEvent> events = ArgumentCaptor.forClass(NotificationEvent.class);
+    InOrder order = inOrder(kafkaTemplate, outboxRepository);
+    order.verify(kafkaTemplate, times(2)).send(eq("topic-transactions"), eq("1"), events.capture());
+    order.verify(outboxRepository).deleteAll(List.of(1L, 2L));
+    assertEquals(List.of("first", "second"), events.getAllValues().stream().map(NotificationEvent::getMessage).toList());
+    assertEquals(2.0, registry.get("ams.outbox.published").counter().count());
+  }
+
+  @Test
+  public void testRelay_KeepsEventsAfterFailedSend() throws Exception {
+    when(outboxRepository.tryLock()).thenReturn(true);
+    when(outboxRepository.claimBatch(eq(10), anyLong()))
+            .thenReturn(List.of(entry(1L, "first"), entry(2L, "second"), entry(3L, "third")));
+    when(kafkaTemplate.send(anyString(), anyString(), any(NotificationEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture(null))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+    relay.relay();
+
+    verify(outboxRepository).deleteAll(List.of(1L));
+    verify(outboxRepository).release(List.of(2L, 3L));
+    assertEquals(1.0, registry.get("ams.outbox.published").counter().count());
+    assertEquals(1.0, registry.get("ams.outbox.failures").counter().count());
+  }
+
+  @Test
+  public void testRelay_MarksUnreadableEventsAsFailed() throws Exception {
+    when(outboxRepository.tryLock()).thenReturn(true);
+    when(outboxRepository.claimBatch(eq(10), anyLong()))
+            .thenReturn(List.of(entry(1L, "first"), new OutboxEntry(2L, "topic-transactions", "{broken"),
+                    entry(3L, "third")));
+    when(kafkaTemplate.send(anyString(), anyString(), any(NotificationEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+    relay.relay();
+
+    verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any(NotificationEvent.class));
+    verify(outboxRepository).markFailed(List.of(2L));
+    verify(outboxRepository).deleteAll(List.of(1L, 3L));
+    assertEquals(1.0, registry.get("ams.outbox.unreadable").counter().count());
+    assertEquals(0.0, registry.get("ams.outbox.failures").counter().count());
+  }
+
+  @Test
+  public void testRelay_SendsWithoutOpenTransaction() throws Exception {
+    when(outboxRepository.tryLock()).thenReturn(true);
+    when(outboxRepository.claimBatch(eq(10), anyLong())).thenReturn(List.of(entry(1L, "first")));
+    when(kafkaTemplate.send(anyString(), anyString(), any(NotificationEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+    relay.relay();
+
+    InOrder order = inOrder(transactionTemplate, outboxRepository, kafkaTemplate);
+    order.verify(transactionTemplate).execute(any());
+    order.verify(outboxRepository).claimBatch(eq(10), anyLong());
+    order.verify(kafkaTemplate).send(anyString(), anyString(), any(NotificationEvent.class));
+    order.verify(transactionTemplate).execute(any());
+    order.verify(outboxRepository).deleteAll(List.of(1L));
+  }
+
+  @Test
+  public void testRelay_SkipsWhenAnotherNodeHoldsLock() {
+    when(outboxRepository.tryLock()).thenReturn(false);
+
+    relay.relay();
+
+    verify(outboxRepository, never()).claimBatch(anyInt(), anyLong());
+    verify(outboxRepository, never()).deleteAll(anyList());
+  }
+
+  @Test
+  public void testRelay_UpdatesBacklogGauges() {
+    when(outboxRepository.tryLock()).thenReturn(true);
+    when(outboxRepository.claimBatch(eq(10), anyLong())).thenReturn(List.of());
+    when(outboxRepository.backlog())
+            .thenReturn(new OutboxJdbcRepository.OutboxBacklog(7, System.currentTimeMillis() - 5_000));
+
+    relay.relay();
+
+    assertEquals(7.0, registry.get("ams.outbox.pending").gauge().value());
+    assertEquals(5.0, registry.get("ams.outbox.lag").gauge().value(), 1.0);
+  }
+
+  private OutboxEntry entry(long id, String message) throws Exception {
+    NotificationEvent event = new NotificationEvent("1", "user", "user@example.com", message, "now");
+    return new OutboxEntry(id, "topic-transactions", objectMapper.writeValueAsString(event));
+  }
+}
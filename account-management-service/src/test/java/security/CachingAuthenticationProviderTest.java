@@ -0,0 +1,98 @@
+package security;
+
+import kz.projects.ams.models.Permissions;
+import kz.projects.ams.models.User;
+import kz.projects.ams.security.CachingAuthenticationProvider;
+import kz.projects.ams.security.PrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingAuthenticationProviderTest {
+
+  @Mock
+  private AuthenticationProvider delegate;
+
+  private PrincipalCache principalCache;
+
+  private CachingAuthenticationProvider authenticationProvider;
+
+  private User user;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    principalCache = new PrincipalCache();
+    ReflectionTestUtils.setField(principalCache, "enabled", true);
+    ReflectionTestUtils.setField(principalCache, "ttlSeconds", 60L);
+    ReflectionTestUtils.setField(principalCache, "maximumSize", 100L);
+    principalCache.start();
+    authenticationProvider = new CachingAuthenticationProvider(delegate, principalCache);
+
+    user = new User();
+    user.setId(1L);
+    user.setEmail("user@example.com");
+    user.setPermissionList(List.of(new Permissions(1L, "ROLE_USER")));
+  }
+
+  @Test
+  public void testAuthenticate_CachedCredentialsSkipDelegate() {
+    when(delegate.authenticate(any())).thenReturn(authenticated());
+
+    authenticationProvider.authenticate(credentials("secret"));
+    Authentication result = authenticationProvider.authenticate(credentials("secret"));
+
+    verify(delegate, times(1)).authenticate(any());
+    assertTrue(result.isAuthenticated());
+    assertEquals(user, result.getPrincipal());
+    assertEquals(user.getAuthorities(), result.getAuthorities());
+  }
+
+  @Test
+  public void testAuthenticate_DifferentPasswordIsVerified() {
+    when(delegate.authenticate(any())).thenReturn(authenticated())
+            .thenThrow(new BadCredentialsException("Bad credentials"));
+
+    authenticationProvider.authenticate(credentials("secret"));
+
+    assertThrows(BadCredentialsException.class, () -> authenticationProvider.authenticate(credentials("guess")));
+    assertThrows(BadCredentialsException.class, () -> authenticationProvider.authenticate(credentials("guess")));
+    verify(delegate, times(3)).authenticate(any());
+  }
+
+  @Test
+  public void testAuthenticate_EvictedUserIsVerifiedAgain() {
+    when(delegate.authenticate(any())).thenReturn(authenticated());
+
+    authenticationProvider.authenticate(credentials("secret"));
+    principalCache.evict(user.getId());
+    authenticationProvider.authenticate(credentials("secret"));
+
+    verify(delegate, times(2)).authenticate(any());
+  }
+
+  private Authentication credentials(String password) {
+    return UsernamePasswordAuthenticationToken.unauthenticated(user.getEmail(), password);
+  }
+
+  private Authentication authenticated() {
+    return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+  }
+}
@@ -0,0 +1,93 @@
+package security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.ams.dto.responses.TokenResponse;
+import kz.projects.ams.models.Permissions;
+import kz.projects.ams.models.User;
+import kz.projects.ams.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenServiceTest {
+
+  private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+  private TokenService tokenService;
+
+  private User user;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    tokenService = tokenService(SECRET, 60L);
+
+    user = new User();
+    user.setId(1L);
+    user.setName("User");
+    user.setEmail("user@example.com");
+    user.setPermissionList(List.of(new Permissions(1L, "ROLE_USER")));
+  }
+
+  @Test
+  public void testVerify_IssuedToken() {
+    TokenResponse token = tokenService.issue(user);
+
+    User verified = tokenService.verify(token.accessToken()).orElseThrow();
+
+    assertEquals("Bearer", token.tokenType());
+    assertEquals(1L, verified.getId());
+    assertEquals("user@example.com", verified.getEmail());
+    assertEquals(List.of("ROLE_USER"), verified.getPermissionList().stream().map(Permissions::getRole).toList());
+  }
+
+  @Test
+  public void testVerify_TamperedToken() {
+    String token = tokenService.issue(user).accessToken();
+    String[] parts = token.split("\\.");
+    String payload = new String(Base64.getUrlDecoder().decode(parts[1])).replace("\"sub\":\"1\"", "\"sub\":\"2\"");
+    String tampered = parts[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes())
+            + "." + parts[2];
+
+    assertTrue(tokenService.verify(tampered).isEmpty());
+    assertTrue(tokenService.verify("not-a-token").isEmpty());
+  }
+
+  @Test
+  public void testVerify_ExpiredOrForeignToken() throws Exception {
+    String expired = tokenService(SECRET, -1L).issue(user).accessToken();
+    byte[] otherKey = new byte[32];
+    otherKey[0] = 1;
+    String foreign = tokenService(Base64.getEncoder().encodeToString(otherKey), 60L).issue(user).accessToken();
+
+    assertTrue(tokenService.verify(expired).isEmpty());
+    assertTrue(tokenService.verify(foreign).isEmpty());
+  }
+
+  @Test
+  public void testStart_TokenModeRequiresSecret() {
+    TokenService blank = new TokenService(new ObjectMapper());
+    ReflectionTestUtils.setField(blank, "authMode", "token");
+    ReflectionTestUtils.setField(blank, "secret", "");
+    TokenService shortSecret = new TokenService(new ObjectMapper());
+    ReflectionTestUtils.setField(shortSecret, "authMode", "token");
+    ReflectionTestUtils.setField(shortSecret, "secret", Base64.getEncoder().encodeToString(new byte[16]));
+
+    assertThrows(IllegalStateException.class, blank::start);
+    assertThrows(IllegalStateException.class, shortSecret::start);
+  }
+
+  private TokenService tokenService(String secret, long ttlSeconds) throws Exception {
+    TokenService service = new TokenService(new ObjectMapper());
+    ReflectionTestUtils.setField(service, "secret", secret);
+    ReflectionTestUtils.setField(service, "ttlSeconds", ttlSeconds);
+    service.start();
+    return service;
+  }
+}
@@ -1,16 +1,21 @@
 package services.impl;
 
+import kz.projects.ams.cache.AccountCache;
 import kz.projects.ams.dto.AccountDTO;
 import kz.projects.ams.exceptions.UnauthorizedException;
 import kz.projects.ams.exceptions.UserAccountNotFoundException;
+import kz.projects.ams.ledger.LedgerEngine;
 import kz.projects.ams.mapper.AccountMapper;
 import kz.projects.ams.models.Account;
 import kz.projects.ams.models.User;
 import kz.projects.ams.models.enums.AccountType;
+import kz.projects.ams.repositories.AccountBalanceSnapshotRepository;
 import kz.projects.ams.repositories.AccountRepository;
 import kz.projects.ams.services.NotificationEventProducer;
+import kz.projects.ams.security.CurrentUser;
 import kz.projects.ams.services.UserService;
 import kz.projects.ams.services.impl.AccountServiceImpl;
+import kz.projects.commonlib.money.Money;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -49,6 +54,15 @@ public class AccountServiceImplTest {
   @Mock
   private UserService userService;
 
+  @Mock
+  private LedgerEngine ledgerEngine;
+
+  @Mock
+  private AccountBalanceSnapshotRepository snapshotRepository;
+
+  @Mock
+  private AccountCache accountCache;
+
   @InjectMocks
   private AccountServiceImpl accountService;
 
@@ -70,14 +84,14 @@ public class AccountServiceImplTest {
             null,
             "test@example.com",
             AccountType.SAVINGS,
-            100.0
+            Money.of("100.00")
     );
 
     Account account = new Account();
     account.setId(1L);
     Mockito.when(accountMapper.toDto(Mockito.any(Account.class))).thenReturn(accountDTO);
     Mockito.when(accountRepository.save(Mockito.any(Account.class))).thenReturn(account);
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     AccountDTO createdAccount = accountService.createAccount(accountDTO);
 
@@ -91,7 +105,7 @@ public class AccountServiceImplTest {
   public void testFindAccountsByUserId() {
     User currentUser = new User();
     currentUser.setId(1L);
-    Mockito.lenient().when(accountRepository.findAllByUser(currentUser)).thenReturn(Collections.emptyList());
+    Mockito.lenient().when(accountRepository.findAllByUserId(currentUser.getId())).thenReturn(Collections.emptyList());
 
     List<AccountDTO> foundAccounts = accountService.findAccountsByUserId();
 
@@ -105,7 +119,7 @@ public class AccountServiceImplTest {
             null,
             null,
             AccountType.INCOME,
-            500.0
+            Money.of("500.00")
     );
 
     User currentUser = new User();
@@ -117,12 +131,12 @@ public class AccountServiceImplTest {
     existingAccount.setId(accountId);
     existingAccount.setUser(currentUser);
     existingAccount.setAccountType(AccountType.SAVINGS);
-    existingAccount.setBalance(300.0);
+    existingAccount.setBalance(300_00L);
 
     Mockito.when(accountRepository.findById(accountId)).thenReturn(Optional.of(existingAccount));
     Mockito.when(accountRepository.save(Mockito.any(Account.class))).thenReturn(existingAccount);
     Mockito.when(accountMapper.toDto(Mockito.any(Account.class))).thenReturn(request);
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     AccountDTO updatedAccount = accountService.updateAccount(accountId, request);
 
@@ -139,7 +153,7 @@ public class AccountServiceImplTest {
             nonExistentAccountId,
             "email",
             AccountType.INCOME,
-            500.0
+            Money.of("500.00")
     );
 
     Mockito.when(accountRepository.findById(nonExistentAccountId)).thenReturn(Optional.empty());
@@ -154,7 +168,7 @@ public class AccountServiceImplTest {
             null,
             "email",
             AccountType.INCOME,
-            500.0
+            Money.of("500.00")
     );
 
     User currentUser = new User();
@@ -168,10 +182,10 @@ public class AccountServiceImplTest {
     existingAccount.setId(accountId);
     existingAccount.setUser(accountUserId); // Mock different user ID than authenticated user
     existingAccount.setAccountType(AccountType.EXPENSES);
-    existingAccount.setBalance(300.0);
+    existingAccount.setBalance(300_00L);
 
     Mockito.when(accountRepository.findById(accountId)).thenReturn(Optional.of(existingAccount));
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     accountService.updateAccount(accountId, accountDTO);
   }
@@ -186,10 +200,10 @@ public class AccountServiceImplTest {
     existingAccount.setId(accountId);
     existingAccount.setUser(currentUser);
     existingAccount.setAccountType(AccountType.SAVINGS);
-    existingAccount.setBalance(100.0);
+    existingAccount.setBalance(100_00L);
 
     Mockito.when(accountRepository.findById(accountId)).thenReturn(Optional.of(existingAccount));
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     accountService.deleteAccount(accountId);
 
@@ -219,10 +233,10 @@ public class AccountServiceImplTest {
     existingAccount.setId(accountId);
     existingAccount.setUser(accountUserId);
     existingAccount.setAccountType(AccountType.SAVINGS);
-    existingAccount.setBalance(100.0);
+    existingAccount.setBalance(100_00L);
 
     Mockito.when(accountRepository.findById(accountId)).thenReturn(Optional.of(existingAccount));
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     accountService.deleteAccount(accountId);
   }
@@ -0,0 +1,133 @@
+package services.impl;
+
+import kz.projects.ams.dto.BalanceDTO;
+import kz.projects.ams.dto.BalancePointDTO;
+import kz.projects.ams.exceptions.BalanceHistoryUnavailableException;
+import kz.projects.ams.exceptions.UnauthorizedException;
+import kz.projects.ams.models.Account;
+import kz.projects.ams.models.AccountBalanceSnapshot;
+import kz.projects.ams.models.Transaction;
+import kz.projects.ams.models.User;
+import kz.projects.ams.models.enums.BalanceSnapshotType;
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.ams.repositories.AccountBalanceSnapshotRepository;
+import kz.projects.ams.repositories.AccountRepository;
+import kz.projects.ams.repositories.TransactionRepository;
+import kz.projects.ams.security.CurrentUser;
+import kz.projects.ams.services.UserService;
+import kz.projects.ams.services.impl.BalanceHistoryServiceImpl;
+import kz.projects.commonlib.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BalanceHistoryServiceImplTest {
+
+  @Mock
+  private AccountRepository accountRepository;
+
+  @Mock
+  private TransactionRepository transactionRepository;
+
+  @Mock
+  private AccountBalanceSnapshotRepository snapshotRepository;
+
+  @Mock
+  private UserService userService;
+
+  @InjectMocks
+  private BalanceHistoryServiceImpl balanceHistoryService;
+
+  private Account account;
+
+  @BeforeEach
+  public void setUp() {
+    User user = new User();
+    user.setId(1L);
+    account = new Account();
+    account.setId(10L);
+    account.setUser(user);
+
+    when(accountRepository.findById(10L)).thenReturn(Optional.of(account));
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
+  }
+
+  @Test
+  public void testGetBalanceAt_AddsChangesAfterSnapshot() {
+    Date at = new Date(5000L);
+    when(snapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDescIdDesc(10L, at))
+            .thenReturn(Optional.of(snapshot(BalanceSnapshotType.DAILY, 100_00L, new Date(1000L))));
+    when(transactionRepository.sumBalanceChange(10L, new Date(1000L), at)).thenReturn(-30_00L);
+
+    BalanceDTO balance = balanceHistoryService.getBalanceAt(10L, at);
+
+    assertEquals(Money.of("70.00"), balance.balance());
+    assertEquals(at, balance.at());
+  }
+
+  @Test
+  public void testGetBalanceAt_NoSnapshot() {
+    Date at = new Date(5000L);
+    when(snapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDescIdDesc(10L, at))
+            .thenReturn(Optional.empty());
+
+    assertThrows(BalanceHistoryUnavailableException.class, () -> balanceHistoryService.getBalanceAt(10L, at));
+  }
+
+  @Test
+  public void testGetBalanceAt_Unauthorized() {
+    User other = new User();
+    other.setId(2L);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(other));
+
+    assertThrows(UnauthorizedException.class, () -> balanceHistoryService.getBalanceAt(10L, new Date()));
+  }
+
+  @Test
+  public void testGetBalanceHistory_RunningBalanceWithRebase() {
+    Date from = new Date(1000L);
+    Date to = new Date(9000L);
+    when(snapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDescIdDesc(10L, from))
+            .thenReturn(Optional.of(snapshot(BalanceSnapshotType.DAILY, 100_00L, from)));
+    when(transactionRepository.sumBalanceChange(10L, from, from)).thenReturn(0L);
+
+    Account other = new Account();
+    other.setId(20L);
+    List<Transaction> transactions = List.of(
+            new Transaction(1L, account, TransactionType.WITHDRAWAL, 30_00L, null, new Date(2000L)),
+            new Transaction(2L, other, TransactionType.TRANSFER, 50_00L, 10L, new Date(3000L)),
+            new Transaction(3L, account, TransactionType.DEPOSIT, 5_00L, null, new Date(6000L)));
+    when(transactionRepository.findBalanceChanges(10L, from, to, Limit.of(100))).thenReturn(transactions);
+    when(snapshotRepository.findAllByAccountIdAndTypeAndAsOfGreaterThanAndAsOfLessThanEqualOrderByAsOfAscIdAsc(
+            10L, BalanceSnapshotType.REBASE, from, to))
+            .thenReturn(List.of(snapshot(BalanceSnapshotType.REBASE, 500_00L, new Date(4000L))));
+
+    List<BalancePointDTO> history = balanceHistoryService.getBalanceHistory(10L, from, to, 100);
+
+    assertEquals(List.of(Money.of("70.00"), Money.of("120.00"), Money.of("500.00"), Money.of("505.00")),
+            history.stream().map(BalancePointDTO::balance).toList());
+    assertEquals(Money.of("380.00"), history.get(2).change());
+    assertNull(history.get(2).transactionId());
+    assertEquals(3L, history.get(3).transactionId());
+  }
+
+  private AccountBalanceSnapshot snapshot(BalanceSnapshotType type, long balance, Date asOf) {
+    LocalDate snapshotDate = type == BalanceSnapshotType.DAILY ? LocalDate.now() : null;
+    return new AccountBalanceSnapshot(null, 10L, snapshotDate, type, balance, asOf);
+  }
+}
@@ -0,0 +1,113 @@
+package services.impl;
+
+import kz.projects.ams.dto.TransactionDTO;
+import kz.projects.ams.dto.requests.TransactionFilter;
+import kz.projects.ams.dto.responses.TransactionPageResponse;
+import kz.projects.ams.exceptions.InvalidCursorException;
+import kz.projects.ams.models.User;
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.ams.repositories.TransactionRepository;
+import kz.projects.ams.security.CurrentUser;
+import kz.projects.ams.services.UserService;
+import kz.projects.ams.services.impl.TransactionServiceImpl;
+import kz.projects.commonlib.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionServiceImplPagingTest {
+
+  @Mock
+  private TransactionRepository transactionRepository;
+
+  @Mock
+  private UserService userService;
+
+  @InjectMocks
+  private TransactionServiceImpl transactionService;
+
+  private final TransactionFilter noFilter = new TransactionFilter(null, null, null);
+
+  @BeforeEach
+  public void setUp() {
+    User currentUser = new User();
+    currentUser.setId(1L);
+    lenient().when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
+  }
+
+  @Test
+  public void testGetTransactionPage_ReturnsCursorForNextPage() {
+    List<TransactionDTO> rows = new ArrayList<>();
+    for (long id = 3; id >= 1; id--) {
+      rows.add(new TransactionDTO(id, 10L, TransactionType.DEPOSIT, Money.of("5.00"), new Date(1000L * id)));
+    }
+    when(transactionRepository.findPageByUserId(eq(1L), any(), any(), any(), any(), eq(Long.MAX_VALUE),
+            eq(Limit.of(3)))).thenReturn(rows);
+
+    TransactionPageResponse first = transactionService.getTransactionPage(noFilter, null, 2);
+
+    assertEquals(2, first.items().size());
+    assertNotNull(first.nextCursor());
+
+    when(transactionRepository.findPageByUserId(eq(1L), any(), any(), any(), eq(new Date(2000L)), eq(2L),
+            eq(Limit.of(3)))).thenReturn(List.of(rows.get(2)));
+
+    TransactionPageResponse second = transactionService.getTransactionPage(noFilter, first.nextCursor(), 2);
+
+    assertEquals(List.of(rows.get(2)), second.items());
+    assertNull(second.nextCursor());
+  }
+
+  @Test
+  public void testGetTransactionPage_InvalidCursor() {
+    assertThrows(InvalidCursorException.class,
+            () -> transactionService.getTransactionPage(noFilter, "not-a-cursor", 10));
+  }
+
+  @Test
+  public void testExportTransactions_UsesFilter() {
+    TransactionDTO transaction = new TransactionDTO(1L, 10L, TransactionType.WITHDRAWAL, Money.of("5.00"), new Date());
+    Date from = new Date(0L);
+    Date to = new Date();
+    when(transactionRepository.streamByUserId(1L, from, to, Set.of(TransactionType.WITHDRAWAL)))
+            .thenReturn(Stream.of(transaction));
+
+    List<TransactionDTO> exported = new ArrayList<>();
+    transactionService.exportTransactions(
+            new TransactionFilter(from, to, Set.of(TransactionType.WITHDRAWAL)), exported::add);
+
+    assertEquals(List.of(transaction), exported);
+  }
+
+  @Test
+  public void testExportTransactions_AllTypesByDefault() {
+    when(transactionRepository.streamByUserId(eq(1L), any(), any(), any())).thenReturn(Stream.empty());
+
+    transactionService.exportTransactions(noFilter, transaction -> {
+    });
+
+    verify(transactionRepository).streamByUserId(eq(1L), any(), any(), eq(EnumSet.allOf(TransactionType.class)));
+  }
+}
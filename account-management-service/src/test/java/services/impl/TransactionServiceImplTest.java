@@ -1,26 +1,38 @@
 package services.impl;
 
+import kz.projects.ams.batch.BulkTransactionImporter;
+import kz.projects.ams.batch.TransactionBatchWriter;
+import kz.projects.ams.cache.AccountCache;
 import kz.projects.ams.dto.TransactionDTO;
 import kz.projects.ams.dto.requests.TransactionRequest;
 import kz.projects.ams.dto.requests.TransferRequest;
 import kz.projects.ams.exceptions.UnauthorizedException;
 import kz.projects.ams.exceptions.UserAccountNotFoundException;
+import kz.projects.ams.ledger.LedgerEngine;
 import kz.projects.ams.mapper.TransactionMapper;
+import kz.projects.ams.metrics.TransferMetrics;
 import kz.projects.ams.models.Account;
 import kz.projects.ams.models.Transaction;
 import kz.projects.ams.models.User;
 import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.ams.repositories.AccountBalanceSnapshotJdbcRepository;
+import kz.projects.ams.repositories.AccountJdbcRepository;
 import kz.projects.ams.repositories.AccountRepository;
+import kz.projects.ams.repositories.TransactionIdAllocator;
+import kz.projects.ams.repositories.TransactionJdbcRepository;
 import kz.projects.ams.repositories.TransactionRepository;
 import kz.projects.ams.services.NotificationEventProducer;
+import kz.projects.ams.security.CurrentUser;
 import kz.projects.ams.services.UserService;
 import kz.projects.ams.services.impl.TransactionServiceImpl;
+import kz.projects.commonlib.money.Money;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collections;
 import java.util.Date;
@@ -39,6 +51,9 @@ public class TransactionServiceImplTest {
   @Mock
   private TransactionRepository transactionRepository;
 
+  @Mock
+  private AccountCache accountCache;
+
   @Mock
   private TransactionMapper transactionMapper;
 
@@ -48,12 +63,39 @@ public class TransactionServiceImplTest {
   @Mock
   private NotificationEventProducer notificationEventProducer;
 
+  @Mock
+  private LedgerEngine ledgerEngine;
+
+  @Mock
+  private TransactionBatchWriter transactionBatchWriter;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @Mock
+  private AccountBalanceSnapshotJdbcRepository snapshotJdbcRepository;
+
+  @Mock
+  private AccountJdbcRepository accountJdbcRepository;
+
+  @Mock
+  private TransactionJdbcRepository transactionJdbcRepository;
+
+  @Mock
+  private TransactionIdAllocator transactionIdAllocator;
+
+  @Mock
+  private TransferMetrics transferMetrics;
+
+  @Mock
+  private BulkTransactionImporter bulkTransactionImporter;
+
   @InjectMocks
   private TransactionServiceImpl transactionService;
 
   @Test
   public void testDeposit() {
-    TransactionRequest request = new TransactionRequest(1L, 100.0);
+    TransactionRequest request = new TransactionRequest(1L, Money.of("100.00"));
 
     User currentUser = new User();
     currentUser.setId(1L);
@@ -61,24 +103,24 @@ public class TransactionServiceImplTest {
     Account account = new Account();
     account.setId(1L);
     account.setUser(currentUser);
-    account.setBalance(500.0);
+    account.setBalance(500_00L);
 
     Transaction transaction = new Transaction();
     transaction.setAccount(account);
     transaction.setType(TransactionType.DEPOSIT);
-    transaction.setAmount(100.0);
+    transaction.setAmount(100_00L);
     transaction.setDate(new Date());
 
     TransactionDTO transactionDTO = new TransactionDTO(
             1L,
             1L,
             TransactionType.DEPOSIT,
-            100.0,
+            Money.of("100.00"),
             new Date()
     );
 
     Mockito.when(accountRepository.findById(request.accountId())).thenReturn(Optional.of(account));
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
     Mockito.when(transactionRepository.save(Mockito.any(Transaction.class))).thenReturn(transaction);
     Mockito.when(transactionMapper.toDto(transaction)).thenReturn(transactionDTO);
 
@@ -95,7 +137,7 @@ public class TransactionServiceImplTest {
   public void testDepositAccountNotFound() {
     TransactionRequest request = new TransactionRequest(
             999L,
-            100.0
+            Money.of("100.00")
     );
 
     Mockito.when(accountRepository.findById(request.accountId())).thenReturn(Optional.empty());
@@ -107,7 +149,7 @@ public class TransactionServiceImplTest {
   public void testDepositUnauthorized() {
     TransactionRequest request = new TransactionRequest(
             999L,
-            100.0
+            Money.of("100.00")
     );
 
     User currentUser = new User();
@@ -119,17 +161,17 @@ public class TransactionServiceImplTest {
     Account account = new Account();
     account.setId(1L);
     account.setUser(accountUser);
-    account.setBalance(500.0);
+    account.setBalance(500_00L);
 
     Mockito.when(accountRepository.findById(request.accountId())).thenReturn(Optional.of(account));
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     transactionService.deposit(request);
   }
 
   @Test
   public void testWithdraw() {
-    TransactionRequest request = new TransactionRequest(1L, 100.0);
+    TransactionRequest request = new TransactionRequest(1L, Money.of("100.00"));
 
     User currentUser = new User();
     currentUser.setId(1L);
@@ -137,24 +179,24 @@ public class TransactionServiceImplTest {
     Account account = new Account();
     account.setId(1L);
     account.setUser(currentUser);
-    account.setBalance(500.0);
+    account.setBalance(500_00L);
 
     Transaction transaction = new Transaction();
     transaction.setAccount(account);
     transaction.setType(TransactionType.WITHDRAWAL);
-    transaction.setAmount(100.0);
+    transaction.setAmount(100_00L);
     transaction.setDate(new Date());
 
     TransactionDTO transactionDTO = new TransactionDTO(
             1L,
             1L,
             TransactionType.WITHDRAWAL,
-            100.0,
+            Money.of("100.00"),
             new Date()
     );
 
     Mockito.when(accountRepository.findById(request.accountId())).thenReturn(Optional.of(account));
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
     Mockito.when(transactionRepository.save(Mockito.any(Transaction.class))).thenReturn(transaction);
     Mockito.when(transactionMapper.toDto(transaction)).thenReturn(transactionDTO);
 
@@ -171,7 +213,7 @@ public class TransactionServiceImplTest {
   public void testWithdrawAccountNotFound() {
     TransactionRequest request = new TransactionRequest(
             999L,
-            100.0
+            Money.of("100.00")
     );
 
     Mockito.when(accountRepository.findById(request.accountId())).thenReturn(Optional.empty());
@@ -183,7 +225,7 @@ public class TransactionServiceImplTest {
   public void testWithdrawUnauthorized() {
     TransactionRequest request = new TransactionRequest(
             999L,
-            100.0
+            Money.of("100.00")
     );
 
     User currentUser = new User();
@@ -195,17 +237,17 @@ public class TransactionServiceImplTest {
     Account account = new Account();
     account.setId(1L);
     account.setUser(accountUser);
-    account.setBalance(500.0);
+    account.setBalance(500_00L);
 
     Mockito.when(accountRepository.findById(request.accountId())).thenReturn(Optional.of(account));
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     transactionService.withdraw(request);
   }
 
   @Test
   public void testTransfer() {
-    TransferRequest request = new TransferRequest(1L, 2L, 100.0);
+    TransferRequest request = new TransferRequest(1L, 2L, Money.of("100.00"));
 
     User currentUser = new User();
     currentUser.setId(1L);
@@ -213,29 +255,29 @@ public class TransactionServiceImplTest {
     Account fromAccount = new Account();
     fromAccount.setId(1L);
     fromAccount.setUser(currentUser);
-    fromAccount.setBalance(500.0);
+    fromAccount.setBalance(500_00L);
 
     Account toAccount = new Account();
     toAccount.setId(2L);
-    toAccount.setBalance(300.0);
+    toAccount.setBalance(300_00L);
 
     Transaction transaction = new Transaction();
     transaction.setAccount(fromAccount);
     transaction.setType(TransactionType.TRANSFER);
-    transaction.setAmount(100.0);
+    transaction.setAmount(100_00L);
     transaction.setDate(new Date());
 
     TransactionDTO transactionDTO = new TransactionDTO(
             1L,
             1L,
             TransactionType.TRANSFER,
-            100.0,
+            Money.of("100.00"),
             new Date()
     );
 
     Mockito.when(accountRepository.findById(request.fromAccount())).thenReturn(Optional.of(fromAccount));
     Mockito.when(accountRepository.findById(request.toAccount())).thenReturn(Optional.of(toAccount));
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
     Mockito.when(transactionRepository.save(Mockito.any(Transaction.class))).thenReturn(transaction);
     Mockito.when(transactionMapper.toDto(transaction)).thenReturn(transactionDTO);
 
@@ -253,7 +295,7 @@ public class TransactionServiceImplTest {
     TransferRequest request = new TransferRequest(
             1L,
             2L,
-            100.
+            Money.of("100.00")
     );
 
     Mockito.when(accountRepository.findById(request.fromAccount())).thenReturn(Optional.empty());
@@ -266,7 +308,7 @@ public class TransactionServiceImplTest {
     TransferRequest request = new TransferRequest(
             1L,
             2L,
-            100.
+            Money.of("100.00")
     );
 
     User currentUser = new User();
@@ -278,15 +320,15 @@ public class TransactionServiceImplTest {
     Account fromAccount = new Account();
     fromAccount.setId(1L);
     fromAccount.setUser(accountUser);
-    fromAccount.setBalance(500.0);
+    fromAccount.setBalance(500_00L);
 
     Account toAccount = new Account();
     toAccount.setId(2L);
-    toAccount.setBalance(300.0);
+    toAccount.setBalance(300_00L);
 
     Mockito.when(accountRepository.findById(request.fromAccount())).thenReturn(Optional.of(fromAccount));
     Mockito.when(accountRepository.findById(request.toAccount())).thenReturn(Optional.of(toAccount));
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     transactionService.transfer(request);
   }
@@ -299,7 +341,7 @@ public class TransactionServiceImplTest {
     Transaction transaction = new Transaction();
     transaction.setAccount(new Account());
     transaction.setType(TransactionType.DEPOSIT);
-    transaction.setAmount(100.0);
+    transaction.setAmount(100_00L);
     transaction.setDate(new Date());
 
     List<Transaction> transactions = Collections.singletonList(transaction);
@@ -307,11 +349,11 @@ public class TransactionServiceImplTest {
             1L,
             1L,
             TransactionType.DEPOSIT,
-            100.0,
+            Money.of("100.00"),
             new Date()
     );
 
-    Mockito.when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    Mockito.when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
     Mockito.when(transactionRepository.findAllByUserId(currentUser.getId())).thenReturn(transactions);
     Mockito.when(transactionMapper.toDto(transaction)).thenReturn(transactionDTO);
 
@@ -0,0 +1,183 @@
+package services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.projects.ams.batch.BulkTransactionImporter;
+import kz.projects.ams.batch.TransactionBatchWriter;
+import kz.projects.ams.cache.AccountCache;
+import kz.projects.ams.dto.TransactionDTO;
+import kz.projects.ams.dto.requests.TransferRequest;
+import kz.projects.ams.exceptions.InsufficientFundsException;
+import kz.projects.ams.exceptions.UnauthorizedException;
+import kz.projects.ams.ledger.LedgerEngine;
+import kz.projects.ams.mapper.TransactionMapper;
+import kz.projects.ams.metrics.TransferMetrics;
+import kz.projects.ams.models.Account;
+import kz.projects.ams.models.Transaction;
+import kz.projects.ams.models.User;
+import kz.projects.ams.models.enums.AccountType;
+import kz.projects.ams.models.enums.TransactionType;
+import kz.projects.ams.repositories.AccountBalanceSnapshotJdbcRepository;
+import kz.projects.ams.repositories.AccountJdbcRepository;
+import kz.projects.ams.repositories.AccountRepository;
+import kz.projects.ams.repositories.TransactionIdAllocator;
+import kz.projects.ams.repositories.TransactionJdbcRepository;
+import kz.projects.ams.repositories.TransactionRepository;
+import kz.projects.ams.services.NotificationEventProducer;
+import kz.projects.ams.security.CurrentUser;
+import kz.projects.ams.services.UserService;
+import kz.projects.ams.services.impl.TransactionServiceImpl;
+import kz.projects.commonlib.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionServiceImplTransferTest {
+
+  @Mock
+  private AccountRepository accountRepository;
+
+  @Mock
+  private TransactionRepository transactionRepository;
+
+  @Mock
+  private UserService userService;
+
+  @Mock
+  private NotificationEventProducer notificationEventProducer;
+
+  @Mock
+  private LedgerEngine ledgerEngine;
+
+  @Mock
+  private TransactionBatchWriter transactionBatchWriter;
+
+  @Mock
+  private BulkTransactionImporter bulkTransactionImporter;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @Mock
+  private AccountBalanceSnapshotJdbcRepository snapshotJdbcRepository;
+
+  @Mock
+  private AccountJdbcRepository accountJdbcRepository;
+
+  @Mock
+  private TransactionJdbcRepository transactionJdbcRepository;
+
+  @Mock
+  private TransactionIdAllocator transactionIdAllocator;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private TransactionServiceImpl transactionService;
+
+  private User user;
+
+  @BeforeEach
+  public void setUp() {
+    user = new User();
+    user.setId(1L);
+    lenient().when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
+    lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+    transactionService = new TransactionServiceImpl(new AccountCache(accountRepository, new NoOpCacheManager()), transactionRepository,
+            new TransactionMapper(), userService, notificationEventProducer, ledgerEngine, transactionBatchWriter,
+            transactionTemplate, snapshotJdbcRepository, accountJdbcRepository, transactionJdbcRepository,
+            transactionIdAllocator, new TransferMetrics(meterRegistry), bulkTransactionImporter);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testTransfer_LocksAccountsInIdOrder() {
+    when(accountJdbcRepository.credit(1L, 40_00L)).thenReturn(Optional.of(account(1L, 2L, 40_00L)));
+    when(accountJdbcRepository.debit(5L, 1L, 40_00L)).thenReturn(Optional.of(account(5L, 1L, 60_00L)));
+    when(transactionIdAllocator.next()).thenReturn(7L);
+
+    TransactionDTO result = transactionService.transfer(new TransferRequest(5L, 1L, Money.of("40.00")));
+
+    InOrder locks = inOrder(accountJdbcRepository);
+    locks.verify(accountJdbcRepository).credit(1L, 40_00L);
+    locks.verify(accountJdbcRepository).debit(5L, 1L, 40_00L);
+    assertEquals(7L, result.id());
+    assertEquals(5L, result.accountId());
+    assertEquals(Money.of("40.00"), result.amount());
+
+    ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+    verify(transactionJdbcRepository).insertAll(inserted.capture());
+    Transaction transaction = inserted.getValue().get(0);
+    assertEquals(TransactionType.TRANSFER, transaction.getType());
+    assertEquals(1L, transaction.getCounterpartyAccountId());
+    verify(snapshotJdbcRepository).record(5L, 60_00L, result.date());
+    verify(snapshotJdbcRepository).record(1L, 40_00L, result.date());
+    assertEquals(1, meterRegistry.get("ams.transfer.lock").timer().count());
+  }
+
+  @Test
+  public void testTransfer_InsufficientFunds() {
+    when(accountJdbcRepository.debit(1L, 1L, 40_00L)).thenReturn(Optional.empty());
+    when(accountRepository.findById(1L)).thenReturn(Optional.of(account(1L, 1L, 10_00L)));
+
+    assertThrows(InsufficientFundsException.class,
+            () -> transactionService.transfer(new TransferRequest(1L, 5L, Money.of("40.00"))));
+
+    verify(accountJdbcRepository, never()).credit(any(), any(Long.class));
+    verify(transactionJdbcRepository, never()).insertAll(any());
+    assertEquals(1.0, meterRegistry.get("ams.transfer.rejected").counter().count());
+    assertEquals(0, meterRegistry.get("ams.transfer.active").longTaskTimer().activeTasks());
+  }
+
+  @Test
+  public void testTransfer_Unauthorized() {
+    when(accountJdbcRepository.debit(1L, 1L, 40_00L)).thenReturn(Optional.empty());
+    when(accountRepository.findById(1L)).thenReturn(Optional.of(account(1L, 2L, 100_00L)));
+
+    assertThrows(UnauthorizedException.class,
+            () -> transactionService.transfer(new TransferRequest(1L, 5L, Money.of("40.00"))));
+
+    assertEquals(0.0, meterRegistry.get("ams.transfer.rejected").counter().count());
+  }
+
+  @Test
+  public void testTransfer_ToSameAccountRejected() {
+    assertThrows(IllegalArgumentException.class,
+            () -> transactionService.transfer(new TransferRequest(1L, 1L, Money.of("40.00"))));
+
+    verify(ledgerEngine, never()).transfer(any(), any(), any(Long.class));
+    verify(accountJdbcRepository, never()).debit(any(), any(), any(Long.class));
+  }
+
+  private Account account(Long id, Long userId, long balance) {
+    User owner = new User();
+    owner.setId(userId);
+
+    Account account = new Account();
+    account.setId(id);
+    account.setUser(owner);
+    account.setAccountType(AccountType.SAVINGS);
+    account.setBalance(balance);
+    return account;
+  }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import kz.projects.ams.models.User;
 import kz.projects.ams.services.NotificationEventProducer;
+import kz.projects.ams.security.CurrentUser;
 import kz.projects.ams.services.UserService;
 import kz.projects.ams.services.impl.UserAdvisorySessionServiceImpl;
 import kz.projects.commonlib.dto.AdvisorySessionDTO;
@@ -69,7 +70,7 @@ public class UserAdvisorySessionServiceImplTest {
   public void testOrderAdvisorySession_Success() throws Exception {
     User currentUser = new User();
     currentUser.setId(1L);
-    when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     AdvisorySessionDTO request = new AdvisorySessionDTO(null, null, 10L, null, null);
 
@@ -94,7 +95,7 @@ public class UserAdvisorySessionServiceImplTest {
   public void testGetAdvisorySessionsPlanned_Success() throws Exception {
     User currentUser = new User();
     currentUser.setId(1L);
-    when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     List<AdvisorySessionDTO> mockSessions = Arrays.asList(
             new AdvisorySessionDTO(1L, 1L, 2L, LocalDate.now(), LocalTime.of(9, 0)),
@@ -109,7 +110,7 @@ public class UserAdvisorySessionServiceImplTest {
 
     List<AdvisorySessionDTO> result = advisorySessionService.getAdvisorySessionsPlanned();
 
-    verify(userService).getCurrentSessionUser();
+    verify(userService).getCurrentUser();
     assertNotNull(result);
     assertEquals(2, result.size());
 
@@ -122,7 +123,7 @@ public class UserAdvisorySessionServiceImplTest {
   public void testGetAdvisersSessions_Success() throws Exception {
     User currentUser = new User();
     currentUser.setEmail("test@example.com");
-    when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     List<AdvisorySessionDTO> mockSessions = Arrays.asList(
             new AdvisorySessionDTO(1L, 1L, 2L, LocalDate.now(), LocalTime.of(9, 0)),
@@ -137,7 +138,7 @@ public class UserAdvisorySessionServiceImplTest {
 
     List<AdvisorySessionDTO> result = advisorySessionService.getAdvisersSessions();
 
-    verify(userService).getCurrentSessionUser();
+    verify(userService).getCurrentUser();
     assertNotNull(result);
     assertEquals(2, result.size());
 
@@ -150,7 +151,7 @@ public class UserAdvisorySessionServiceImplTest {
   public void testRescheduleAdvisorySession_Success() throws Exception {
     User currentUser = new User();
     currentUser.setId(1L);
-    when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     AdvisorySessionDTO request = new AdvisorySessionDTO(1L, 1L, 2L, LocalDate.now(), LocalTime.of(9, 0));
 
@@ -169,7 +170,7 @@ public class UserAdvisorySessionServiceImplTest {
   public void testDeleteAdvisorySession_Success() throws Exception {
     User currentUser = new User();
     currentUser.setId(1L);
-    when(userService.getCurrentSessionUser()).thenReturn(currentUser);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(currentUser));
 
     Long advisorySessionId = 1L;
 
@@ -1,6 +1,7 @@
 package services.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.ams.cache.AccountCache;
 import kz.projects.ams.dto.TransactionDTO;
 import kz.projects.ams.dto.requests.InvestmentRequest;
 import kz.projects.ams.dto.requests.TransactionRequest;
@@ -8,16 +9,20 @@ import kz.projects.ams.dto.responses.InvestmentResponse;
 import kz.projects.ams.exceptions.InvestmentOperationException;
 import kz.projects.ams.exceptions.UnauthorizedException;
 import kz.projects.ams.exceptions.UserAccountNotFoundException;
+import kz.projects.ams.ledger.LedgerEngine;
 import kz.projects.ams.models.Account;
 import kz.projects.ams.models.User;
 import kz.projects.ams.models.enums.TransactionType;
 import kz.projects.ams.repositories.AccountRepository;
 import kz.projects.ams.services.NotificationEventProducer;
 import kz.projects.ams.services.TransactionService;
+import kz.projects.ams.security.CurrentUser;
 import kz.projects.ams.services.UserService;
 import kz.projects.ams.services.impl.UserInvestmentServiceImpl;
 import kz.projects.commonlib.dto.BalanceCheckRequest;
 import kz.projects.commonlib.dto.BalanceCheckResponse;
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.money.Money;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
@@ -27,6 +32,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.io.IOException;
@@ -34,13 +43,17 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -58,6 +71,9 @@ public class UserInvestmentServiceImplTest {
   @Mock
   private NotificationEventProducer notificationEventProducer;
 
+  @Mock
+  private LedgerEngine ledgerEngine;
+
   @InjectMocks
   private UserInvestmentServiceImpl userInvestmentService;
 
@@ -75,7 +91,7 @@ public class UserInvestmentServiceImplTest {
     mockWebServer = new MockWebServer();
     mockWebServer.start();
     String baseUrl = mockWebServer.url("/").toString();
-    userInvestmentService = new UserInvestmentServiceImpl(WebClient.builder().baseUrl(baseUrl), userService, transactionService, accountRepository, notificationEventProducer);
+    userInvestmentService = new UserInvestmentServiceImpl(WebClient.builder().baseUrl(baseUrl), userService, transactionService, new AccountCache(accountRepository, new NoOpCacheManager()), notificationEventProducer, ledgerEngine);
 
     objectMapper = new ObjectMapper();
     user = new User();
@@ -84,29 +100,30 @@ public class UserInvestmentServiceImplTest {
     account = new Account();
     account.setId(1L);
     account.setUser(user);
-    account.setBalance(1000.0);
+    account.setBalance(1000_00L);
 
     investmentRequest = new InvestmentRequest(
-            1L, user.getId(), account.getId(), null, 500.0
+            1L, user.getId(), account.getId(), null, Money.of("500.00")
     );
 
     investmentResponse = new InvestmentResponse(
             1L,
             1L,
             null,
-            500.0,
+            Money.of("500.00"),
             new Date()
     );
 
     balanceCheckRequest = new BalanceCheckRequest(
             1L,
-            500.0
+            Money.of("500.00")
     );
   }
 
   @AfterEach
   public void tearDown() throws Exception {
     mockWebServer.shutdown();
+    SecurityContextHolder.clearContext();
   }
 
   @Test
@@ -115,60 +132,86 @@ public class UserInvestmentServiceImplTest {
             1L,
             1L,
             TransactionType.DEPOSIT,
-            0.0,
+            Money.zero(),
             new Date()
     );
 
     when(accountRepository.findById(any(Long.class))).thenReturn(Optional.of(account));
-    when(userService.getCurrentSessionUser()).thenReturn(user);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
     mockWebServer.enqueue(new MockResponse()
             .setResponseCode(200)
             .setHeader("Content-Type", "application/json")
             .setBody(objectMapper.writeValueAsString(investmentResponse)));
     when(transactionService.withdraw(any(TransactionRequest.class))).thenReturn(transactionResponse);
 
-    InvestmentResponse response = userInvestmentService.toInvest(investmentRequest);
+    InvestmentResponse response = userInvestmentService.toInvest(investmentRequest).block();
 
     assertNotNull(response);
     assertEquals(investmentResponse.id(), response.id());
-    assertEquals(investmentResponse.amount(), response.amount(), 0.0);
+    assertEquals(investmentResponse.amount(), response.amount());
+  }
+
+  @Test
+  public void testToInvest_WithdrawsWithCallerSecurityContext() throws Exception {
+    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(user, null);
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+    AtomicReference<Authentication> withdrawAuthentication = new AtomicReference<>();
+    AtomicReference<String> withdrawThread = new AtomicReference<>();
+
+    when(accountRepository.findById(any(Long.class))).thenReturn(Optional.of(account));
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
+    mockWebServer.enqueue(new MockResponse()
+            .setResponseCode(200)
+            .setHeader("Content-Type", "application/json")
+            .setBody(objectMapper.writeValueAsString(investmentResponse)));
+    when(transactionService.withdraw(any(TransactionRequest.class))).thenAnswer(invocation -> {
+      withdrawAuthentication.set(SecurityContextHolder.getContext().getAuthentication());
+      withdrawThread.set(Thread.currentThread().getName());
+      return new TransactionDTO(1L, 1L, TransactionType.WITHDRAWAL, Money.of("500.00"), new Date());
+    });
+
+    userInvestmentService.toInvest(investmentRequest).block();
+
+    assertSame(authentication, withdrawAuthentication.get());
+    assertTrue(withdrawThread.get().startsWith("boundedElastic"));
+    verify(notificationEventProducer).publishEvent(any(NotificationEvent.class), eq("topic-advisory"));
   }
 
   @Test
   public void testToInvest_WebClientResponseException() {
     when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
-    when(userService.getCurrentSessionUser()).thenReturn(user);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
     mockWebServer.enqueue(new MockResponse().setResponseCode(500));
 
-    assertThrows(InvestmentOperationException.class, () -> userInvestmentService.toInvest(investmentRequest));
+    assertThrows(InvestmentOperationException.class, () -> userInvestmentService.toInvest(investmentRequest).block());
   }
 
   @Test
   public void testDeleteInvestment_Success() {
-    when(userService.getCurrentSessionUser()).thenReturn(user);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
 
     mockWebServer.enqueue(new MockResponse().setResponseCode(204));
 
-    assertDoesNotThrow(() -> userInvestmentService.deleteInvestment(1L));
+    assertDoesNotThrow(() -> userInvestmentService.deleteInvestment(1L).block());
   }
 
   @Test
   public void testDeleteInvestment_WebClientResponseException() {
-    when(userService.getCurrentSessionUser()).thenReturn(user);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
     mockWebServer.enqueue(new MockResponse().setResponseCode(500));
 
-    assertThrows(InvestmentOperationException.class, () -> userInvestmentService.deleteInvestment(1L));
+    assertThrows(InvestmentOperationException.class, () -> userInvestmentService.deleteInvestment(1L).block());
   }
 
   @Test
   public void testGetAllUsersInvestments_Success() throws Exception {
-    when(userService.getCurrentSessionUser()).thenReturn(user);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
     mockWebServer.enqueue(new MockResponse()
             .setResponseCode(200)
             .setHeader("Content-Type", "application/json")
             .setBody(objectMapper.writeValueAsString(Collections.singletonList(investmentResponse))));
 
-    List<InvestmentResponse> investments = userInvestmentService.getAllUsersInvestments();
+    List<InvestmentResponse> investments = userInvestmentService.getAllUsersInvestments().block();
 
     assertNotNull(investments);
     assertEquals(1, investments.size());
@@ -176,10 +219,10 @@ public class UserInvestmentServiceImplTest {
 
   @Test
   public void testGetAllUsersInvestments_WebClientResponseException() {
-    when(userService.getCurrentSessionUser()).thenReturn(user);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
     mockWebServer.enqueue(new MockResponse().setResponseCode(500));
 
-    assertThrows(InvestmentOperationException.class, () -> userInvestmentService.getAllUsersInvestments());
+    assertThrows(InvestmentOperationException.class, () -> userInvestmentService.getAllUsersInvestments().block());
   }
 
   @Test
@@ -196,7 +239,7 @@ public class UserInvestmentServiceImplTest {
     account.setUser(anotherUser);
 
     when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
-    when(userService.getCurrentSessionUser()).thenReturn(user);
+    when(userService.getCurrentUser()).thenReturn(CurrentUser.of(user));
 
     assertThrows(UnauthorizedException.class, () -> userInvestmentService.toInvest(investmentRequest));
   }
@@ -209,7 +252,7 @@ public class UserInvestmentServiceImplTest {
 
     assertNotNull(response);
     assertTrue(response.sufficientFunds());
-    assertEquals(1000.0, response.currentBalance());
+    assertEquals(Money.of("1000.00"), response.currentBalance());
   }
 
   @Test
@@ -9,6 +9,8 @@ import kz.projects.ams.models.Permissions;
 import kz.projects.ams.models.User;
 import kz.projects.ams.repositories.PermissionsRepository;
 import kz.projects.ams.repositories.UserRepository;
+import kz.projects.ams.security.CurrentUser;
+import kz.projects.ams.security.TokenService;
 import kz.projects.ams.services.impl.CustomUserDetailsService;
 import kz.projects.ams.services.impl.UserServiceImpl;
 import kz.projects.commonlib.dto.enums.AdvisorSpecialization;
@@ -23,9 +25,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.io.IOException;
@@ -35,6 +42,7 @@ import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -61,6 +69,9 @@ class UserServiceImplTest {
   @Mock
   private UserMapper userMapper;
 
+  @Mock
+  private TokenService tokenService;
+
   @InjectMocks
   private UserServiceImpl userService;
 
@@ -89,6 +100,8 @@ class UserServiceImplTest {
   @AfterEach
   void tearDown() throws IOException {
     mockWebServer.shutdown();
+    RequestContextHolder.resetRequestAttributes();
+    SecurityContextHolder.clearContext();
   }
 
   @Test
@@ -187,7 +200,7 @@ class UserServiceImplTest {
             .setBody(mockWebAdviser));
 
     WebClient.Builder webClientBuilder = WebClient.builder().baseUrl(mockWebServer.url("/").toString());
-    userService = new UserServiceImpl(userRepository, permissionsRepository, passwordEncoder, userDetailsService, userMapper, webClientBuilder);
+    userService = new UserServiceImpl(userRepository, permissionsRepository, passwordEncoder, userDetailsService, userMapper, webClientBuilder, tokenService);
 
     UserDTO registeredAdvisor = userService.registerAsAdvisor(adviserDTO);
 
@@ -219,4 +232,21 @@ class UserServiceImplTest {
     assertEquals("User with this email already exists.", exception.getMessage());
     verify(userRepository, never()).save(any(User.class));
   }
+
+  @Test
+  void testGetCurrentUserMemoizedPerRequest() {
+    user.setId(1L);
+    user.setPermissionList(Collections.singletonList(new Permissions(1L, "ROLE_USER")));
+    SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+    CurrentUser first = userService.getCurrentUser();
+    SecurityContextHolder.clearContext();
+    CurrentUser second = userService.getCurrentUser();
+
+    assertSame(first, second);
+    assertEquals(1L, first.id());
+    assertEquals(Collections.singletonList("ROLE_USER"), first.roles());
+  }
 }
@@ -0,0 +1,92 @@
+package kz.projects.commonlib.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier longer than a threshold, typically because they
+ * block inside a {@code synchronized} section (Hibernate, JDBC drivers, connection pools).
+ * <p>
+ * Pinning is read in-process from the JFR {@code jdk.VirtualThreadPinned} event. Each event is logged with
+ * its top frames and passed to the listener together with the pinning site: the first frame from one of
+ * {@link #SITE_PACKAGES}, or the top frame. On Java versions without virtual threads the event never fires.
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+  public static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private static final List<String> SITE_PACKAGES =
+          List.of("kz.projects.", "org.hibernate.", "org.postgresql.", "com.zaxxer.hikari.");
+  private static final int LOGGED_FRAMES = 8;
+
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final Duration threshold;
+  private final BiConsumer<String, Duration> listener;
+  private final AtomicLong pinned = new AtomicLong();
+  private RecordingStream stream;
+
+  public VirtualThreadPinningMonitor(Duration threshold, BiConsumer<String, Duration> listener) {
+    this.threshold = threshold;
+    this.listener = listener;
+  }
+
+  public synchronized void start() {
+    if (stream != null) {
+      return;
+    }
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+  }
+
+  public long pinnedCount() {
+    return pinned.get();
+  }
+
+  @Override
+  public synchronized void close() {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+    }
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinned.incrementAndGet();
+    RecordedStackTrace stackTrace = event.getStackTrace();
+    List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+
+    StringBuilder message = new StringBuilder("Virtual thread pinned for ")
+            .append(event.getDuration().toMillis()).append(" ms");
+    for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+      RecordedFrame frame = frames.get(i);
+      message.append("\n\tat ").append(frame.getMethod().getType().getName())
+              .append('.').append(frame.getMethod().getName())
+              .append(':').append(frame.getLineNumber());
+    }
+    log.warning(message.toString());
+
+    listener.accept(site(frames), event.getDuration());
+  }
+
+  private static String site(List<RecordedFrame> frames) {
+    for (RecordedFrame frame : frames) {
+      String type = frame.getMethod().getType().getName();
+      for (String sitePackage : SITE_PACKAGES) {
+        if (type.startsWith(sitePackage)) {
+          return type;
+        }
+      }
+    }
+    return frames.isEmpty() ? "unknown" : frames.get(0).getMethod().getType().getName();
+  }
+}
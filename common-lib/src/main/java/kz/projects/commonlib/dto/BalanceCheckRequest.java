@@ -1,4 +1,5 @@
 package kz.projects.commonlib.dto;
 
-public record BalanceCheckRequest(Long accountId, Double amount) {}
+import kz.projects.commonlib.money.Money;
 
+public record BalanceCheckRequest(Long accountId, Money amount) {}
@@ -1,4 +1,5 @@
 package kz.projects.commonlib.dto;
 
-public record BalanceCheckResponse(boolean sufficientFunds, Double currentBalance) {}
+import kz.projects.commonlib.money.Money;
 
+public record BalanceCheckResponse(boolean sufficientFunds, Money currentBalance) {}
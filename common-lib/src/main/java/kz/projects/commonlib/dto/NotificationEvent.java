@@ -1,10 +1,16 @@
 package kz.projects.commonlib.dto;
 
+import kz.projects.commonlib.dto.notification.NotificationPayload;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * Notification for a user. New events carry a typed {@link #payload} rendered by notification-service;
+ * {@link #message} holds prebuilt text of older events. {@link #eventId} is assigned once by the producer
+ * and stays the same across redeliveries, so consumers can drop duplicates.
+ */
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -15,12 +21,25 @@ public class NotificationEvent {
   private String email;
   private String message;
   private String timestamp;
+  private NotificationPayload payload;
+  private String eventId;
+
+  public NotificationEvent(String userId, String username, String email, String message, String timestamp) {
+    this(userId, username, email, message, timestamp, null, null);
+  }
+
+  public NotificationEvent(String userId, String username, String email, NotificationPayload payload,
+                           String timestamp) {
+    this(userId, username, email, null, timestamp, payload, null);
+  }
 
   @Override
   public String toString() {
     return "NotificationEvent{" +
-            "userId='" + userId + '\'' +
+            "eventId='" + eventId + '\'' +
+            ", userId='" + userId + '\'' +
             ", message='" + message + '\'' +
+            ", payload=" + payload +
             ", timestamp='" + timestamp + '\'' +
             '}';
   }
@@ -0,0 +1,6 @@
+package kz.projects.commonlib.dto.notification;
+
+import kz.projects.commonlib.money.Money;
+
+public record AccountUpdated(Long accountId, String accountType, Money balance) implements NotificationPayload {
+}
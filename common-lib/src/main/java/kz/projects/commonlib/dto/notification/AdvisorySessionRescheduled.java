@@ -0,0 +1,7 @@
+package kz.projects.commonlib.dto.notification;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record AdvisorySessionRescheduled(Long sessionId, LocalDate date, LocalTime time) implements NotificationPayload {
+}
@@ -0,0 +1,4 @@
+package kz.projects.commonlib.dto.notification;
+
+public record BulkImportCompleted(int succeeded, int failed) implements NotificationPayload {
+}
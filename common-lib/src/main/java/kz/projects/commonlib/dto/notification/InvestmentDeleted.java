@@ -0,0 +1,4 @@
+package kz.projects.commonlib.dto.notification;
+
+public record InvestmentDeleted(Long investmentId) implements NotificationPayload {
+}
@@ -0,0 +1,16 @@
+package kz.projects.commonlib.dto.notification;
+
+import kz.projects.commonlib.dto.enums.InvestmentType;
+import kz.projects.commonlib.money.Money;
+
+/**
+ * @param placedAt when the investment was placed, in epoch milliseconds
+ */
+public record InvestmentPlaced(
+        Long investmentId,
+        InvestmentType investmentType,
+        Money amount,
+        Long accountId,
+        long placedAt
+) implements NotificationPayload {
+}
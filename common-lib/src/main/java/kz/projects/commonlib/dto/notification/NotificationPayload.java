@@ -0,0 +1,28 @@
+package kz.projects.commonlib.dto.notification;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * Typed content of a {@link kz.projects.commonlib.dto.NotificationEvent}.
+ * Producers send raw fields only; notification-service renders the text.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = DepositCompleted.class, name = "DepositCompleted"),
+        @JsonSubTypes.Type(value = WithdrawalCompleted.class, name = "WithdrawalCompleted"),
+        @JsonSubTypes.Type(value = TransferCompleted.class, name = "TransferCompleted"),
+        @JsonSubTypes.Type(value = BulkImportCompleted.class, name = "BulkImportCompleted"),
+        @JsonSubTypes.Type(value = AccountCreated.class, name = "AccountCreated"),
+        @JsonSubTypes.Type(value = AccountUpdated.class, name = "AccountUpdated"),
+        @JsonSubTypes.Type(value = AccountDeleted.class, name = "AccountDeleted"),
+        @JsonSubTypes.Type(value = InvestmentPlaced.class, name = "InvestmentPlaced"),
+        @JsonSubTypes.Type(value = InvestmentDeleted.class, name = "InvestmentDeleted"),
+        @JsonSubTypes.Type(value = AdvisorySessionOrdered.class, name = "AdvisorySessionOrdered"),
+        @JsonSubTypes.Type(value = AdvisorySessionRescheduled.class, name = "AdvisorySessionRescheduled"),
+        @JsonSubTypes.Type(value = AdvisorySessionDeleted.class, name = "AdvisorySessionDeleted")
+})
+public sealed interface NotificationPayload permits DepositCompleted, WithdrawalCompleted, TransferCompleted,
+        BulkImportCompleted, AccountCreated, AccountUpdated, AccountDeleted, InvestmentPlaced, InvestmentDeleted,
+        AdvisorySessionOrdered, AdvisorySessionRescheduled, AdvisorySessionDeleted {
+}
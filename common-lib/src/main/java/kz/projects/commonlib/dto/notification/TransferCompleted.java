@@ -0,0 +1,11 @@
+package kz.projects.commonlib.dto.notification;
+
+import kz.projects.commonlib.money.Money;
+
+public record TransferCompleted(
+        Long fromAccountId,
+        String accountType,
+        Long toAccountId,
+        Money amount
+) implements NotificationPayload {
+}
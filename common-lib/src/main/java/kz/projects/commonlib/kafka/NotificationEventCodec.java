@@ -0,0 +1,435 @@
+package kz.projects.commonlib.kafka;
+
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.dto.enums.InvestmentType;
+import kz.projects.commonlib.dto.notification.AccountCreated;
+import kz.projects.commonlib.dto.notification.AccountDeleted;
+import kz.projects.commonlib.dto.notification.AccountUpdated;
+import kz.projects.commonlib.dto.notification.AdvisorySessionDeleted;
+import kz.projects.commonlib.dto.notification.AdvisorySessionOrdered;
+import kz.projects.commonlib.dto.notification.AdvisorySessionRescheduled;
+import kz.projects.commonlib.dto.notification.BulkImportCompleted;
+import kz.projects.commonlib.dto.notification.DepositCompleted;
+import kz.projects.commonlib.dto.notification.InvestmentDeleted;
+import kz.projects.commonlib.dto.notification.InvestmentPlaced;
+import kz.projects.commonlib.dto.notification.NotificationPayload;
+import kz.projects.commonlib.dto.notification.TransferCompleted;
+import kz.projects.commonlib.dto.notification.WithdrawalCompleted;
+import kz.projects.commonlib.money.Money;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact binary form of {@link NotificationEvent}.
+ * <p>
+ * Layout (version 4): magic byte, version byte, flags byte, then
+ * <ul>
+ *   <li>user id: unsigned varint when numeric, otherwise a string;</li>
+ *   <li>username and email: strings;</li>
+ *   <li>content: varint payload type followed by the payload fields in declaration order, or 0 followed by
+ *   the plain message string;</li>
+ *   <li>timestamp: varint epoch seconds and nanos of an ISO {@link LocalDateTime}, otherwise a string;</li>
+ *   <li>event id: 16 bytes when it is a canonical {@link UUID}, otherwise a string.</li>
+ * </ul>
+ * Strings are a varint of UTF-8 length plus one (0 is {@code null}) followed by the bytes. Nullable numbers
+ * are a zigzag varint plus one, money is the currency string followed by the minor units, dates are epoch days
+ * and times are nanos of day. Payload type ids may only be appended.
+ * The magic byte is never the first byte of JSON, so readers can tell the two formats apart.
+ */
+public final class NotificationEventCodec {
+  public static final byte MAGIC = (byte) 0xCE;
+  public static final byte VERSION = 4;
+
+  private static final int DEPOSIT_COMPLETED = 1;
+  private static final int WITHDRAWAL_COMPLETED = 2;
+  private static final int TRANSFER_COMPLETED = 3;
+  private static final int BULK_IMPORT_COMPLETED = 4;
+  private static final int ACCOUNT_CREATED = 5;
+  private static final int ACCOUNT_UPDATED = 6;
+  private static final int ACCOUNT_DELETED = 7;
+  private static final int INVESTMENT_PLACED = 8;
+  private static final int INVESTMENT_DELETED = 9;
+  private static final int ADVISORY_SESSION_ORDERED = 10;
+  private static final int ADVISORY_SESSION_RESCHEDULED = 11;
+  private static final int ADVISORY_SESSION_DELETED = 12;
+
+  private static final int NUMERIC_USER_ID = 1;
+  private static final int LOCAL_TIMESTAMP = 1 << 1;
+  private static final int UUID_EVENT_ID = 1 << 2;
+
+  private NotificationEventCodec() {
+  }
+
+  public static boolean isBinary(byte[] data) {
+    return data != null && data.length > 0 && data[0] == MAGIC;
+  }
+
+  public static byte[] encode(NotificationEvent event) {
+    Long userId = numericUserId(event.getUserId());
+    LocalDateTime timestamp = localTimestamp(event.getTimestamp());
+    UUID eventId = uuidEventId(event.getEventId());
+    int flags = (userId != null ? NUMERIC_USER_ID : 0) | (timestamp != null ? LOCAL_TIMESTAMP : 0)
+            | (eventId != null ? UUID_EVENT_ID : 0);
+
+    Writer writer = new Writer();
+    writer.writeByte(MAGIC);
+    writer.writeByte(VERSION);
+    writer.writeByte(flags);
+    if (userId != null) {
+      writer.writeVarLong(userId);
+    } else {
+      writer.writeString(event.getUserId());
+    }
+    writer.writeString(event.getUsername());
+    writer.writeString(event.getEmail());
+
+    if (event.getPayload() != null) {
+      writePayload(writer, event.getPayload());
+    } else {
+      writer.writeVarLong(0);
+      writer.writeString(event.getMessage());
+    }
+
+    if (timestamp != null) {
+      writer.writeVarLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+      writer.writeVarLong(timestamp.getNano());
+    } else {
+      writer.writeString(event.getTimestamp());
+    }
+
+    if (eventId != null) {
+      writer.writeFixedLong(eventId.getMostSignificantBits());
+      writer.writeFixedLong(eventId.getLeastSignificantBits());
+    } else {
+      writer.writeString(event.getEventId());
+    }
+    return writer.toByteArray();
+  }
+
+  public static NotificationEvent decode(byte[] data) {
+    if (!isBinary(data) || data.length < 3) {
+      throw new IllegalArgumentException("Not a binary notification event");
+    }
+    int version = data[1];
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported notification event version " + version);
+    }
+    Reader reader = new Reader(data, 2);
+    int flags = reader.readByte();
+
+    NotificationEvent event = new NotificationEvent();
+    event.setUserId((flags & NUMERIC_USER_ID) != 0 ? Long.toString(reader.readVarLong()) : reader.readString());
+    event.setUsername(reader.readString());
+    event.setEmail(reader.readString());
+
+    int payloadType = (int) reader.readVarLong();
+    if (payloadType != 0) {
+      event.setPayload(readPayload(reader, payloadType));
+    } else {
+      event.setMessage(reader.readString());
+    }
+
+    if ((flags & LOCAL_TIMESTAMP) != 0) {
+      long seconds = reader.readVarLong();
+      int nanos = (int) reader.readVarLong();
+      event.setTimestamp(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC).toString());
+    } else {
+      event.setTimestamp(reader.readString());
+    }
+
+    event.setEventId((flags & UUID_EVENT_ID) != 0
+            ? new UUID(reader.readFixedLong(), reader.readFixedLong()).toString()
+            : reader.readString());
+    return event;
+  }
+
+  private static void writePayload(Writer writer, NotificationPayload payload) {
+    if (payload instanceof DepositCompleted p) {
+      writer.writeVarLong(DEPOSIT_COMPLETED);
+      writer.writeNullableLong(p.accountId());
+      writer.writeString(p.accountType());
+      writer.writeMoney(p.amount());
+    } else if (payload instanceof WithdrawalCompleted p) {
+      writer.writeVarLong(WITHDRAWAL_COMPLETED);
+      writer.writeNullableLong(p.accountId());
+      writer.writeString(p.accountType());
+      writer.writeMoney(p.amount());
+    } else if (payload instanceof TransferCompleted p) {
+      writer.writeVarLong(TRANSFER_COMPLETED);
+      writer.writeNullableLong(p.fromAccountId());
+      writer.writeString(p.accountType());
+      writer.writeNullableLong(p.toAccountId());
+      writer.writeMoney(p.amount());
+    } else if (payload instanceof BulkImportCompleted p) {
+      writer.writeVarLong(BULK_IMPORT_COMPLETED);
+      writer.writeVarLong(p.succeeded());
+      writer.writeVarLong(p.failed());
+    } else if (payload instanceof AccountCreated p) {
+      writer.writeVarLong(ACCOUNT_CREATED);
+      writeAccount(writer, p.accountId(), p.accountType(), p.balance());
+    } else if (payload instanceof AccountUpdated p) {
+      writer.writeVarLong(ACCOUNT_UPDATED);
+      writeAccount(writer, p.accountId(), p.accountType(), p.balance());
+    } else if (payload instanceof AccountDeleted p) {
+      writer.writeVarLong(ACCOUNT_DELETED);
+      writeAccount(writer, p.accountId(), p.accountType(), p.balance());
+    } else if (payload instanceof InvestmentPlaced p) {
+      writer.writeVarLong(INVESTMENT_PLACED);
+      writer.writeNullableLong(p.investmentId());
+      writer.writeString(p.investmentType() == null ? null : p.investmentType().name());
+      writer.writeMoney(p.amount());
+      writer.writeNullableLong(p.accountId());
+      writer.writeNullableLong(p.placedAt());
+    } else if (payload instanceof InvestmentDeleted p) {
+      writer.writeVarLong(INVESTMENT_DELETED);
+      writer.writeNullableLong(p.investmentId());
+    } else if (payload instanceof AdvisorySessionOrdered p) {
+      writer.writeVarLong(ADVISORY_SESSION_ORDERED);
+      writeSession(writer, p.sessionId(), p.date(), p.time());
+    } else if (payload instanceof AdvisorySessionRescheduled p) {
+      writer.writeVarLong(ADVISORY_SESSION_RESCHEDULED);
+      writeSession(writer, p.sessionId(), p.date(), p.time());
+    } else if (payload instanceof AdvisorySessionDeleted p) {
+      writer.writeVarLong(ADVISORY_SESSION_DELETED);
+      writer.writeNullableLong(p.sessionId());
+    } else {
+      throw new IllegalArgumentException("Unsupported notification payload " + payload.getClass().getName());
+    }
+  }
+
+  private static void writeAccount(Writer writer, Long accountId, String accountType, Money balance) {
+    writer.writeNullableLong(accountId);
+    writer.writeString(accountType);
+    writer.writeMoney(balance);
+  }
+
+  private static void writeSession(Writer writer, Long sessionId, LocalDate date, LocalTime time) {
+    writer.writeNullableLong(sessionId);
+    writer.writeNullableLong(date == null ? null : date.toEpochDay());
+    writer.writeNullableLong(time == null ? null : time.toNanoOfDay());
+  }
+
+  private static NotificationPayload readPayload(Reader reader, int type) {
+    switch (type) {
+      case DEPOSIT_COMPLETED:
+        return new DepositCompleted(reader.readNullableLong(), reader.readString(), reader.readMoney());
+      case WITHDRAWAL_COMPLETED:
+        return new WithdrawalCompleted(reader.readNullableLong(), reader.readString(), reader.readMoney());
+      case TRANSFER_COMPLETED:
+        return new TransferCompleted(reader.readNullableLong(), reader.readString(), reader.readNullableLong(),
+                reader.readMoney());
+      case BULK_IMPORT_COMPLETED:
+        return new BulkImportCompleted((int) reader.readVarLong(), (int) reader.readVarLong());
+      case ACCOUNT_CREATED:
+        return new AccountCreated(reader.readNullableLong(), reader.readString(), reader.readMoney());
+      case ACCOUNT_UPDATED:
+        return new AccountUpdated(reader.readNullableLong(), reader.readString(), reader.readMoney());
+      case ACCOUNT_DELETED:
+        return new AccountDeleted(reader.readNullableLong(), reader.readString(), reader.readMoney());
+      case INVESTMENT_PLACED: {
+        Long investmentId = reader.readNullableLong();
+        String investmentType = reader.readString();
+        return new InvestmentPlaced(investmentId,
+                investmentType == null ? null : InvestmentType.valueOf(investmentType),
+                reader.readMoney(), reader.readNullableLong(), reader.readNullableLong());
+      }
+      case INVESTMENT_DELETED:
+        return new InvestmentDeleted(reader.readNullableLong());
+      case ADVISORY_SESSION_ORDERED:
+        return new AdvisorySessionOrdered(reader.readNullableLong(), reader.readDate(), reader.readTime());
+      case ADVISORY_SESSION_RESCHEDULED:
+        return new AdvisorySessionRescheduled(reader.readNullableLong(), reader.readDate(), reader.readTime());
+      case ADVISORY_SESSION_DELETED:
+        return new AdvisorySessionDeleted(reader.readNullableLong());
+      default:
+        throw new IllegalArgumentException("Unknown notification payload type " + type);
+    }
+  }
+
+  private static Long numericUserId(String userId) {
+    if (userId == null || userId.isEmpty() || userId.length() > 18) {
+      return null;
+    }
+    for (int i = 0; i < userId.length(); i++) {
+      if (!Character.isDigit(userId.charAt(i))) {
+        return null;
+      }
+    }
+    long id = Long.parseLong(userId);
+    return Long.toString(id).equals(userId) ? id : null;
+  }
+
+  /**
+   * Returns the parsed timestamp only when formatting it back gives the same text,
+   * so that decoding never changes the event.
+   */
+  private static LocalDateTime localTimestamp(String timestamp) {
+    if (timestamp == null) {
+      return null;
+    }
+    try {
+      LocalDateTime parsed = LocalDateTime.parse(timestamp);
+      return parsed.toString().equals(timestamp) && parsed.getYear() >= 1970 ? parsed : null;
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  private static UUID uuidEventId(String eventId) {
+    if (eventId == null || eventId.length() != 36) {
+      return null;
+    }
+    try {
+      UUID parsed = UUID.fromString(eventId);
+      return parsed.toString().equals(eventId) ? parsed : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static final class Writer {
+    private byte[] buffer = new byte[128];
+    private int size;
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[size++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+      ensureCapacity(10);
+      while ((value & ~0x7FL) != 0) {
+        buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[size++] = (byte) value;
+    }
+
+    void writeFixedLong(long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeNullableLong(Long value) {
+      writeVarLong(value == null ? 0 : ((value << 1) ^ (value >> 63)) + 1);
+    }
+
+    void writeMoney(Money money) {
+      if (money == null) {
+        writeString(null);
+        return;
+      }
+      writeString(money.currency());
+      writeNullableLong(money.minorUnits());
+    }
+
+    void writeString(String value) {
+      if (value == null) {
+        writeVarLong(0);
+        return;
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(bytes.length + 1L);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, size, bytes.length);
+      size += bytes.length;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int extra) {
+      if (size + extra > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+      }
+    }
+  }
+
+  private static final class Reader {
+    private final byte[] data;
+    private int position;
+
+    Reader(byte[] data, int position) {
+      this.data = data;
+      this.position = position;
+    }
+
+    int readByte() {
+      checkAvailable(1);
+      return data[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Malformed varint in notification event");
+    }
+
+    long readFixedLong() {
+      checkAvailable(8);
+      long value = 0;
+      for (int i = 0; i < 8; i++) {
+        value = (value << 8) | (data[position++] & 0xFF);
+      }
+      return value;
+    }
+
+    Long readNullableLong() {
+      long value = readVarLong();
+      if (value == 0) {
+        return null;
+      }
+      value--;
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    Money readMoney() {
+      String currency = readString();
+      return currency == null ? null : new Money(readNullableLong(), currency);
+    }
+
+    LocalDate readDate() {
+      Long epochDay = readNullableLong();
+      return epochDay == null ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    LocalTime readTime() {
+      Long nanoOfDay = readNullableLong();
+      return nanoOfDay == null ? null : LocalTime.ofNanoOfDay(nanoOfDay);
+    }
+
+    String readString() {
+      long length = readVarLong();
+      if (length == 0) {
+        return null;
+      }
+      int bytes = (int) (length - 1);
+      checkAvailable(bytes);
+      String value = new String(data, position, bytes, StandardCharsets.UTF_8);
+      position += bytes;
+      return value;
+    }
+
+    private void checkAvailable(int bytes) {
+      if (bytes < 0 || position + bytes > data.length) {
+        throw new IllegalArgumentException("Truncated notification event");
+      }
+    }
+  }
+}
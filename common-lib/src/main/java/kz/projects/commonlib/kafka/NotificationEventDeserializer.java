@@ -0,0 +1,30 @@
+package kz.projects.commonlib.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.commonlib.dto.NotificationEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka deserializer for {@link NotificationEvent} accepting both the {@link NotificationEventCodec} binary form
+ * and JSON, so consumers keep reading records written before producers switched formats.
+ */
+public class NotificationEventDeserializer implements Deserializer<NotificationEvent> {
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  @Override
+  public NotificationEvent deserialize(String topic, byte[] data) {
+    if (data == null) {
+      return null;
+    }
+    try {
+      return NotificationEventCodec.isBinary(data)
+              ? NotificationEventCodec.decode(data)
+              : objectMapper.readValue(data, NotificationEvent.class);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new SerializationException("Unable to deserialize notification event from " + topic, e);
+    }
+  }
+}
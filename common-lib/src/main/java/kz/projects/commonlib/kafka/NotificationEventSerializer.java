@@ -0,0 +1,15 @@
+package kz.projects.commonlib.kafka;
+
+import kz.projects.commonlib.dto.NotificationEvent;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing {@link NotificationEvent} in the {@link NotificationEventCodec} binary form.
+ */
+public class NotificationEventSerializer implements Serializer<NotificationEvent> {
+
+  @Override
+  public byte[] serialize(String topic, NotificationEvent event) {
+    return event == null ? null : NotificationEventCodec.encode(event);
+  }
+}
@@ -0,0 +1,105 @@
+package kz.projects.commonlib.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Fixed-point amount of money: a whole number of minor units (e.g. tiyn, cents) in a currency.
+ * Arithmetic is exact and fails with {@link ArithmeticException} on overflow. Hot paths that must not
+ * allocate work on {@link #minorUnits()} directly with {@link Math#addExact} and {@link Math#subtractExact}.
+ */
+@JsonSerialize(using = MoneySerializer.class)
+@JsonDeserialize(using = MoneyDeserializer.class)
+public record Money(long minorUnits, String currency) implements Comparable<Money> {
+  public static final String DEFAULT_CURRENCY = "KZT";
+
+  private static final int DEFAULT_FRACTION_DIGITS = fractionDigits(DEFAULT_CURRENCY);
+
+  public Money {
+    Objects.requireNonNull(currency, "currency");
+    if (!DEFAULT_CURRENCY.equals(currency)) {
+      fractionDigits(currency);
+    }
+  }
+
+  public static Money ofMinor(long minorUnits) {
+    return new Money(minorUnits, DEFAULT_CURRENCY);
+  }
+
+  public static Money of(BigDecimal amount) {
+    return of(amount, DEFAULT_CURRENCY);
+  }
+
+  public static Money of(String amount) {
+    return of(new BigDecimal(amount), DEFAULT_CURRENCY);
+  }
+
+  public static Money of(BigDecimal amount, String currency) {
+    try {
+      return new Money(amount.movePointRight(fractionDigits(currency)).longValueExact(), currency);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException(
+              "Amount " + amount.toPlainString() + " cannot be represented exactly in " + currency);
+    }
+  }
+
+  public static Money zero() {
+    return ofMinor(0);
+  }
+
+  /**
+   * Returns the number of minor units in one major unit of the currency, e.g. 100 for KZT.
+   */
+  public static long minorUnitsPerMajor(String currency) {
+    return BigDecimal.ONE.movePointRight(fractionDigits(currency)).longValueExact();
+  }
+
+  public Money plus(Money other) {
+    checkSameCurrency(other);
+    return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+  }
+
+  public Money minus(Money other) {
+    checkSameCurrency(other);
+    return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+  }
+
+  public boolean isPositive() {
+    return minorUnits > 0;
+  }
+
+  public boolean isNegative() {
+    return minorUnits < 0;
+  }
+
+  public BigDecimal toDecimal() {
+    return BigDecimal.valueOf(minorUnits, DEFAULT_CURRENCY.equals(currency)
+            ? DEFAULT_FRACTION_DIGITS
+            : fractionDigits(currency));
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    checkSameCurrency(other);
+    return Long.compare(minorUnits, other.minorUnits);
+  }
+
+  @Override
+  public String toString() {
+    return toDecimal().toPlainString() + " " + currency;
+  }
+
+  private void checkSameCurrency(Money other) {
+    if (!currency.equals(other.currency)) {
+      throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+    }
+  }
+
+  private static int fractionDigits(String currency) {
+    return Math.max(Currency.getInstance(currency).getDefaultFractionDigits(), 0);
+  }
+}
@@ -0,0 +1,66 @@
+package kz.projects.commonlib.money;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Converts money columns created as floating point amounts in major units to {@code BIGINT} minor units
+ * of {@link Money#DEFAULT_CURRENCY}. Columns that are already integral or do not exist yet are left alone,
+ * so the migration is safe to run on every start. Must run before Hibernate validates or updates the schema.
+ */
+public class MoneyColumnMigration {
+  private static final String COLUMN_TYPE_SQL =
+          "SELECT data_type FROM information_schema.columns " +
+                  "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?";
+  private static final List<String> FRACTIONAL_TYPES = List.of("double precision", "real", "numeric");
+
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final DataSource dataSource;
+  private final List<String> columns;
+
+  /**
+   * @param dataSource data source of the service
+   * @param columns    columns to migrate as {@code table.column}
+   */
+  public MoneyColumnMigration(DataSource dataSource, List<String> columns) {
+    this.dataSource = dataSource;
+    this.columns = List.copyOf(columns);
+  }
+
+  public void migrate() throws SQLException {
+    long scale = Money.minorUnitsPerMajor(Money.DEFAULT_CURRENCY);
+    try (Connection connection = dataSource.getConnection()) {
+      for (String column : columns) {
+        int separator = column.indexOf('.');
+        String table = column.substring(0, separator);
+        String name = column.substring(separator + 1);
+        if (!FRACTIONAL_TYPES.contains(columnType(connection, table, name))) {
+          continue;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("ALTER TABLE " + table + " ALTER COLUMN " + name +
+                  " TYPE BIGINT USING ROUND(" + name + " * " + scale + ")");
+        }
+        log.info("Converted " + column + " to minor units of " + Money.DEFAULT_CURRENCY);
+      }
+    }
+  }
+
+  private String columnType(Connection connection, String table, String column) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(COLUMN_TYPE_SQL)) {
+      statement.setString(1, table);
+      statement.setString(2, column);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() ? resultSet.getString(1) : null;
+      }
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package kz.projects.commonlib.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Money} in {@link Money#DEFAULT_CURRENCY} as a {@code BIGINT} column of minor units.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+  @Override
+  public Long convertToDatabaseColumn(Money money) {
+    if (money == null) {
+      return null;
+    }
+    if (!Money.DEFAULT_CURRENCY.equals(money.currency())) {
+      throw new IllegalArgumentException("Only " + Money.DEFAULT_CURRENCY + " amounts can be stored");
+    }
+    return money.minorUnits();
+  }
+
+  @Override
+  public Money convertToEntityAttribute(Long minorUnits) {
+    return minorUnits == null ? null : Money.ofMinor(minorUnits);
+  }
+}
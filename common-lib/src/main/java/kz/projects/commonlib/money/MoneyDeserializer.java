@@ -0,0 +1,69 @@
+package kz.projects.commonlib.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Reads {@link Money} written by {@link MoneySerializer}: a bare number or numeric string is read
+ * as an amount in {@link Money#DEFAULT_CURRENCY}. An {@code {"amount": ..., "currency": ...}} object
+ * is also accepted on input. Amounts are parsed from the JSON text, never through {@code double}.
+ */
+public class MoneyDeserializer extends StdDeserializer<Money> {
+
+  public MoneyDeserializer() {
+    super(Money.class);
+  }
+
+  @Override
+  public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+      return toMoney(p, ctxt, p.getDecimalValue(), Money.DEFAULT_CURRENCY);
+    }
+    if (token == JsonToken.VALUE_STRING) {
+      return toMoney(p, ctxt, parseDecimal(p, ctxt, p.getText()), Money.DEFAULT_CURRENCY);
+    }
+    if (token != JsonToken.START_OBJECT) {
+      return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+    }
+
+    BigDecimal amount = null;
+    String currency = Money.DEFAULT_CURRENCY;
+    for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+      JsonToken value = p.nextToken();
+      switch (field) {
+        case "amount" -> amount = value == JsonToken.VALUE_STRING
+                ? parseDecimal(p, ctxt, p.getText())
+                : p.getDecimalValue();
+        case "currency" -> currency = p.getText();
+        default -> p.skipChildren();
+      }
+    }
+    if (amount == null) {
+      return ctxt.reportInputMismatch(Money.class, "Missing money amount");
+    }
+    return toMoney(p, ctxt, amount, currency);
+  }
+
+  private BigDecimal parseDecimal(JsonParser p, DeserializationContext ctxt, String text) throws IOException {
+    try {
+      return new BigDecimal(text.trim());
+    } catch (NumberFormatException e) {
+      return (BigDecimal) ctxt.handleWeirdStringValue(BigDecimal.class, text, "Not a valid money amount");
+    }
+  }
+
+  private Money toMoney(JsonParser p, DeserializationContext ctxt, BigDecimal amount, String currency)
+          throws IOException {
+    try {
+      return Money.of(amount, currency);
+    } catch (IllegalArgumentException e) {
+      return (Money) ctxt.handleWeirdNumberValue(Money.class, amount, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package kz.projects.commonlib.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link Money} as a plain JSON number with an exact decimal amount, e.g. {@code 100.50}.
+ * The currency is not written: amounts on the wire are always in {@link Money#DEFAULT_CURRENCY}.
+ */
+public class MoneySerializer extends StdSerializer<Money> {
+
+  public MoneySerializer() {
+    super(Money.class);
+  }
+
+  @Override
+  public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+    gen.writeNumber(value.toDecimal());
+  }
+}
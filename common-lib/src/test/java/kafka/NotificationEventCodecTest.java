@@ -0,0 +1,151 @@
+package kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.dto.enums.InvestmentType;
+import kz.projects.commonlib.dto.notification.AccountUpdated;
+import kz.projects.commonlib.dto.notification.AdvisorySessionRescheduled;
+import kz.projects.commonlib.dto.notification.BulkImportCompleted;
+import kz.projects.commonlib.dto.notification.InvestmentDeleted;
+import kz.projects.commonlib.dto.notification.InvestmentPlaced;
+import kz.projects.commonlib.dto.notification.NotificationPayload;
+import kz.projects.commonlib.dto.notification.TransferCompleted;
+import kz.projects.commonlib.kafka.NotificationEventCodec;
+import kz.projects.commonlib.kafka.NotificationEventDeserializer;
+import kz.projects.commonlib.kafka.NotificationEventSerializer;
+import kz.projects.commonlib.money.Money;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NotificationEventCodecTest {
+
+  private final NotificationEventSerializer serializer = new NotificationEventSerializer();
+  private final NotificationEventDeserializer deserializer = new NotificationEventDeserializer();
+
+  @Test
+  public void testRoundTrip_Message() {
+    NotificationEvent event = new NotificationEvent("42", "Test User", "test@example.com",
+            "Operation went successfully! \nOperation: deposit\nAmount: 100.00\nAccount ID: 7\nAccount Type: SAVINGS\n",
+            LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_789).toString());
+
+    assertSameEvent(event, deserializer.deserialize("topic-transactions", serializer.serialize("topic-transactions", event)));
+  }
+
+  @Test
+  public void testRoundTrip_FreeTextAndNonStandardFields() {
+    NotificationEvent event = new NotificationEvent("user-42", null, "test@example.com",
+            "Счет пополнен", "yesterday");
+
+    assertSameEvent(event, NotificationEventCodec.decode(NotificationEventCodec.encode(event)));
+  }
+
+  @Test
+  public void testRoundTrip_TypedPayloads() {
+    List<NotificationPayload> payloads = List.of(
+            new TransferCompleted(1L, "SAVINGS", 2L, Money.of("100.50")),
+            new BulkImportCompleted(998, 2),
+            new AccountUpdated(7L, null, Money.ofMinor(-1_00L)),
+            new InvestmentPlaced(3L, InvestmentType.values()[0], Money.of("10.00"), 1L, 1_714_558_530_123L),
+            new InvestmentDeleted(null),
+            new AdvisorySessionRescheduled(5L, LocalDate.of(2024, 5, 1), LocalTime.of(14, 30)));
+
+    for (NotificationPayload payload : payloads) {
+      NotificationEvent event = new NotificationEvent("42", "Test User", "test@example.com", payload,
+              LocalDateTime.now().toString());
+
+      NotificationEvent decoded = NotificationEventCodec.decode(NotificationEventCodec.encode(event));
+
+      assertSameEvent(event, decoded);
+      assertEquals(payload, decoded.getPayload());
+    }
+  }
+
+  @Test
+  public void testRoundTrip_EventId() {
+    NotificationEvent event = new NotificationEvent("42", "Test User", "test@example.com", "hello", "now");
+    event.setEventId(UUID.randomUUID().toString());
+    byte[] withUuid = NotificationEventCodec.encode(event);
+    assertSameEvent(event, NotificationEventCodec.decode(withUuid));
+
+    event.setEventId("outbox-17");
+    assertSameEvent(event, NotificationEventCodec.decode(NotificationEventCodec.encode(event)));
+
+    event.setEventId(null);
+    byte[] withoutId = NotificationEventCodec.encode(event);
+    assertSameEvent(event, NotificationEventCodec.decode(withoutId));
+    assertEquals(withoutId.length + 15, withUuid.length);
+  }
+
+  @Test
+  public void testDeserialize_JsonPayload() throws Exception {
+    NotificationEvent event = new NotificationEvent("42", "Test User", "test@example.com",
+            new AdvisorySessionRescheduled(5L, LocalDate.of(2024, 5, 1), LocalTime.of(14, 30)), "now");
+    byte[] json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(event);
+
+    assertEquals(event.getPayload(), deserializer.deserialize("topic-advisory", json).getPayload());
+  }
+
+  @Test
+  public void testEncode_SmallerThanJson() throws Exception {
+    NotificationEvent event = new NotificationEvent("42", "Test User", "test@example.com",
+            new TransferCompleted(1L, "SAVINGS", 2L, Money.of("100.50")), LocalDateTime.now().toString());
+
+    int json = new ObjectMapper().writeValueAsBytes(event).length;
+    int binary = NotificationEventCodec.encode(event).length;
+
+    assertTrue(binary * 2 < json, "binary " + binary + " bytes, json " + json + " bytes");
+  }
+
+  @Test
+  public void testDeserialize_JsonFallback() {
+    byte[] json = ("{\"userId\":\"42\",\"username\":\"Test User\",\"email\":\"test@example.com\"," +
+            "\"message\":\"hello\",\"timestamp\":\"2024-05-01T10:15:30\"}").getBytes(StandardCharsets.UTF_8);
+
+    NotificationEvent event = deserializer.deserialize("topic-account", json);
+
+    assertEquals("42", event.getUserId());
+    assertEquals("hello", event.getMessage());
+    assertEquals("2024-05-01T10:15:30", event.getTimestamp());
+  }
+
+  @Test
+  public void testDeserialize_Truncated() {
+    byte[] data = serializer.serialize("topic-account",
+            new NotificationEvent("42", "Test User", "test@example.com", "hello", "now"));
+    byte[] truncated = Arrays.copyOf(data, data.length - 2);
+
+    assertThrows(SerializationException.class, () -> deserializer.deserialize("topic-account", truncated));
+    assertNull(deserializer.deserialize("topic-account", null));
+  }
+
+  @Test
+  public void testDecode_RejectsOtherVersions() {
+    byte[] data = NotificationEventCodec.encode(
+            new NotificationEvent("42", "Test User", "test@example.com", "hello", "now"));
+    data[1] = NotificationEventCodec.VERSION - 1;
+
+    assertThrows(IllegalArgumentException.class, () -> NotificationEventCodec.decode(data));
+  }
+
+  private void assertSameEvent(NotificationEvent expected, NotificationEvent actual) {
+    assertEquals(expected.getUserId(), actual.getUserId());
+    assertEquals(expected.getUsername(), actual.getUsername());
+    assertEquals(expected.getEmail(), actual.getEmail());
+    assertEquals(expected.getMessage(), actual.getMessage());
+    assertEquals(expected.getTimestamp(), actual.getTimestamp());
+    assertEquals(expected.getEventId(), actual.getEventId());
+  }
+}
@@ -0,0 +1,25 @@
+package money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.projects.commonlib.money.Money;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MoneyJsonTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  public void testSerialize_WritesPlainNumber() throws Exception {
+    assertEquals("100.50", objectMapper.writeValueAsString(Money.of("100.50")));
+  }
+
+  @Test
+  public void testDeserialize_ReadsPlainNumberAndObject() throws Exception {
+    assertEquals(Money.ofMinor(100_50L), objectMapper.readValue("100.50", Money.class));
+    assertEquals(Money.ofMinor(100_50L), objectMapper.readValue("\"100.50\"", Money.class));
+    assertEquals(Money.ofMinor(100_50L),
+            objectMapper.readValue("{\"amount\": 100.50, \"currency\": \"KZT\"}", Money.class));
+  }
+}
@@ -0,0 +1,25 @@
+package kz.projects.ias.config;
+
+import kz.projects.commonlib.money.MoneyColumnMigration;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Configuration
+public class MoneyConfig {
+
+  @Bean(initMethod = "migrate")
+  public MoneyColumnMigration moneyColumnMigration(DataSource dataSource) {
+    return new MoneyColumnMigration(dataSource, List.of("t_investments.amount"));
+  }
+
+  @Configuration
+  static class MoneyColumnMigrationDependency extends EntityManagerFactoryDependsOnPostProcessor {
+    MoneyColumnMigrationDependency() {
+      super("moneyColumnMigration");
+    }
+  }
+}
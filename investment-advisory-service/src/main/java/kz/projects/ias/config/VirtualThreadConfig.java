@@ -0,0 +1,19 @@
+package kz.projects.ias.config;
+
+import kz.projects.commonlib.diagnostics.VirtualThreadPinningMonitor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "ias.virtual-threads.pinning-monitor.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+  @Bean(initMethod = "start", destroyMethod = "close")
+  public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+          @Value("${ias.virtual-threads.pinning-monitor.threshold-ms:20}") long thresholdMs) {
+    return new VirtualThreadPinningMonitor(Duration.ofMillis(thresholdMs), (site, duration) -> { });
+  }
+}
@@ -1,6 +1,7 @@
 package kz.projects.ias.dto;
 
 import kz.projects.commonlib.dto.enums.InvestmentType;
+import kz.projects.commonlib.money.Money;
 
 import java.util.Date;
 
@@ -9,6 +10,6 @@ public record InvestmentDTO(
         Long userId,
         Long accountId,
         InvestmentType investmentType,
-        Double amount,
+        Money amount,
         Date date
 ) {}
\ No newline at end of file
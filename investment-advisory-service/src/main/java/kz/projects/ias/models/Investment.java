@@ -1,5 +1,6 @@
 package kz.projects.ias.models;
 
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -10,6 +11,8 @@ import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
 import kz.projects.commonlib.dto.enums.InvestmentType;
+import kz.projects.commonlib.money.Money;
+import kz.projects.commonlib.money.MoneyConverter;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -33,7 +36,8 @@ public class Investment {
   @Enumerated(EnumType.STRING)
   private InvestmentType investmentType;
 
-  private Double amount;
+  @Convert(converter = MoneyConverter.class)
+  private Money amount;
 
   @Temporal(TemporalType.TIMESTAMP)
   private Date date;
@@ -3,6 +3,7 @@ package service.impl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import kz.projects.commonlib.dto.BalanceCheckResponse;
 import kz.projects.commonlib.dto.enums.InvestmentType;
+import kz.projects.commonlib.money.Money;
 import kz.projects.ias.dto.InvestmentDTO;
 import kz.projects.ias.exceptions.NotSufficientFundsException;
 import kz.projects.ias.mapper.InvestmentsMapper;
@@ -63,7 +64,7 @@ public class InvestmentServiceImplTest {
 
       BalanceCheckResponse balanceCheckResponse = new BalanceCheckResponse(
               true,
-              1000.0
+              Money.of("1000.00")
       );
       mockWebServer.enqueue(new MockResponse()
               .setResponseCode(200)
@@ -76,7 +77,7 @@ public class InvestmentServiceImplTest {
               1L,
               1L,
               InvestmentType.STOCKS,
-              500.0,
+              Money.of("500.00"),
               new Date()
       );
 
@@ -136,7 +137,7 @@ public class InvestmentServiceImplTest {
               1L,
               1L,
               InvestmentType.STOCKS,
-              1500.0,
+              Money.of("1500.00"),
               new Date()
       );
 
@@ -156,8 +157,8 @@ public class InvestmentServiceImplTest {
   void testGetAllInvestments() {
     Long userId = 1L;
     List<Investment> investments = Arrays.asList(
-            new Investment(1L, userId, InvestmentType.STOCKS, 1000.0, new Date()),
-            new Investment(2L, userId, InvestmentType.BOND, 500.0, new Date())
+            new Investment(1L, userId, InvestmentType.STOCKS, Money.of("1000.00"), new Date()),
+            new Investment(2L, userId, InvestmentType.BOND, Money.of("500.00"), new Date())
     );
 
     when(investmentRepository.findAllByUserId(userId)).thenReturn(investments);
@@ -175,11 +176,11 @@ public class InvestmentServiceImplTest {
             1L,
             1L,
             InvestmentType.STOCKS,
-            800.0,
+            Money.of("800.00"),
             new Date()
     );
 
-    Investment existingInvestment = new Investment(1L, 1L, InvestmentType.STOCKS, 500.0, new Date());
+    Investment existingInvestment = new Investment(1L, 1L, InvestmentType.STOCKS, Money.of("500.00"), new Date());
     Investment updatedInvestment = InvestmentsMapper.toEntity(request);
 
     when(investmentRepository.findById(request.id())).thenReturn(java.util.Optional.of(existingInvestment));
@@ -199,7 +200,7 @@ public class InvestmentServiceImplTest {
   void testDeleteInvestment() {
     Long id = 1L;
     Long userId = 1L;
-    Investment investment = new Investment(id, userId, InvestmentType.STOCKS, 1000.0, new Date());
+    Investment investment = new Investment(id, userId, InvestmentType.STOCKS, Money.of("1000.00"), new Date());
 
     when(investmentRepository.findById(id)).thenReturn(java.util.Optional.of(investment));
 
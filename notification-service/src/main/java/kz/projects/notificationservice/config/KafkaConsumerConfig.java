@@ -1,43 +1,92 @@
 package kz.projects.notificationservice.config;
 
 import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.kafka.NotificationEventDeserializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Each listener runs as many consumers as {@code notification.kafka.consumer.<topic>.concurrency}.
+ * Every partition is consumed by exactly one of them, so events of a user keep their order
+ * while throughput grows with partitions, cores and pods.
+ * <p>
+ * Failed records are handed over by {@link KafkaRetryConfig#notificationErrorHandler} and never block
+ * the partition.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} on Java 21 the consumer threads of both factories are virtual,
+ * like the Tomcat and {@code @Async} threads Boot switches over.
+ */
 @EnableKafka
 @Configuration
 public class KafkaConsumerConfig {
   @Value("${spring.kafka.bootstrap-servers}")
   private String bootstrapServers;
 
+  @Value("${notification.kafka.consumer.max-poll-records:500}")
+  private int maxPollRecords;
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreads;
+
   @Bean
   public ConsumerFactory<String, NotificationEvent> consumerFactory() {
     Map<String, Object> props = new HashMap<>();
     props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
     props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-    props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-
-    props.put(JsonDeserializer.TRUSTED_PACKAGES, "kz.projects.commonlib.dto");
+    props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+    props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, NotificationEventDeserializer.class);
+    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 
     return new DefaultKafkaConsumerFactory<>(props);
   }
 
   @Bean
-  public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> kafkaListenerContainerFactory() {
+  public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> kafkaListenerContainerFactory(
+          DefaultErrorHandler notificationErrorHandler) {
+    ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory());
+    factory.setCommonErrorHandler(notificationErrorHandler);
+    useVirtualThreads(factory);
+    return factory;
+  }
+
+  /**
+   * Container factory for listeners receiving a whole poll as a list; offsets are committed once per batch.
+   */
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> batchKafkaListenerContainerFactory(
+          DefaultErrorHandler notificationErrorHandler) {
     ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
     factory.setConsumerFactory(consumerFactory());
+    factory.setCommonErrorHandler(notificationErrorHandler);
+    factory.setBatchListener(true);
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+    useVirtualThreads(factory);
     return factory;
   }
-}
\ No newline at end of file
+
+  private void useVirtualThreads(ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory) {
+    if (virtualThreads && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+      SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("kafka-listener-");
+      executor.setVirtualThreads(true);
+      factory.getContainerProperties().setListenerTaskExecutor(executor);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package kz.projects.notificationservice.config;
+
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.kafka.NotificationEventSerializer;
+import kz.projects.notificationservice.metrics.NotificationRetryMetrics;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.DestinationTopic;
+import org.springframework.kafka.retrytopic.RetryTopicComponentFactory;
+import org.springframework.kafka.retrytopic.RetryTopicNamesProviderFactory;
+import org.springframework.kafka.retrytopic.SuffixingRetryTopicNamesProviderFactory.SuffixingRetryTopicNamesProvider;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Failed notifications leave the main topics instead of being redelivered in place, so one bad
+ * address cannot stall a partition. A failed event is published to {@link #RETRY_TOPIC}, retried
+ * there with exponential backoff by {@code NotificationRetryConsumer} and finally parked in
+ * {@link #DEAD_LETTER_TOPIC}. Records that cannot be deserialized go to the dead-letter topic
+ * directly with their original bytes. The backoff stages of the retry topic are named
+ * {@code topic-notification-retry-N}.
+ */
+@EnableScheduling
+@Configuration
+public class KafkaRetryConfig {
+  public static final String RETRY_TOPIC = "topic-notification-retry";
+  public static final String DEAD_LETTER_TOPIC = RETRY_TOPIC + "-dlt";
+
+  @Value("${spring.kafka.bootstrap-servers}")
+  private String bootstrapServers;
+
+  @Bean
+  public ProducerFactory<Object, Object> retryProducerFactory() {
+    Map<String, Object> props = new HashMap<>();
+    props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    props.put(ProducerConfig.ACKS_CONFIG, "all");
+
+    Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+    valueSerializers.put(byte[].class, new ByteArraySerializer());
+    valueSerializers.put(NotificationEvent.class, new NotificationEventSerializer());
+    return new DefaultKafkaProducerFactory<>(props, null, new DelegatingByTypeSerializer(valueSerializers));
+  }
+
+  @Bean
+  public KafkaTemplate<Object, Object> retryKafkaTemplate() {
+    return new KafkaTemplate<>(retryProducerFactory());
+  }
+
+  /**
+   * Error handler of the main listeners: no in-place retries, the failed record is handed to the retry topic
+   * (or to the dead-letter topic if it could not be deserialized) and the partition moves on.
+   */
+  @Bean
+  public DefaultErrorHandler notificationErrorHandler(KafkaTemplate<Object, Object> retryKafkaTemplate,
+                                                      NotificationRetryMetrics retryMetrics) {
+    DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(retryKafkaTemplate,
+            (record, exception) -> {
+              if (record.value() == null) {
+                retryMetrics.deadLettered(record.topic());
+                return new TopicPartition(DEAD_LETTER_TOPIC, -1);
+              }
+              retryMetrics.failed(record.topic());
+              return new TopicPartition(RETRY_TOPIC, -1);
+            });
+    return new DefaultErrorHandler(recoverer, new FixedBackOff(0, 0));
+  }
+
+  /**
+   * Names each backoff stage by appending only its index to the retry topic. Spring inserts a retry suffix
+   * before the index and replaces a blank one with {@code -retry}, which would give
+   * {@code topic-notification-retry-retry-N}.
+   */
+  @Bean
+  public RetryTopicComponentFactory retryTopicComponentFactory() {
+    return new RetryTopicComponentFactory() {
+      @Override
+      public RetryTopicNamesProviderFactory retryTopicNamesProviderFactory() {
+        return KafkaRetryConfig::retryTopicNamesProvider;
+      }
+    };
+  }
+
+  private static SuffixingRetryTopicNamesProvider retryTopicNamesProvider(DestinationTopic.Properties properties) {
+    return new SuffixingRetryTopicNamesProvider(properties) {
+      @Override
+      public String getTopicName(String topic) {
+        if (!properties.isRetryTopic()) {
+          return super.getTopicName(topic);
+        }
+        String suffix = properties.suffix();
+        return topic + suffix.substring(suffix.lastIndexOf('-'));
+      }
+    };
+  }
+}
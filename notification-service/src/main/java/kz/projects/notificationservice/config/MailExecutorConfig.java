@@ -0,0 +1,35 @@
+package kz.projects.notificationservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded pool sending notification emails for batch listeners.
+ * When the queue is full the listener thread sends the email itself, which slows down polling
+ * instead of buffering an unbounded backlog in memory.
+ */
+@Configuration
+public class MailExecutorConfig {
+  @Value("${notification.mail.pool.threads:8}")
+  private int threads;
+
+  @Value("${notification.mail.pool.queue-capacity:1000}")
+  private int queueCapacity;
+
+  @Bean
+  public ThreadPoolTaskExecutor mailExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("mail-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    return executor;
+  }
+}
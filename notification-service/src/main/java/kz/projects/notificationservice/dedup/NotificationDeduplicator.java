@@ -0,0 +1,242 @@
+package kz.projects.notificationservice.dedup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kz.projects.commonlib.dto.NotificationEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Remembers ids of events whose email went out, so redelivered events are dropped before rendering and SMTP.
+ * <p>
+ * The last {@code notification.dedup.max-ids} ids are kept in memory and appended to
+ * {@code notification.dedup.store-path}, one per line. Ids are written in batches by the {@code dedup-appender}
+ * thread every {@code flush-interval-ms}, so marking an event never waits for the disk. On start the file is
+ * read back, so the index survives restarts; it is compacted to the retained ids once it grows to twice that
+ * size. The path defaults to {@code data/notification/sent-event-ids.log} under the working directory and must
+ * be on persistent storage (a mounted volume in containers): a temporary directory is wiped on reboot and
+ * duplicates would be mailed again. Ids older than the window are forgotten, and events without an id are never
+ * treated as duplicates.
+ * <p>
+ * An event is marked only after its email was sent, so a crash between the two, or before the id reaches the
+ * file, still sends it again.
+ */
+@Component
+public class NotificationDeduplicator {
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final Counter duplicates;
+
+  @Value("${notification.dedup.enabled:true}")
+  private boolean enabled;
+
+  @Value("${notification.dedup.store-path:data/notification/sent-event-ids.log}")
+  private Path storePath;
+
+  @Value("${notification.dedup.max-ids:200000}")
+  private int maxIds;
+
+  @Value("${notification.dedup.flush-interval-ms:100}")
+  private long flushIntervalMs;
+
+  /**
+   * Guards {@link #recentIds} and {@link #pendingIds}.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Guards the store file, held by the appender while it writes a batch.
+   */
+  private final ReentrantLock storeLock = new ReentrantLock();
+
+  private final LinkedHashSet<String> recentIds = new LinkedHashSet<>();
+  private List<String> pendingIds = new ArrayList<>();
+  private BufferedWriter store;
+  private int storedLines;
+  private ScheduledExecutorService appender;
+
+  public NotificationDeduplicator(MeterRegistry registry) {
+    this.duplicates = Counter.builder("notification.dedup.duplicates")
+            .description("Notification events dropped because their email was already sent")
+            .register(registry);
+  }
+
+  @PostConstruct
+  public void open() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    if (storePath.getParent() != null) {
+      Files.createDirectories(storePath.getParent());
+    }
+    List<String> stored = Files.exists(storePath)
+            ? Files.readAllLines(storePath, StandardCharsets.UTF_8)
+            : List.of();
+    for (String id : stored.subList(Math.max(0, stored.size() - maxIds), stored.size())) {
+      if (!id.isEmpty()) {
+        recentIds.remove(id);
+        recentIds.add(id);
+      }
+    }
+    compact(List.copyOf(recentIds));
+    log.info("Notification dedup index loaded with " + recentIds.size() + " event ids from " + storePath);
+
+    appender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "dedup-appender");
+      thread.setDaemon(true);
+      return thread;
+    });
+    appender.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Returns {@code true} if the email for this event was already sent.
+   */
+  public boolean isDuplicate(NotificationEvent event) {
+    String eventId = event.getEventId();
+    if (!enabled || eventId == null) {
+      return false;
+    }
+    lock.lock();
+    try {
+      if (!recentIds.contains(eventId)) {
+        return false;
+      }
+    } finally {
+      lock.unlock();
+    }
+    duplicates.increment();
+    return true;
+  }
+
+  /**
+   * Records that the email for this event was sent. The id is written to the store by the next flush.
+   */
+  public void markSent(NotificationEvent event) {
+    String eventId = event.getEventId();
+    if (!enabled || eventId == null) {
+      return;
+    }
+    lock.lock();
+    try {
+      if (!recentIds.add(eventId)) {
+        return;
+      }
+      if (recentIds.size() > maxIds) {
+        Iterator<String> oldest = recentIds.iterator();
+        oldest.next();
+        oldest.remove();
+      }
+      pendingIds.add(eventId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Appends the ids marked since the previous flush to the store with a single write.
+   */
+  public void flush() {
+    storeLock.lock();
+    try {
+      List<String> batch = takePending();
+      if (batch.isEmpty() || store == null) {
+        return;
+      }
+      for (String eventId : batch) {
+        store.write(eventId);
+        store.newLine();
+      }
+      store.flush();
+      storedLines += batch.size();
+      if (storedLines >= 2 * maxIds) {
+        compact(retainedIds());
+      }
+    } catch (IOException | RuntimeException e) {
+      log.log(Level.SEVERE, "Failed to store sent notification ids, they are only kept in memory", e);
+    } finally {
+      storeLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    if (appender != null) {
+      appender.shutdown();
+      try {
+        appender.awaitTermination(flushIntervalMs + 1000, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      appender = null;
+    }
+    flush();
+    storeLock.lock();
+    try {
+      closeStore();
+    } finally {
+      storeLock.unlock();
+    }
+  }
+
+  private List<String> takePending() {
+    lock.lock();
+    try {
+      List<String> batch = pendingIds;
+      pendingIds = new ArrayList<>();
+      return batch;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private List<String> retainedIds() {
+    lock.lock();
+    try {
+      return List.copyOf(recentIds);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Rewrites the store with the retained ids, dropping forgotten ones.
+   */
+  private void compact(List<String> retained) throws IOException {
+    closeStore();
+    Path compacted = storePath.resolveSibling(storePath.getFileName() + ".tmp");
+    Files.write(compacted, retained, StandardCharsets.UTF_8);
+    Files.move(compacted, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    storedLines = retained.size();
+    store = Files.newBufferedWriter(storePath, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+
+  private void closeStore() throws IOException {
+    if (store != null) {
+      store.close();
+      store = null;
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package kz.projects.notificationservice.digest;
+
+import jakarta.annotation.PreDestroy;
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.notificationservice.config.KafkaRetryConfig;
+import kz.projects.notificationservice.dedup.NotificationDeduplicator;
+import kz.projects.notificationservice.metrics.NotificationRetryMetrics;
+import kz.projects.notificationservice.service.MailSenderService;
+import kz.projects.notificationservice.service.NotificationRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects notifications of a user into a single digest letter.
+ * <p>
+ * Events from topics listed in {@code notification.digest.topics} are buffered per user. The digest is sent when
+ * {@code window-ms} has passed since its first event or when it holds {@code max-events} events. Payload types
+ * from {@code immediate-types}, events from other topics and events arriving while {@code max-users} digests
+ * are open or {@code max-buffered-events} events are buffered are sent right away.
+ * <p>
+ * Buffered events are only in memory: their offsets are already committed, so a crash loses at most
+ * {@code max-buffered-events} events received within the last window. Open digests are flushed on shutdown.
+ * If a digest cannot be sent, its events are published to {@link KafkaRetryConfig#RETRY_TOPIC} and retried
+ * one by one like any other failed notification.
+ */
+@Component
+public class NotificationCoalescer {
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final MailSenderService mailSenderService;
+  private final NotificationRenderer notificationRenderer;
+  private final NotificationDeduplicator notificationDeduplicator;
+  private final KafkaTemplate<Object, Object> retryKafkaTemplate;
+  private final NotificationRetryMetrics retryMetrics;
+  private final ThreadPoolTaskExecutor mailExecutor;
+  private final Set<String> digestTopics;
+  private final Set<String> immediateTypes;
+  private final long windowMs;
+  private final int maxEvents;
+  private final int maxUsers;
+  private final int maxBufferedEvents;
+
+  private final Map<String, Digest> digests = new ConcurrentHashMap<>();
+  private final AtomicInteger bufferedEvents = new AtomicInteger();
+  private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "digest-flusher");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public NotificationCoalescer(MailSenderService mailSenderService,
+                               NotificationRenderer notificationRenderer,
+                               NotificationDeduplicator notificationDeduplicator,
+                               KafkaTemplate<Object, Object> retryKafkaTemplate,
+                               NotificationRetryMetrics retryMetrics,
+                               ThreadPoolTaskExecutor mailExecutor,
+                               @Value("${notification.digest.topics:topic-transactions}") Set<String> digestTopics,
+                               @Value("${notification.digest.immediate-types:AccountDeleted}") Set<String> immediateTypes,
+                               @Value("${notification.digest.window-ms:60000}") long windowMs,
+                               @Value("${notification.digest.max-events:50}") int maxEvents,
+                               @Value("${notification.digest.max-users:10000}") int maxUsers,
+                               @Value("${notification.digest.max-buffered-events:10000}") int maxBufferedEvents) {
+    this.mailSenderService = mailSenderService;
+    this.notificationRenderer = notificationRenderer;
+    this.notificationDeduplicator = notificationDeduplicator;
+    this.retryKafkaTemplate = retryKafkaTemplate;
+    this.retryMetrics = retryMetrics;
+    this.mailExecutor = mailExecutor;
+    this.digestTopics = digestTopics;
+    this.immediateTypes = immediateTypes;
+    this.windowMs = windowMs;
+    this.maxEvents = maxEvents;
+    this.maxUsers = maxUsers;
+    this.maxBufferedEvents = maxBufferedEvents;
+
+    long tickMs = Math.max(10, Math.min(1000, windowMs / 4));
+    flusher.scheduleWithFixedDelay(this::flushDue, tickMs, tickMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Buffers the event for a digest.
+   *
+   * @return {@code false} if the event has to be sent on its own
+   */
+  public boolean offer(String topic, NotificationEvent event) {
+    if (!digestTopics.contains(topic) || event.getUserId() == null
+            || (event.getPayload() != null && immediateTypes.contains(event.getPayload().getClass().getSimpleName()))) {
+      return false;
+    }
+    if (bufferedEvents.get() >= maxBufferedEvents
+            || (digests.size() >= maxUsers && !digests.containsKey(event.getUserId()))) {
+      return false;
+    }
+
+    Digest[] full = new Digest[1];
+    digests.compute(event.getUserId(), (userId, digest) -> {
+      Digest current = digest != null ? digest : new Digest(System.currentTimeMillis());
+      if (current.contains(event.getEventId())) {
+        return current;
+      }
+      current.events.add(event);
+      current.topics.add(topic);
+      bufferedEvents.incrementAndGet();
+      if (current.events.size() >= maxEvents) {
+        full[0] = current;
+        return null;
+      }
+      return current;
+    });
+    if (full[0] != null) {
+      send(full[0]);
+    }
+    return true;
+  }
+
+  /**
+   * Sends digests whose window has passed. Runs on the flusher thread, and also delivers digests itself when
+   * the mail pool is saturated, so a failure of one digest is logged instead of cancelling the schedule.
+   */
+  public void flushDue() {
+    long now = System.currentTimeMillis();
+    for (Map.Entry<String, Digest> entry : digests.entrySet()) {
+      Digest digest = entry.getValue();
+      if (now - digest.openedAt >= windowMs && digests.remove(entry.getKey(), digest)) {
+        try {
+          send(digest);
+        } catch (RuntimeException e) {
+          log.log(Level.SEVERE, "Failed to flush notification digest of user " + entry.getKey(), e);
+        }
+      }
+    }
+  }
+
+  @PreDestroy
+  public void flushAll() {
+    flusher.shutdownNow();
+    for (String userId : digests.keySet()) {
+      Digest digest = digests.remove(userId);
+      if (digest != null) {
+        bufferedEvents.addAndGet(-digest.events.size());
+        deliver(digest);
+      }
+    }
+  }
+
+  private void send(Digest digest) {
+    bufferedEvents.addAndGet(-digest.events.size());
+    mailExecutor.execute(() -> deliver(digest));
+  }
+
+  private void deliver(Digest digest) {
+    NotificationEvent latest = digest.events.get(digest.events.size() - 1);
+    try {
+      mailSenderService.sendMail(latest.getEmail(), NotificationRenderer.SUBJECT,
+              notificationRenderer.digestLetter(digest.events));
+      digest.events.forEach(notificationDeduplicator::markSent);
+      log.info("Notification digest of " + digest.events.size() + " events send to email " + latest.getEmail());
+    } catch (RuntimeException e) {
+      log.log(Level.WARNING, "Failed to send notification digest to " + latest.getEmail()
+              + ", moving its events to " + KafkaRetryConfig.RETRY_TOPIC, e);
+      retry(digest);
+    }
+  }
+
+  private void retry(Digest digest) {
+    for (int i = 0; i < digest.events.size(); i++) {
+      NotificationEvent event = digest.events.get(i);
+      retryMetrics.failed(digest.topics.get(i));
+      try {
+        retryKafkaTemplate.send(KafkaRetryConfig.RETRY_TOPIC, event.getUserId(), event)
+                .whenComplete((result, e) -> {
+                  if (e != null) {
+                    moveFailed(event, e);
+                  }
+                });
+      } catch (RuntimeException e) {
+        moveFailed(event, e);
+      }
+    }
+  }
+
+  private void moveFailed(NotificationEvent event, Throwable e) {
+    log.log(Level.SEVERE, "Failed to move notification event " + event.getEventId()
+            + " of a digest to " + KafkaRetryConfig.RETRY_TOPIC, e);
+  }
+
+  private static final class Digest {
+    private final long openedAt;
+    private final List<NotificationEvent> events = new ArrayList<>();
+    private final List<String> topics = new ArrayList<>();
+
+    private Digest(long openedAt) {
+      this.openedAt = openedAt;
+    }
+
+    private boolean contains(String eventId) {
+      return eventId != null && events.stream().anyMatch(event -> eventId.equals(event.getEventId()));
+    }
+  }
+}
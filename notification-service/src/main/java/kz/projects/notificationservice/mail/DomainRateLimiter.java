@@ -0,0 +1,69 @@
+package kz.projects.notificationservice.mail;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Token bucket per recipient domain, so a burst of notifications does not trip the throttling
+ * of a single mail provider. Callers block until their domain has a free token.
+ */
+@Component
+public class DomainRateLimiter {
+  private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+  private final double permitsPerSecond;
+  private final double burst;
+
+  public DomainRateLimiter(@Value("${notification.mail.rate-limit.per-second:20}") double permitsPerSecond,
+                           @Value("${notification.mail.rate-limit.burst:40}") double burst) {
+    this.permitsPerSecond = permitsPerSecond;
+    this.burst = Math.max(1, burst);
+  }
+
+  public void acquire(String recipient) {
+    if (permitsPerSecond <= 0) {
+      return;
+    }
+    Bucket bucket = buckets.computeIfAbsent(domainOf(recipient), domain -> new Bucket(burst));
+    long waitNanos;
+    while ((waitNanos = bucket.tryAcquire(permitsPerSecond, burst)) > 0) {
+      LockSupport.parkNanos(waitNanos);
+      if (Thread.currentThread().isInterrupted()) {
+        throw new IllegalStateException("Interrupted while waiting for the mail rate limit");
+      }
+    }
+  }
+
+  static String domainOf(String recipient) {
+    int at = recipient == null ? -1 : recipient.lastIndexOf('@');
+    return at < 0 ? "" : recipient.substring(at + 1).toLowerCase(Locale.ROOT);
+  }
+
+  private static final class Bucket {
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    private Bucket(double tokens) {
+      this.tokens = tokens;
+    }
+
+    /**
+     * Takes a token and returns 0, or returns how long to wait for the next one.
+     */
+    synchronized long tryAcquire(double permitsPerSecond, double burst) {
+      long now = System.nanoTime();
+      tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+      refilledAt = now;
+      if (tokens >= 1) {
+        tokens--;
+        return 0;
+      }
+      return Math.max(1, (long) ((1 - tokens) * TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+    }
+  }
+}
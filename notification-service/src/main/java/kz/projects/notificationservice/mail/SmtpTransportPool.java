@@ -0,0 +1,143 @@
+package kz.projects.notificationservice.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of connected SMTP transports built from the {@code spring.mail.*} settings.
+ * <p>
+ * A connection, including its STARTTLS handshake and authentication, is opened once and then sends
+ * messages one after another until it has been idle for {@code max-idle-ms} or has sent
+ * {@code max-messages-per-connection} messages. The most recently used connection is reused first, so
+ * under light load the rest expire instead of being kept alive. A connection that fails is closed and
+ * the message is retried once on a new one.
+ */
+@Component
+public class SmtpTransportPool implements DisposableBean {
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final JavaMailSenderImpl mailSender;
+  private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+  private final Semaphore permits;
+  private final long maxIdleMs;
+  private final int maxMessagesPerConnection;
+
+  public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                           @Value("${notification.mail.smtp.max-connections:4}") int maxConnections,
+                           @Value("${notification.mail.smtp.max-idle-ms:60000}") long maxIdleMs,
+                           @Value("${notification.mail.smtp.max-messages-per-connection:100}")
+                           int maxMessagesPerConnection) {
+    this.mailSender = mailSender;
+    this.permits = new Semaphore(maxConnections, true);
+    this.maxIdleMs = maxIdleMs;
+    this.maxMessagesPerConnection = maxMessagesPerConnection;
+  }
+
+  public Session session() {
+    return mailSender.getSession();
+  }
+
+  /**
+   * Sends a message prepared with {@link #session()}, waiting for a free connection if all are busy.
+   */
+  public void send(MimeMessage message) throws MessagingException {
+    message.saveChanges();
+    try {
+      sendOnce(message);
+    } catch (SendFailedException e) {
+      throw e;
+    } catch (MessagingException e) {
+      log.log(Level.FINE, "SMTP connection failed, retrying on a new connection", e);
+      sendOnce(message);
+    }
+  }
+
+  private void sendOnce(MimeMessage message) throws MessagingException {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+    }
+    PooledTransport transport = null;
+    boolean reusable = false;
+    try {
+      transport = borrow();
+      transport.transport.sendMessage(message, message.getAllRecipients());
+      transport.sent++;
+      reusable = transport.sent < maxMessagesPerConnection;
+    } catch (SendFailedException e) {
+      reusable = transport != null && transport.transport.isConnected();
+      throw e;
+    } finally {
+      if (transport != null) {
+        release(transport, reusable);
+      }
+      permits.release();
+    }
+  }
+
+  private PooledTransport borrow() throws MessagingException {
+    long now = System.currentTimeMillis();
+    PooledTransport transport;
+    while ((transport = idle.pollFirst()) != null) {
+      if (now - transport.lastUsed < maxIdleMs && transport.transport.isConnected()) {
+        return transport;
+      }
+      close(transport);
+    }
+
+    String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+    Transport connection = mailSender.getSession().getTransport(protocol);
+    connection.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+    return new PooledTransport(connection);
+  }
+
+  private void release(PooledTransport transport, boolean reusable) {
+    if (reusable) {
+      transport.lastUsed = System.currentTimeMillis();
+      idle.offerFirst(transport);
+    } else {
+      close(transport);
+    }
+  }
+
+  private void close(PooledTransport transport) {
+    try {
+      transport.transport.close();
+    } catch (MessagingException e) {
+      log.log(Level.FINE, "Failed to close SMTP connection", e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    PooledTransport transport;
+    while ((transport = idle.pollFirst()) != null) {
+      close(transport);
+    }
+  }
+
+  private static final class PooledTransport {
+    private final Transport transport;
+    private long lastUsed = System.currentTimeMillis();
+    private int sent;
+
+    private PooledTransport(Transport transport) {
+      this.transport = transport;
+    }
+  }
+}
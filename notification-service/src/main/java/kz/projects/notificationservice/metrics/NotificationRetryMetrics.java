@@ -0,0 +1,127 @@
+package kz.projects.notificationservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import kz.projects.notificationservice.config.KafkaRetryConfig;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Retry and dead-letter metrics:
+ * <ul>
+ *   <li>{@code notification.kafka.failures} — events moved from a main topic to the retry topic;</li>
+ *   <li>{@code notification.kafka.retries} — retry attempts, tagged with the retry stage topic;</li>
+ *   <li>{@code notification.kafka.dead-lettered} — events parked in the dead-letter topic;</li>
+ *   <li>{@code notification.kafka.dlt.depth} — records currently kept in the dead-letter topic.</li>
+ * </ul>
+ * The depth is read from the topic offsets every {@code notification.kafka.retry.dlt-depth-interval-ms}.
+ */
+@Component
+public class NotificationRetryMetrics {
+  private static final long ADMIN_TIMEOUT_MS = 5000;
+
+  private final Logger log = Logger.getLogger(this.getClass().getName());
+
+  private final MeterRegistry registry;
+  private final KafkaAdmin kafkaAdmin;
+  private final AtomicLong deadLetterDepth = new AtomicLong();
+  private volatile AdminClient adminClient;
+
+  public NotificationRetryMetrics(MeterRegistry registry, KafkaAdmin kafkaAdmin) {
+    this.registry = registry;
+    this.kafkaAdmin = kafkaAdmin;
+    Gauge.builder("notification.kafka.dlt.depth", deadLetterDepth, AtomicLong::get)
+            .description("Notification events kept in the dead-letter topic")
+            .register(registry);
+  }
+
+  public void failed(String topic) {
+    counter("notification.kafka.failures", "Notification events sent to the retry topic", topic).increment();
+  }
+
+  public void retried(String topic) {
+    counter("notification.kafka.retries", "Retry attempts of notification events", topic).increment();
+  }
+
+  public void deadLettered(String topic) {
+    counter("notification.kafka.dead-lettered", "Notification events sent to the dead-letter topic", topic)
+            .increment();
+  }
+
+  @Scheduled(fixedDelayString = "${notification.kafka.retry.dlt-depth-interval-ms:30000}")
+  public void refreshDeadLetterDepth() {
+    try {
+      AdminClient admin = adminClient();
+      TopicDescription description = admin.describeTopics(List.of(KafkaRetryConfig.DEAD_LETTER_TOPIC))
+              .allTopicNames().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+              .get(KafkaRetryConfig.DEAD_LETTER_TOPIC);
+
+      Map<TopicPartition, OffsetSpec> earliest = new HashMap<>();
+      Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+      description.partitions().forEach(partition -> {
+        TopicPartition topicPartition = new TopicPartition(description.name(), partition.partition());
+        earliest.put(topicPartition, OffsetSpec.earliest());
+        latest.put(topicPartition, OffsetSpec.latest());
+      });
+
+      long depth = offsets(admin, latest) - offsets(admin, earliest);
+      deadLetterDepth.set(depth);
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      log.log(Level.FINE, "Unable to read dead-letter topic depth", e);
+    }
+  }
+
+  @PreDestroy
+  public void close() {
+    if (adminClient != null) {
+      adminClient.close(Duration.ofMillis(ADMIN_TIMEOUT_MS));
+    }
+  }
+
+  private long offsets(AdminClient admin, Map<TopicPartition, OffsetSpec> spec) throws Exception {
+    long sum = 0;
+    for (ListOffsetsResult.ListOffsetsResultInfo info
+            : admin.listOffsets(spec).all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS).values()) {
+      sum += info.offset();
+    }
+    return sum;
+  }
+
+  private AdminClient adminClient() {
+    if (adminClient == null) {
+      synchronized (this) {
+        if (adminClient == null) {
+          adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        }
+      }
+    }
+    return adminClient;
+  }
+
+  private Counter counter(String name, String description, String topic) {
+    return Counter.builder(name)
+            .description(description)
+            .tag("topic", topic)
+            .register(registry);
+  }
+}
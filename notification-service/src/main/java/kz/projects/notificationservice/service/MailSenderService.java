@@ -1,31 +1,40 @@
 package kz.projects.notificationservice.service;
 
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import kz.projects.notificationservice.mail.DomainRateLimiter;
+import kz.projects.notificationservice.mail.SmtpTransportPool;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends notification emails over pooled SMTP connections, respecting the rate limit of the recipient's domain.
+ */
 @Service
 @RequiredArgsConstructor
 public class MailSenderService {
-  private final JavaMailSender mailSender;
+  private final SmtpTransportPool transportPool;
+  private final DomainRateLimiter rateLimiter;
 
   @Value("${spring.mail.username}")
   private String from;
 
   public void sendMail(String to, String subject, String text) {
     try {
-      var message = mailSender.createMimeMessage();
+      MimeMessage message = new MimeMessage(transportPool.session());
 
-      MimeMessageHelper helper = new MimeMessageHelper(message);
+      MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
       helper.setTo(to);
       helper.setSubject(subject);
       helper.setText(text, true);
       helper.setFrom(from);
 
-      mailSender.send(message);
+      rateLimiter.acquire(to);
+      transportPool.send(message);
     } catch (MessagingException e) {
       throw new RuntimeException(e);
     }
@@ -0,0 +1,127 @@
+package kz.projects.notificationservice.service;
+
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.notificationservice.dedup.NotificationDeduplicator;
+import kz.projects.notificationservice.digest.NotificationCoalescer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Logger;
+
+/**
+ * Handles notification events a poll at a time.
+ * <p>
+ * Letters of the whole batch are rendered first, then sent on the bounded mail pool. The listener returns
+ * once every email of the batch is sent, and the container commits offsets once per batch. If a record fails,
+ * {@link BatchListenerFailedException} tells the container to commit the records before it, hand the failed one
+ * to the retry topic and redeliver the rest. A record that cannot be deserialized or rendered is reported only
+ * after the letters before it are sent, since their offsets are committed with the failure. Emails already
+ * sent after the failed one are recorded by {@link NotificationDeduplicator} and skipped on redelivery, as are
+ * events delivered twice. Events taken by {@link NotificationCoalescer} are sent later as part of a digest.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "notification.kafka.consumer.batch.enabled", havingValue = "true")
+public class NotificationBatchConsumer {
+  private final MailSenderService mailSenderService;
+  private final NotificationRenderer notificationRenderer;
+  private final ThreadPoolTaskExecutor mailExecutor;
+  private final NotificationCoalescer notificationCoalescer;
+  private final NotificationDeduplicator notificationDeduplicator;
+
+  Logger log = Logger.getLogger(this.getClass().getName());
+
+  @KafkaListener(topics = "topic-account", groupId = "account-consumer-group",
+          containerFactory = "batchKafkaListenerContainerFactory",
+          concurrency = "${notification.kafka.consumer.account.concurrency:${notification.kafka.consumer.concurrency:1}}")
+  public void consumeAccountEvents(List<NotificationEvent> notificationEvents) {
+    sendNotifications("topic-account", notificationEvents);
+  }
+
+  @KafkaListener(topics = "topic-transactions", groupId = "transactions-consumer-group",
+          containerFactory = "batchKafkaListenerContainerFactory",
+          concurrency = "${notification.kafka.consumer.transactions.concurrency:${notification.kafka.consumer.concurrency:1}}")
+  public void consumeTransactionsEvents(List<NotificationEvent> notificationEvents) {
+    sendNotifications("topic-transactions", notificationEvents);
+  }
+
+  @KafkaListener(topics = "topic-investment", groupId = "investment-consumer-group",
+          containerFactory = "batchKafkaListenerContainerFactory",
+          concurrency = "${notification.kafka.consumer.investment.concurrency:${notification.kafka.consumer.concurrency:1}}")
+  public void consumeInvestmentEvents(List<NotificationEvent> notificationEvents) {
+    sendNotifications("topic-investment", notificationEvents);
+  }
+
+  @KafkaListener(topics = "topic-advisory", groupId = "advisory-consumer-group",
+          containerFactory = "batchKafkaListenerContainerFactory",
+          concurrency = "${notification.kafka.consumer.advisory.concurrency:${notification.kafka.consumer.concurrency:1}}")
+  public void consumeAdvisoryEvents(List<NotificationEvent> notificationEvents) {
+    sendNotifications("topic-advisory", notificationEvents);
+  }
+
+  private void sendNotifications(String topic, List<NotificationEvent> notificationEvents) {
+    List<String> letters = new ArrayList<>(notificationEvents.size());
+    Set<String> batchEventIds = new HashSet<>();
+    BatchListenerFailedException failure = null;
+    for (int i = 0; i < notificationEvents.size(); i++) {
+      NotificationEvent event = notificationEvents.get(i);
+      if (event == null) {
+        failure = new BatchListenerFailedException("Failed to deserialize notification", i);
+        break;
+      }
+      if (notificationDeduplicator.isDuplicate(event)
+              || (event.getEventId() != null && !batchEventIds.add(event.getEventId()))) {
+        log.info("Duplicate notification event " + event.getEventId() + " skipped");
+        letters.add(null);
+        continue;
+      }
+      try {
+        letters.add(notificationCoalescer.offer(topic, event) ? null : notificationRenderer.letter(event));
+      } catch (RuntimeException e) {
+        failure = new BatchListenerFailedException("Failed to render notification", e, i);
+        break;
+      }
+    }
+
+    List<CompletableFuture<Void>> sends = new ArrayList<>(letters.size());
+    for (int i = 0; i < letters.size(); i++) {
+      String email = notificationEvents.get(i).getEmail();
+      String letter = letters.get(i);
+      sends.add(letter == null ? null : CompletableFuture.runAsync(
+              () -> mailSenderService.sendMail(email, NotificationRenderer.SUBJECT, letter), mailExecutor));
+    }
+
+    BatchListenerFailedException sendFailure = null;
+    for (int i = 0; i < sends.size(); i++) {
+      if (sends.get(i) == null) {
+        continue;
+      }
+      try {
+        sends.get(i).join();
+        notificationDeduplicator.markSent(notificationEvents.get(i));
+      } catch (CompletionException e) {
+        if (sendFailure == null) {
+          sendFailure = new BatchListenerFailedException(
+                  "Failed to send notification to " + notificationEvents.get(i).getEmail(), e.getCause(), i);
+        }
+      }
+    }
+    if (sendFailure != null) {
+      throw sendFailure;
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    log.info("Notification events handled: " + notificationEvents.size());
+  }
+}
@@ -1,73 +1,76 @@
 package kz.projects.notificationservice.service;
 
 import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.notificationservice.dedup.NotificationDeduplicator;
+import kz.projects.notificationservice.digest.NotificationCoalescer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.logging.Logger;
 
+/**
+ * Handles notification events one record at a time. Used when batch mode is disabled.
+ *
+ * @see NotificationBatchConsumer
+ */
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "notification.kafka.consumer.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class NotificationEventConsumer {
   private final MailSenderService mailSenderService;
+  private final NotificationRenderer notificationRenderer;
+  private final NotificationCoalescer notificationCoalescer;
+  private final NotificationDeduplicator notificationDeduplicator;
 
   Logger log = Logger.getLogger(this.getClass().getName());
 
   @KafkaListener(topics = "topic-account", groupId = "account-consumer-group",
-          containerFactory = "kafkaListenerContainerFactory")
+          containerFactory = "kafkaListenerContainerFactory",
+          concurrency = "${notification.kafka.consumer.account.concurrency:${notification.kafka.consumer.concurrency:1}}")
   public void consumeAccountEvent(NotificationEvent notificationEvent) {
     System.out.println("Event received " + notificationEvent);
-    sendNotification(notificationEvent);
+    sendNotification("topic-account", notificationEvent);
   }
 
   @KafkaListener(topics = "topic-transactions", groupId = "transactions-consumer-group",
-          containerFactory = "kafkaListenerContainerFactory")
+          containerFactory = "kafkaListenerContainerFactory",
+          concurrency = "${notification.kafka.consumer.transactions.concurrency:${notification.kafka.consumer.concurrency:1}}")
   public void consumeTransactionsEvent(NotificationEvent notificationEvent) {
     System.out.println("Event received " + notificationEvent);
-    sendNotification(notificationEvent);
+    sendNotification("topic-transactions", notificationEvent);
   }
 
   @KafkaListener(topics = "topic-investment", groupId = "investment-consumer-group",
-          containerFactory = "kafkaListenerContainerFactory")
+          containerFactory = "kafkaListenerContainerFactory",
+          concurrency = "${notification.kafka.consumer.investment.concurrency:${notification.kafka.consumer.concurrency:1}}")
   public void consumeInvestmentEvent(NotificationEvent notificationEvent) {
     System.out.println("Event received " + notificationEvent);
-    sendNotification(notificationEvent);
+    sendNotification("topic-investment", notificationEvent);
   }
 
   @KafkaListener(topics = "topic-advisory", groupId = "advisory-consumer-group",
-          containerFactory = "kafkaListenerContainerFactory")
+          containerFactory = "kafkaListenerContainerFactory",
+          concurrency = "${notification.kafka.consumer.advisory.concurrency:${notification.kafka.consumer.concurrency:1}}")
   public void consumeAdvisoryEvent(NotificationEvent notificationEvent) {
     System.out.println("Event received " + notificationEvent);
-    sendNotification(notificationEvent);
+    sendNotification("topic-advisory", notificationEvent);
   }
 
-  private void sendNotification(NotificationEvent notificationEvent) {
-    var htmlLetterString = createLetter(notificationEvent.getUsername(), notificationEvent.getMessage());
-
+  private void sendNotification(String topic, NotificationEvent notificationEvent) {
+    if (notificationDeduplicator.isDuplicate(notificationEvent)) {
+      log.info("Duplicate notification event " + notificationEvent.getEventId() + " skipped");
+      return;
+    }
+    if (notificationCoalescer.offer(topic, notificationEvent)) {
+      return;
+    }
     mailSenderService.sendMail(
             notificationEvent.getEmail(),
-            "Advanced Financial Services Management System. Операции со счетом!",
-            htmlLetterString);
+            NotificationRenderer.SUBJECT,
+            notificationRenderer.letter(notificationEvent));
+    notificationDeduplicator.markSent(notificationEvent);
     log.info("Notification event send to email " + notificationEvent.getEmail());
   }
-
-  private String createLetter(String name, String message) {
-    try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("letters/email-message.html")) {
-      if (inputStream == null) {
-        throw new IllegalArgumentException("HTML file not found: letters/email-message.html");
-      }
-      String htmlTemplate = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-
-      htmlTemplate = htmlTemplate.replace("{{name}}", name);
-      htmlTemplate = htmlTemplate.replace("{{message}}", message);
-
-      return htmlTemplate;
-    } catch (IOException e) {
-      throw new RuntimeException("Failed to read HTML file", e);
-    }
-  }
 }
@@ -0,0 +1,120 @@
+package kz.projects.notificationservice.service;
+
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.dto.notification.AccountCreated;
+import kz.projects.commonlib.dto.notification.AccountDeleted;
+import kz.projects.commonlib.dto.notification.AccountUpdated;
+import kz.projects.commonlib.dto.notification.AdvisorySessionDeleted;
+import kz.projects.commonlib.dto.notification.AdvisorySessionOrdered;
+import kz.projects.commonlib.dto.notification.AdvisorySessionRescheduled;
+import kz.projects.commonlib.dto.notification.BulkImportCompleted;
+import kz.projects.commonlib.dto.notification.DepositCompleted;
+import kz.projects.commonlib.dto.notification.InvestmentDeleted;
+import kz.projects.commonlib.dto.notification.InvestmentPlaced;
+import kz.projects.commonlib.dto.notification.NotificationPayload;
+import kz.projects.commonlib.dto.notification.TransferCompleted;
+import kz.projects.commonlib.dto.notification.WithdrawalCompleted;
+import kz.projects.commonlib.money.Money;
+import kz.projects.notificationservice.template.TemplateEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Builds the message text of a notification from its typed payload.
+ * Events without a payload were rendered by the producer and keep their message.
+ * Letters are rendered by {@link TemplateEngine} from a precompiled template.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationRenderer {
+  public static final String SUBJECT = "Advanced Financial Services Management System. Операции со счетом!";
+
+  private static final String LETTER_TEMPLATE = "email-message.html";
+
+  private final TemplateEngine templateEngine;
+
+  /**
+   * Returns the HTML letter for the event.
+   */
+  public String letter(NotificationEvent event) {
+    return letter(event.getUsername(), render(event));
+  }
+
+  /**
+   * Returns one HTML letter listing the events in the order they happened.
+   */
+  public String digestLetter(List<NotificationEvent> events) {
+    if (events.size() == 1) {
+      return letter(events.get(0));
+    }
+    StringBuilder message = new StringBuilder("You have " + events.size() + " new notifications:\n\n");
+    for (NotificationEvent event : events) {
+      message.append(render(event)).append('\n');
+    }
+    return letter(events.get(events.size() - 1).getUsername(), message.toString());
+  }
+
+  public String render(NotificationEvent event) {
+    NotificationPayload payload = event.getPayload();
+    if (payload == null) {
+      return event.getMessage();
+    }
+
+    if (payload instanceof DepositCompleted p) {
+      return operation("deposit", p.amount(), p.accountId(), p.accountType());
+    } else if (payload instanceof WithdrawalCompleted p) {
+      return operation("withdrawal", p.amount(), p.accountId(), p.accountType());
+    } else if (payload instanceof TransferCompleted p) {
+      return operation("transfer to account ID " + p.toAccountId(), p.amount(), p.fromAccountId(), p.accountType());
+    } else if (payload instanceof BulkImportCompleted p) {
+      return "Bulk import completed! " + "\n" +
+              "Operations applied: " + p.succeeded() + "\n" +
+              "Operations rejected: " + p.failed() + "\n";
+    } else if (payload instanceof AccountCreated p) {
+      return account("created", p.accountId(), p.accountType(), p.balance());
+    } else if (payload instanceof AccountUpdated p) {
+      return account("updated", p.accountId(), p.accountType(), p.balance());
+    } else if (payload instanceof AccountDeleted p) {
+      return account("deleted", p.accountId(), p.accountType(), p.balance());
+    } else if (payload instanceof InvestmentPlaced p) {
+      return "You have successfully invested " + p.amount() + " to " + p.investmentType()
+              + " from account with ID " + p.accountId()
+              + " at " + new Date(p.placedAt());
+    } else if (payload instanceof InvestmentDeleted p) {
+      return "You have successfully deleted your investment with ID " + p.investmentId();
+    } else if (payload instanceof AdvisorySessionOrdered p) {
+      return "You have successfully ordered advisory with ID " + p.sessionId() +
+              " on " + p.date() + " at " + p.time();
+    } else if (payload instanceof AdvisorySessionRescheduled p) {
+      return "You have successfully rescheduled your advisory session with ID " + p.sessionId() +
+              " to " + p.date() + " at " + p.time();
+    } else if (payload instanceof AdvisorySessionDeleted p) {
+      return "You have successfully deleted your advisory session with ID " + p.sessionId();
+    }
+    throw new IllegalArgumentException("Unsupported notification payload " + payload.getClass().getName());
+  }
+
+  private String letter(String name, String message) {
+    return templateEngine.render(LETTER_TEMPLATE, placeholder -> switch (placeholder) {
+      case "name" -> name;
+      case "message" -> message;
+      default -> null;
+    });
+  }
+
+  private String operation(String operation, Money amount, Long accountId, String accountType) {
+    return "Operation went successfully! " + "\n" +
+            "Operation: " + operation + "\n" +
+            "Amount: " + amount + "\n" +
+            "Account ID: " + accountId + "\n" +
+            "Account Type: " + accountType + "\n";
+  }
+
+  private String account(String action, Long accountId, String accountType, Money balance) {
+    return String.format("You have successfully %s your account with id %d, type %s, and balance %s",
+            action, accountId, accountType, balance);
+  }
+}
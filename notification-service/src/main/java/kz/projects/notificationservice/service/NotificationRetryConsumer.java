@@ -0,0 +1,66 @@
+package kz.projects.notificationservice.service;
+
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.notificationservice.config.KafkaRetryConfig;
+import kz.projects.notificationservice.dedup.NotificationDeduplicator;
+import kz.projects.notificationservice.metrics.NotificationRetryMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Service;
+
+import java.util.logging.Logger;
+
+/**
+ * Retries notifications that failed on the main topics. Each failed attempt moves the event to the next
+ * {@code topic-notification-retry-N} topic, whose consumer waits out the backoff by pausing only that
+ * partition. After {@code notification.kafka.retry.attempts} the event lands in the dead-letter topic.
+ * Retried events are sent on their own and never merged into digests.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationRetryConsumer {
+  private final MailSenderService mailSenderService;
+  private final NotificationRenderer notificationRenderer;
+  private final NotificationRetryMetrics retryMetrics;
+  private final NotificationDeduplicator notificationDeduplicator;
+
+  Logger log = Logger.getLogger(this.getClass().getName());
+
+  @RetryableTopic(attempts = "${notification.kafka.retry.attempts:4}",
+          backoff = @Backoff(delayExpression = "${notification.kafka.retry.initial-delay-ms:1000}",
+                  multiplierExpression = "${notification.kafka.retry.multiplier:2}",
+                  maxDelayExpression = "${notification.kafka.retry.max-delay-ms:60000}"),
+          kafkaTemplate = "retryKafkaTemplate",
+          autoCreateTopics = "${notification.kafka.retry.auto-create-topics:true}",
+          numPartitions = "${notification.kafka.retry.partitions:6}",
+          replicationFactor = "${notification.kafka.retry.replication-factor:1}",
+          dltTopicSuffix = "-dlt",
+          topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
+  @KafkaListener(topics = KafkaRetryConfig.RETRY_TOPIC, groupId = "notification-retry-consumer-group",
+          containerFactory = "kafkaListenerContainerFactory")
+  public void retry(NotificationEvent notificationEvent, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+    retryMetrics.retried(topic);
+    if (notificationDeduplicator.isDuplicate(notificationEvent)) {
+      log.info("Duplicate notification event " + notificationEvent.getEventId() + " skipped");
+      return;
+    }
+    mailSenderService.sendMail(
+            notificationEvent.getEmail(),
+            NotificationRenderer.SUBJECT,
+            notificationRenderer.letter(notificationEvent));
+    notificationDeduplicator.markSent(notificationEvent);
+    log.info("Notification event send to email " + notificationEvent.getEmail() + " from " + topic);
+  }
+
+  @DltHandler
+  public void deadLetter(NotificationEvent notificationEvent, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+    retryMetrics.deadLettered(topic);
+    log.warning("Notification event for " + notificationEvent.getEmail() + " moved to " + topic);
+  }
+}
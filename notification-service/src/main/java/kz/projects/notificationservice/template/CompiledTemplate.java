@@ -0,0 +1,86 @@
+package kz.projects.notificationservice.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template split once into literal text and {@code {{placeholder}}} segments:
+ * {@code literals[0] placeholders[0] literals[1] ... placeholders[n-1] literals[n]}.
+ */
+final class CompiledTemplate {
+  private static final String OPEN = "{{";
+  private static final String CLOSE = "}}";
+
+  private final String[] literals;
+  private final String[] placeholders;
+  private final int literalLength;
+  private final long lastModified;
+
+  private CompiledTemplate(String[] literals, String[] placeholders, long lastModified) {
+    this.literals = literals;
+    this.placeholders = placeholders;
+    this.lastModified = lastModified;
+    int length = 0;
+    for (String literal : literals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+  }
+
+  static CompiledTemplate parse(String source, long lastModified) {
+    List<String> literals = new ArrayList<>();
+    List<String> placeholders = new ArrayList<>();
+    int position = 0;
+    while (true) {
+      int open = source.indexOf(OPEN, position);
+      int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+      if (close < 0) {
+        literals.add(source.substring(position));
+        break;
+      }
+      literals.add(source.substring(position, open));
+      placeholders.add(source.substring(open + OPEN.length(), close).trim());
+      position = close + CLOSE.length();
+    }
+    return new CompiledTemplate(literals.toArray(String[]::new), placeholders.toArray(String[]::new), lastModified);
+  }
+
+  long lastModified() {
+    return lastModified;
+  }
+
+  int literalLength() {
+    return literalLength;
+  }
+
+  void renderTo(StringBuilder out, TemplateValues values) {
+    for (int i = 0; i < placeholders.length; i++) {
+      out.append(literals[i]);
+      escapeTo(out, values.get(placeholders[i]));
+    }
+    out.append(literals[placeholders.length]);
+  }
+
+  /**
+   * Appends {@code value} escaped for HTML text; line breaks become {@code <br/>}.
+   */
+  private static void escapeTo(StringBuilder out, String value) {
+    if (value == null) {
+      return;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '&' -> out.append("&amp;");
+        case '<' -> out.append("&lt;");
+        case '>' -> out.append("&gt;");
+        case '"' -> out.append("&quot;");
+        case '\'' -> out.append("&#39;");
+        case '\n' -> out.append("<br/>");
+        case '\r' -> {
+        }
+        default -> out.append(c);
+      }
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package kz.projects.notificationservice.template;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders letter templates from {@code notification.templates.location}.
+ * <p>
+ * A template is read and split into segments once, then rendered in a single pass into a buffer reused
+ * by the calling thread; values are HTML-escaped. At most once per {@code reload-interval-ms} the engine
+ * compares the template's modification time and recompiles it if the file changed, so templates outside
+ * the jar can be edited without a restart.
+ */
+@Component
+@RequiredArgsConstructor
+public class TemplateEngine {
+  private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+  private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+
+  private final ResourceLoader resourceLoader;
+
+  private final Map<String, Entry> templates = new ConcurrentHashMap<>();
+
+  @Value("${notification.templates.location:classpath:letters/}")
+  private String location;
+
+  @Value("${notification.templates.reload-interval-ms:5000}")
+  private long reloadIntervalMs;
+
+  public String render(String name, TemplateValues values) {
+    CompiledTemplate template = template(name);
+
+    StringBuilder buffer = BUFFER.get();
+    buffer.setLength(0);
+    buffer.ensureCapacity(template.literalLength() + 512);
+    template.renderTo(buffer, values);
+    String result = buffer.toString();
+
+    if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+      BUFFER.remove();
+    }
+    return result;
+  }
+
+  private CompiledTemplate template(String name) {
+    long now = System.currentTimeMillis();
+    Entry entry = templates.get(name);
+    if (entry != null && now < entry.checkedAt() + reloadIntervalMs) {
+      return entry.template();
+    }
+    return templates.compute(name, (key, current) -> load(key, current, now)).template();
+  }
+
+  private Entry load(String name, Entry current, long now) {
+    Resource resource = resourceLoader.getResource(location + name);
+    long lastModified = lastModified(resource);
+    if (current != null && current.template().lastModified() == lastModified) {
+      return new Entry(current.template(), now);
+    }
+
+    try (InputStream inputStream = resource.getInputStream()) {
+      String source = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+      return new Entry(CompiledTemplate.parse(source, lastModified), now);
+    } catch (IOException e) {
+      if (current != null) {
+        return new Entry(current.template(), now);
+      }
+      throw new UncheckedIOException("Failed to read template " + location + name, e);
+    }
+  }
+
+  private static long lastModified(Resource resource) {
+    try {
+      return resource.lastModified();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private record Entry(CompiledTemplate template, long checkedAt) {
+  }
+}
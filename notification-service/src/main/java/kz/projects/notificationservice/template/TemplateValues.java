@@ -0,0 +1,13 @@
+package kz.projects.notificationservice.template;
+
+/**
+ * Supplies placeholder values while a template is rendered.
+ */
+@FunctionalInterface
+public interface TemplateValues {
+
+  /**
+   * Returns the raw value of {@code placeholder}, or {@code null} to render nothing.
+   */
+  String get(String placeholder);
+}
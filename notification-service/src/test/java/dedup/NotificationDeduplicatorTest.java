@@ -0,0 +1,92 @@
+package dedup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.notificationservice.dedup.NotificationDeduplicator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NotificationDeduplicatorTest {
+
+  @TempDir
+  private Path directory;
+
+  private NotificationDeduplicator deduplicator;
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    deduplicator.close();
+  }
+
+  @Test
+  public void testMarkSent_DropsRedelivery() throws IOException {
+    deduplicator = open(10);
+
+    assertFalse(deduplicator.isDuplicate(event("a")));
+    deduplicator.markSent(event("a"));
+
+    assertTrue(deduplicator.isDuplicate(event("a")));
+    assertFalse(deduplicator.isDuplicate(event("b")));
+    assertFalse(deduplicator.isDuplicate(event(null)));
+  }
+
+  @Test
+  public void testOpen_SurvivesRestart() throws IOException {
+    deduplicator = open(10);
+    deduplicator.markSent(event("a"));
+    deduplicator.markSent(event("b"));
+    deduplicator.close();
+
+    deduplicator = open(10);
+
+    assertTrue(deduplicator.isDuplicate(event("a")));
+    assertTrue(deduplicator.isDuplicate(event("b")));
+    assertFalse(deduplicator.isDuplicate(event("c")));
+  }
+
+  @Test
+  public void testMarkSent_KeepsOnlyRecentIdsAndCompactsStore() throws IOException {
+    deduplicator = open(3);
+    for (int i = 0; i < 7; i++) {
+      deduplicator.markSent(event("id-" + i));
+    }
+    deduplicator.flush();
+
+    assertFalse(deduplicator.isDuplicate(event("id-0")));
+    assertTrue(deduplicator.isDuplicate(event("id-6")));
+    assertTrue(Files.readAllLines(directory.resolve("sent.log"), StandardCharsets.UTF_8).size() < 7);
+
+    deduplicator.close();
+    deduplicator = open(3);
+    assertFalse(deduplicator.isDuplicate(event("id-3")));
+    assertTrue(deduplicator.isDuplicate(event("id-4")));
+    assertEquals(3, Files.readAllLines(directory.resolve("sent.log"), StandardCharsets.UTF_8).size());
+  }
+
+  private NotificationDeduplicator open(int maxIds) throws IOException {
+    NotificationDeduplicator opened = new NotificationDeduplicator(new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(opened, "enabled", true);
+    ReflectionTestUtils.setField(opened, "storePath", directory.resolve("sent.log"));
+    ReflectionTestUtils.setField(opened, "maxIds", maxIds);
+    ReflectionTestUtils.setField(opened, "flushIntervalMs", 60_000L);
+    opened.open();
+    return opened;
+  }
+
+  private NotificationEvent event(String eventId) {
+    NotificationEvent event = new NotificationEvent("1", "User", "user@example.com", "hello", "now");
+    event.setEventId(eventId);
+    return event;
+  }
+}
@@ -0,0 +1,172 @@
+package digest;
+
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.commonlib.dto.notification.AccountDeleted;
+import kz.projects.commonlib.dto.notification.DepositCompleted;
+import kz.projects.commonlib.money.Money;
+import kz.projects.notificationservice.config.KafkaRetryConfig;
+import kz.projects.notificationservice.dedup.NotificationDeduplicator;
+import kz.projects.notificationservice.digest.NotificationCoalescer;
+import kz.projects.notificationservice.metrics.NotificationRetryMetrics;
+import kz.projects.notificationservice.service.MailSenderService;
+import kz.projects.notificationservice.service.NotificationRenderer;
+import kz.projects.notificationservice.template.TemplateEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationCoalescerTest {
+
+  @Mock
+  private MailSenderService mailSenderService;
+
+  @Mock
+  private NotificationDeduplicator notificationDeduplicator;
+
+  @Mock
+  private KafkaTemplate<Object, Object> retryKafkaTemplate;
+
+  @Mock
+  private NotificationRetryMetrics retryMetrics;
+
+  @Mock
+  private ThreadPoolTaskExecutor mailExecutor;
+
+  private NotificationCoalescer notificationCoalescer;
+
+  @BeforeEach
+  public void setUp() {
+    lenient().doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return null;
+    }).when(mailExecutor).execute(any(Runnable.class));
+
+    TemplateEngine templateEngine = new TemplateEngine(new DefaultResourceLoader());
+    ReflectionTestUtils.setField(templateEngine, "location", "classpath:letters/");
+    ReflectionTestUtils.setField(templateEngine, "reloadIntervalMs", 0L);
+
+    notificationCoalescer = new NotificationCoalescer(mailSenderService, new NotificationRenderer(templateEngine),
+            notificationDeduplicator, retryKafkaTemplate, retryMetrics, mailExecutor, Set.of("topic-transactions"), Set.of("AccountDeleted"),
+            60_000, 3, 2, 4);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    notificationCoalescer.flushAll();
+  }
+
+  @Test
+  public void testOffer_FlushesFullDigestAsOneLetter() {
+    assertTrue(notificationCoalescer.offer("topic-transactions", deposit("1")));
+    assertTrue(notificationCoalescer.offer("topic-transactions", deposit("1")));
+    verify(mailSenderService, never()).sendMail(anyString(), anyString(), anyString());
+
+    assertTrue(notificationCoalescer.offer("topic-transactions", deposit("1")));
+
+    ArgumentCaptor<String> letter = ArgumentCaptor.forClass(String.class);
+    verify(mailSenderService, times(1)).sendMail(eq("user1@example.com"), eq(NotificationRenderer.SUBJECT),
+            letter.capture());
+    assertTrue(letter.getValue().contains("You have 3 new notifications"));
+  }
+
+  @Test
+  public void testOffer_SendsImmediately() {
+    assertFalse(notificationCoalescer.offer("topic-account", deposit("1")));
+    assertFalse(notificationCoalescer.offer("topic-transactions", new NotificationEvent("1", "User",
+            "user1@example.com", new AccountDeleted(1L, "сберегательного", Money.of("10.00")), "now")));
+
+    assertTrue(notificationCoalescer.offer("topic-transactions", deposit("1")));
+    assertTrue(notificationCoalescer.offer("topic-transactions", deposit("2")));
+    assertFalse(notificationCoalescer.offer("topic-transactions", deposit("3")));
+  }
+
+  @Test
+  public void testOffer_SendsImmediatelyWhenBufferIsFull() {
+    notificationCoalescer.offer("topic-transactions", deposit("1"));
+    notificationCoalescer.offer("topic-transactions", deposit("1"));
+    notificationCoalescer.offer("topic-transactions", deposit("2"));
+    notificationCoalescer.offer("topic-transactions", deposit("2"));
+
+    assertFalse(notificationCoalescer.offer("topic-transactions", deposit("1")));
+  }
+
+  @Test
+  public void testFlushAll_SendsOpenDigests() {
+    notificationCoalescer.offer("topic-transactions", deposit("1"));
+    notificationCoalescer.offer("topic-transactions", deposit("2"));
+
+    notificationCoalescer.flushAll();
+
+    verify(mailSenderService).sendMail(eq("user1@example.com"), eq(NotificationRenderer.SUBJECT), anyString());
+    verify(mailSenderService).sendMail(eq("user2@example.com"), eq(NotificationRenderer.SUBJECT), anyString());
+  }
+
+  @Test
+  public void testFlushAll_MovesEventsOfFailedDigestToRetryTopic() {
+    NotificationEvent first = deposit("1");
+    NotificationEvent second = deposit("1");
+    notificationCoalescer.offer("topic-transactions", first);
+    notificationCoalescer.offer("topic-transactions", second);
+    doThrow(new MailSendException("smtp unavailable"))
+            .when(mailSenderService).sendMail(anyString(), anyString(), anyString());
+    when(retryKafkaTemplate.send(eq(KafkaRetryConfig.RETRY_TOPIC), eq("1"), any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+    notificationCoalescer.flushAll();
+
+    verify(retryKafkaTemplate).send(KafkaRetryConfig.RETRY_TOPIC, "1", first);
+    verify(retryKafkaTemplate).send(KafkaRetryConfig.RETRY_TOPIC, "1", second);
+    verify(retryMetrics, times(2)).failed("topic-transactions");
+    verify(notificationDeduplicator, never()).markSent(any());
+  }
+
+  @Test
+  public void testFlushAll_MovesRemainingEventsWhenRetrySendThrows() {
+    NotificationEvent first = deposit("1");
+    NotificationEvent second = deposit("1");
+    notificationCoalescer.offer("topic-transactions", first);
+    notificationCoalescer.offer("topic-transactions", second);
+    doThrow(new MailSendException("smtp unavailable"))
+            .when(mailSenderService).sendMail(anyString(), anyString(), anyString());
+    when(retryKafkaTemplate.send(KafkaRetryConfig.RETRY_TOPIC, "1", first))
+            .thenThrow(new KafkaException("metadata unavailable"));
+    when(retryKafkaTemplate.send(KafkaRetryConfig.RETRY_TOPIC, "1", second))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+    notificationCoalescer.flushAll();
+
+    verify(retryKafkaTemplate).send(KafkaRetryConfig.RETRY_TOPIC, "1", second);
+  }
+
+  private NotificationEvent deposit(String userId) {
+    return new NotificationEvent(userId, "User", "user" + userId + "@example.com",
+            new DepositCompleted(1L, "сберегательного", Money.of("10.00")), "now");
+  }
+}
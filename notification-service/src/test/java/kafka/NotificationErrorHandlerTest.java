@@ -0,0 +1,83 @@
+package kafka;
+
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.notificationservice.config.KafkaRetryConfig;
+import kz.projects.notificationservice.metrics.NotificationRetryMetrics;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationErrorHandlerTest {
+
+  @Mock
+  private KafkaTemplate<Object, Object> kafkaTemplate;
+
+  @Mock
+  private NotificationRetryMetrics retryMetrics;
+
+  @Mock
+  private Consumer<?, ?> consumer;
+
+  @Mock
+  private MessageListenerContainer container;
+
+  private DefaultErrorHandler errorHandler;
+
+  @BeforeEach
+  public void setUp() {
+    when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+    errorHandler = new KafkaRetryConfig().notificationErrorHandler(kafkaTemplate, retryMetrics);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testHandleOne_SendFailureGoesToRetryTopic() {
+    NotificationEvent event = new NotificationEvent("1", "User", "user1@example.com", "message", "now");
+    ConsumerRecord<String, NotificationEvent> record = new ConsumerRecord<>("topic-transactions", 0, 10L, "1", event);
+
+    boolean handled = errorHandler.handleOne(
+            new ListenerExecutionFailedException("send failed", new RuntimeException("smtp")),
+            record, consumer, container);
+
+    assertTrue(handled);
+    ArgumentCaptor<ProducerRecord<Object, Object>> published = ArgumentCaptor.forClass(ProducerRecord.class);
+    verify(kafkaTemplate).send(published.capture());
+    assertEquals(KafkaRetryConfig.RETRY_TOPIC, published.getValue().topic());
+    assertEquals("1", published.getValue().key());
+    verify(retryMetrics).failed("topic-transactions");
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testHandleOne_PoisonRecordGoesToDeadLetterTopic() {
+    ConsumerRecord<String, NotificationEvent> record = new ConsumerRecord<>("topic-account", 0, 11L, "1", null);
+
+    boolean handled = errorHandler.handleOne(
+            new ListenerExecutionFailedException("deserialization failed"), record, consumer, container);
+
+    assertTrue(handled);
+    ArgumentCaptor<ProducerRecord<Object, Object>> published = ArgumentCaptor.forClass(ProducerRecord.class);
+    verify(kafkaTemplate).send(published.capture());
+    assertEquals(KafkaRetryConfig.DEAD_LETTER_TOPIC, published.getValue().topic());
+    verify(retryMetrics).deadLettered("topic-account");
+  }
+}
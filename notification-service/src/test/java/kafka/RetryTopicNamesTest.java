@@ -0,0 +1,37 @@
+package kafka;
+
+import kz.projects.notificationservice.config.KafkaRetryConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.classify.BinaryExceptionClassifier;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.retrytopic.DestinationTopicPropertiesFactory;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.RetryTopicNamesProviderFactory;
+import org.springframework.kafka.retrytopic.SameIntervalTopicReuseStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class RetryTopicNamesTest {
+
+  @Test
+  public void testRetryTopicNames_AppendAttemptIndex() {
+    RetryTopicNamesProviderFactory namesProviderFactory =
+            new KafkaRetryConfig().retryTopicComponentFactory().retryTopicNamesProviderFactory();
+    DestinationTopicPropertiesFactory propertiesFactory = new DestinationTopicPropertiesFactory(null, "-dlt",
+            List.of(1000L, 2000L, 4000L), new BinaryExceptionClassifier(true), 6, mock(KafkaOperations.class),
+            DltStrategy.FAIL_ON_ERROR, TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            SameIntervalTopicReuseStrategy.MULTIPLE_TOPICS, 0);
+
+    List<String> names = propertiesFactory.createProperties().stream()
+            .map(properties -> namesProviderFactory.createRetryTopicNamesProvider(properties)
+                    .getTopicName(KafkaRetryConfig.RETRY_TOPIC))
+            .toList();
+
+    assertEquals(List.of("topic-notification-retry", "topic-notification-retry-0", "topic-notification-retry-1",
+            "topic-notification-retry-2", KafkaRetryConfig.DEAD_LETTER_TOPIC), names);
+  }
+}
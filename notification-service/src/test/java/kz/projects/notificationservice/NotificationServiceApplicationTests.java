@@ -3,7 +3,7 @@ package kz.projects.notificationservice;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "notification.dedup.store-path=${java.io.tmpdir}/notification-service-test/sent-event-ids.log")
 class NotificationServiceApplicationTests {
 
   @Test
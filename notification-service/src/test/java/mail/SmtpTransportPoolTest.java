@@ -0,0 +1,98 @@
+package mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import kz.projects.notificationservice.mail.DomainRateLimiter;
+import kz.projects.notificationservice.mail.SmtpTransportPool;
+import kz.projects.notificationservice.service.MailSenderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SmtpTransportPoolTest {
+
+  @RegisterExtension
+  static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+  private SmtpTransportPool transportPool;
+  private MailSenderService mailSenderService;
+
+  @BeforeEach
+  public void setUp() {
+    JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+    mailSender.setHost("localhost");
+    mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+    transportPool = new SmtpTransportPool(mailSender, 2, 60_000, 3);
+    mailSenderService = new MailSenderService(transportPool, new DomainRateLimiter(0, 1));
+    ReflectionTestUtils.setField(mailSenderService, "from", "noreply@example.com");
+  }
+
+  @AfterEach
+  public void tearDown() {
+    transportPool.destroy();
+  }
+
+  @Test
+  public void testSendMail_DeliversOverPooledConnections() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> sends = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        String to = "user" + i + "@example.com";
+        sends.add(executor.submit(() -> mailSenderService.sendMail(to, "Операции со счетом", "<p>Hello</p>")));
+      }
+      for (Future<?> send : sends) {
+        send.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    MimeMessage[] received = greenMail.getReceivedMessages();
+    assertEquals(10, received.length);
+    assertEquals("Операции со счетом", received[0].getSubject());
+  }
+
+  @Test
+  public void testSendMail_ReconnectsAfterServerRestart() throws Exception {
+    mailSenderService.sendMail("user@example.com", "first", "<p>1</p>");
+    greenMail.reset();
+
+    mailSenderService.sendMail("user@example.com", "second", "<p>2</p>");
+
+    assertEquals(1, greenMail.getReceivedMessages().length);
+    assertEquals("second", greenMail.getReceivedMessages()[0].getSubject());
+  }
+
+  @Test
+  public void testDomainRateLimiter_ThrottlesPerDomain() {
+    DomainRateLimiter limiter = new DomainRateLimiter(20, 2);
+
+    long start = System.nanoTime();
+    limiter.acquire("a@example.com");
+    limiter.acquire("b@example.com");
+    limiter.acquire("c@other.com");
+    long burstMs = (System.nanoTime() - start) / 1_000_000;
+
+    limiter.acquire("d@EXAMPLE.com");
+    limiter.acquire("e@example.com");
+    long throttledMs = (System.nanoTime() - start) / 1_000_000;
+
+    assertTrue(burstMs < 50, "burst took " + burstMs + " ms");
+    assertTrue(throttledMs >= 80, "throttled sends took " + throttledMs + " ms");
+  }
+}
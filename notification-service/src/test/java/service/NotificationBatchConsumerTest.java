@@ -0,0 +1,123 @@
+package service;
+
+import kz.projects.commonlib.dto.NotificationEvent;
+import kz.projects.notificationservice.dedup.NotificationDeduplicator;
+import kz.projects.notificationservice.digest.NotificationCoalescer;
+import kz.projects.notificationservice.service.MailSenderService;
+import kz.projects.notificationservice.service.NotificationBatchConsumer;
+import kz.projects.notificationservice.service.NotificationRenderer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationBatchConsumerTest {
+
+  @Mock
+  private MailSenderService mailSenderService;
+
+  @Mock
+  private NotificationRenderer notificationRenderer;
+
+  @Mock
+  private ThreadPoolTaskExecutor mailExecutor;
+
+  @Mock
+  private NotificationCoalescer notificationCoalescer;
+
+  @Mock
+  private NotificationDeduplicator notificationDeduplicator;
+
+  private NotificationBatchConsumer consumer;
+
+  @BeforeEach
+  public void setUp() {
+    lenient().doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return null;
+    }).when(mailExecutor).execute(any(Runnable.class));
+    lenient().when(notificationRenderer.letter(any(NotificationEvent.class)))
+            .thenAnswer(invocation -> "letter for " + invocation.<NotificationEvent>getArgument(0).getUserId());
+
+    consumer = new NotificationBatchConsumer(mailSenderService, notificationRenderer, mailExecutor,
+            notificationCoalescer, notificationDeduplicator);
+  }
+
+  @Test
+  public void testBatch_SendsAllLetters() {
+    List<NotificationEvent> events = List.of(event("1"), event("2"));
+
+    consumer.consumeAccountEvents(events);
+
+    verify(mailSenderService).sendMail("user1@example.com", NotificationRenderer.SUBJECT, "letter for 1");
+    verify(mailSenderService).sendMail("user2@example.com", NotificationRenderer.SUBJECT, "letter for 2");
+    verify(notificationDeduplicator).markSent(events.get(0));
+    verify(notificationDeduplicator).markSent(events.get(1));
+  }
+
+  @Test
+  public void testBatch_UndeserializableRecordInTheMiddle() {
+    List<NotificationEvent> events = Arrays.asList(event("1"), null, event("3"));
+
+    BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+            () -> consumer.consumeAccountEvents(events));
+
+    assertEquals(1, failure.getIndex());
+    verify(mailSenderService).sendMail("user1@example.com", NotificationRenderer.SUBJECT, "letter for 1");
+    verify(notificationDeduplicator).markSent(events.get(0));
+    verify(mailSenderService, never()).sendMail(eq("user3@example.com"), anyString(), anyString());
+  }
+
+  @Test
+  public void testBatch_RenderFailureInTheMiddle() {
+    NotificationEvent broken = event("2");
+    List<NotificationEvent> events = List.of(event("1"), broken, event("3"));
+    when(notificationRenderer.letter(broken)).thenThrow(new IllegalStateException("template missing"));
+
+    BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+            () -> consumer.consumeAccountEvents(events));
+
+    assertEquals(1, failure.getIndex());
+    verify(mailSenderService).sendMail("user1@example.com", NotificationRenderer.SUBJECT, "letter for 1");
+    verify(notificationDeduplicator).markSent(events.get(0));
+    verify(mailSenderService, never()).sendMail(eq("user3@example.com"), anyString(), anyString());
+  }
+
+  @Test
+  public void testBatch_ReportsFirstFailedSendBeforeLaterBadRecord() {
+    List<NotificationEvent> events = Arrays.asList(event("1"), event("2"), null);
+    doThrow(new MailSendException("smtp unavailable"))
+            .when(mailSenderService).sendMail(eq("user1@example.com"), anyString(), anyString());
+
+    BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+            () -> consumer.consumeAccountEvents(events));
+
+    assertEquals(0, failure.getIndex());
+    verify(notificationDeduplicator, never()).markSent(events.get(0));
+    verify(notificationDeduplicator).markSent(events.get(1));
+  }
+
+  private NotificationEvent event(String userId) {
+    return new NotificationEvent(userId, "user" + userId, "user" + userId + "@example.com", "hello", "now");
+  }
+}
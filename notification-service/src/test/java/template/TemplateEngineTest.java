@@ -0,0 +1,78 @@
+package template;
+
+import kz.projects.notificationservice.template.TemplateEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TemplateEngineTest {
+
+  @TempDir
+  private Path directory;
+
+  private TemplateEngine templateEngine;
+
+  @BeforeEach
+  public void setUp() {
+    templateEngine = new TemplateEngine(new DefaultResourceLoader());
+    ReflectionTestUtils.setField(templateEngine, "location", directory.toUri().toString());
+    ReflectionTestUtils.setField(templateEngine, "reloadIntervalMs", 0L);
+  }
+
+  @Test
+  public void testRender_AdjacentAndUnterminatedPlaceholders() throws Exception {
+    write("letter.html", "<p>{{ first }}{{second}}</p> {{third", 1_000L);
+
+    assertEquals("<p>ab</p> {{third", render("letter.html", Map.of("first", "a", "second", "b", "third", "c")));
+  }
+
+  @Test
+  public void testRender_EscapesValuesAndLineBreaks() throws Exception {
+    write("letter.html", "<p>{{message}}</p><p>{{missing}}</p>", 1_000L);
+
+    assertEquals("<p>&lt;b&gt;Tom &amp; &quot;Jerry&quot;&#39;s&lt;/b&gt;<br/>line 2</p><p></p>",
+            render("letter.html", Map.of("message", "<b>Tom & \"Jerry\"'s</b>\r\nline 2")));
+  }
+
+  @Test
+  public void testRender_ReloadsChangedTemplate() throws Exception {
+    write("letter.html", "old {{name}}", 1_000L);
+    assertEquals("old x", render("letter.html", Map.of("name", "x")));
+
+    write("letter.html", "new {{name}}", 2_000L);
+
+    assertEquals("new x", render("letter.html", Map.of("name", "x")));
+  }
+
+  @Test
+  public void testRender_KeepsLastGoodTemplateWhenReloadFails() throws Exception {
+    write("letter.html", "hello {{name}}", 1_000L);
+    assertEquals("hello x", render("letter.html", Map.of("name", "x")));
+
+    Files.delete(directory.resolve("letter.html"));
+
+    assertEquals("hello x", render("letter.html", Map.of("name", "x")));
+    assertThrows(UncheckedIOException.class, () -> render("missing.html", Map.of()));
+  }
+
+  private String render(String name, Map<String, String> values) {
+    return templateEngine.render(name, values::get);
+  }
+
+  private void write(String name, String source, long lastModified) throws Exception {
+    Path file = directory.resolve(name);
+    Files.writeString(file, source);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+  }
+}